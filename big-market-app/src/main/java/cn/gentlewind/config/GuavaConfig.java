@@ -2,6 +2,7 @@ package cn.gentlewind.config;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -17,4 +18,16 @@ public class GuavaConfig {
                 .build();
     }
 
+    /**
+     * 策略配置本地缓存；策略实体、奖品列表等，配置变更时经 Redis 主题通知失效，过期时间兜底
+     */
+    @Bean(name = "strategyLocalCache")
+    public Cache<String, Object> strategyLocalCache(@Value("${big-market.strategy.local-cache.maximum-size:10000}") long maximumSize,
+                                                    @Value("${big-market.strategy.local-cache.expire-seconds:300}") long expireSeconds) {
+        return CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
 }
@@ -0,0 +1,24 @@
+package cn.gentlewind.config;
+
+import cn.gentlewind.infrastructure.persistent.redis.IRedisService;
+import cn.gentlewind.infrastructure.persistent.redis.InMemoryRedisService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * 内存 Redis；激活 in-memory 配置文件时替代 Redisson，如 spring.profiles.active=dev,in-memory
+ *
+ */
+@Configuration
+@Profile("in-memory")
+@EnableConfigurationProperties(InMemoryRedisConfigProperties.class)
+public class InMemoryRedisConfig {
+
+    @Bean("inMemoryRedisService")
+    public IRedisService inMemoryRedisService(InMemoryRedisConfigProperties properties) {
+        return new InMemoryRedisService(properties.getLatencyMicros(), properties.getJitterMicros(), properties.getOperationLatencyMicros());
+    }
+
+}
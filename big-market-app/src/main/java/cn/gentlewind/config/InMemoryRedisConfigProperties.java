@@ -0,0 +1,23 @@
+package cn.gentlewind.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @description 内存 Redis 配置；离线压测时模拟 Redis 网络往返
+ */
+@Data
+@ConfigurationProperties(prefix = "redis.in-memory", ignoreInvalidFields = true)
+public class InMemoryRedisConfigProperties {
+
+    /** 每次操作的基础延迟（单位：微秒），默认为0 */
+    private long latencyMicros = 0;
+    /** 在基础延迟上叠加的随机抖动上限（单位：微秒），默认为0 */
+    private long jitterMicros = 0;
+    /** 按操作名覆盖基础延迟（单位：微秒），如 getValue、RMap.get、RBinaryStream.read、batch */
+    private Map<String, Long> operationLatencyMicros = new HashMap<>();
+
+}
@@ -16,6 +16,7 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 import java.io.IOException;
 
@@ -24,6 +25,7 @@ import java.io.IOException;
  *
  */
 @Configuration
+@Profile("!in-memory")
 @EnableConfigurationProperties(RedisClientConfigProperties.class)
 public class RedisClientConfig {
 
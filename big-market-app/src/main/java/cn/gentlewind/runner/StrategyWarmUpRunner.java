@@ -0,0 +1,58 @@
+package cn.gentlewind.runner;
+
+import cn.gentlewind.domain.strategy.model.entity.StrategyArmoryResultEntity;
+import cn.gentlewind.domain.strategy.service.armory.IStrategyArmory;
+import cn.gentlewind.infrastructure.persistent.dao.IStrategyDao;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.List;
+
+/**
+ * 抽奖策略启动预热
+ *
+ * 服务启动（滚动发布、Redis 故障切换后重启）时，对所有策略执行预热：填充策略缓存、装配缺失的查找表、加载本地缓存。
+ * 预热完成前就绪状态为 REFUSING_TRAFFIC，负载均衡不会把流量打到冷节点；单个策略失败只记录日志，不影响其他策略和启动。
+ */
+@Slf4j
+@Component
+public class StrategyWarmUpRunner implements ApplicationRunner {
+
+    @Resource
+    private IStrategyDao strategyDao;
+
+    @Resource
+    private IStrategyArmory strategyArmory;
+
+    @Resource
+    private ApplicationContext applicationContext;
+
+    @Value("${big-market.strategy.warm-up.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+
+        AvailabilityChangeEvent.publish(applicationContext, ReadinessState.REFUSING_TRAFFIC);
+        long startMillis = System.currentTimeMillis();
+        try {
+            List<Long> strategyIds = strategyDao.queryStrategyIdList();
+            List<StrategyArmoryResultEntity> results = strategyArmory.warmUpLotteryStrategies(strategyIds);
+            long failed = results.stream().filter(result -> !result.isSuccess()).count();
+            log.info("抽奖策略预热完成 total:{} failed:{} cost:{}ms", results.size(), failed, System.currentTimeMillis() - startMillis);
+        } catch (Exception e) {
+            log.error("抽奖策略预热失败，抽奖请求将按需装配和加载", e);
+        } finally {
+            AvailabilityChangeEvent.publish(applicationContext, ReadinessState.ACCEPTING_TRAFFIC);
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+package cn.gentlewind.test.domain;
+
+import cn.gentlewind.domain.strategy.model.entity.StrategyAwardEntity;
+import cn.gentlewind.domain.strategy.model.vo.StrategyAlgorithmVO;
+import cn.gentlewind.domain.strategy.model.vo.StrategyBucketTableVO;
+import cn.gentlewind.domain.strategy.repository.IStrategyRepository;
+import cn.gentlewind.domain.strategy.service.armory.StrategyArmoryDispatch;
+import cn.gentlewind.domain.strategy.service.armory.algorithm.AbstractAlgorithm;
+import cn.gentlewind.domain.strategy.service.armory.algorithm.impl.BucketAlgorithm;
+import cn.gentlewind.domain.strategy.service.armory.algorithm.impl.O1Algorithm;
+import cn.gentlewind.domain.strategy.service.armory.random.impl.SeededRandomSource;
+import cn.gentlewind.types.enums.ResponseCode;
+import cn.gentlewind.types.exception.AppException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 概率约分与装配预算单测；校验约分结果、概率全为 0 时拒绝装配、超出查找表预算时改用分桶算法
+ */
+public class AbstractAlgorithmTest {
+
+    private static final String KEY = "100001";
+    private static final String ARMORY_KEY = "100001_v1";
+
+    @Test
+    public void test_reduceAwardRates_gcd() {
+        Assert.assertArrayEquals(new long[]{3, 7}, AbstractAlgorithm.reduceAwardRates(strategyAwardEntities("0.3", "0.7")));
+        Assert.assertArrayEquals(new long[]{1, 1}, AbstractAlgorithm.reduceAwardRates(strategyAwardEntities("0.5000", "0.5")));
+    }
+
+    @Test
+    public void test_reduceAwardRates_mixedScales() {
+        Assert.assertArrayEquals(new long[]{6, 4, 1}, AbstractAlgorithm.reduceAwardRates(strategyAwardEntities("0.3", "0.2", "0.05")));
+        Assert.assertArrayEquals(new long[]{4, 2, 1, 1}, AbstractAlgorithm.reduceAwardRates(strategyAwardEntities("0.5", "0.25", "0.125", "0.125")));
+        // 100001 策略的概率，最小 0.0001，约分后共 10000 个槽位
+        long[] awardWeights = AbstractAlgorithm.reduceAwardRates(strategyAwardEntities("0.3", "0.2", "0.2", "0.1", "0.1", "0.05", "0.04", "0.0099", "0.0001"));
+        Assert.assertArrayEquals(new long[]{3000, 2000, 2000, 1000, 1000, 500, 400, 99, 1}, awardWeights);
+    }
+
+    @Test
+    public void test_reduceAwardRates_allZero() {
+        Assert.assertArrayEquals(new long[]{0, 0}, AbstractAlgorithm.reduceAwardRates(strategyAwardEntities("0", "0.00")));
+
+        IStrategyRepository repository = Mockito.mock(IStrategyRepository.class);
+        StrategyArmoryDispatch strategyArmoryDispatch = strategyArmoryDispatch(repository, 1_000_000);
+        try {
+            ReflectionTestUtils.invokeMethod(strategyArmoryDispatch, "assembleLotteryStrategy", KEY, strategyAwardEntities("0", "0.00"), StrategyAlgorithmVO.O1);
+            Assert.fail();
+        } catch (AppException e) {
+            Assert.assertEquals(ResponseCode.STRATEGY_AWARD_RATE_IS_ZERO.getCode(), e.getCode());
+        }
+        // 在分配版本之前失败，不写入任何装配数据
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void test_assemble_overBudgetSwitchesToBucket() {
+        IStrategyRepository repository = Mockito.mock(IStrategyRepository.class);
+        Mockito.when(repository.nextStrategyArmoryKey(KEY)).thenReturn(ARMORY_KEY);
+        StrategyArmoryDispatch strategyArmoryDispatch = strategyArmoryDispatch(repository, 100);
+
+        // 999 + 1 = 1000 个槽位，超出 100 的预算
+        ReflectionTestUtils.invokeMethod(strategyArmoryDispatch, "assembleLotteryStrategy", KEY, strategyAwardEntities("0.999", "0.001"), StrategyAlgorithmVO.O1);
+
+        Mockito.verify(repository, Mockito.never()).storeStrategyAwardSearchRateTable(Mockito.anyString(), Mockito.any(int[].class));
+        Mockito.verify(repository).storeStrategyAwardBucketTable(Mockito.eq(ARMORY_KEY), Mockito.any(StrategyBucketTableVO.class));
+        Mockito.verify(repository).storeStrategyAlgorithm(ARMORY_KEY, StrategyAlgorithmVO.BUCKET);
+        Mockito.verify(repository).switchStrategyArmoryKey(KEY, ARMORY_KEY);
+    }
+
+    @Test
+    public void test_assemble_withinBudgetKeepsO1() {
+        IStrategyRepository repository = Mockito.mock(IStrategyRepository.class);
+        Mockito.when(repository.nextStrategyArmoryKey(KEY)).thenReturn(ARMORY_KEY);
+        StrategyArmoryDispatch strategyArmoryDispatch = strategyArmoryDispatch(repository, 100);
+
+        ReflectionTestUtils.invokeMethod(strategyArmoryDispatch, "assembleLotteryStrategy", KEY, strategyAwardEntities("0.3", "0.7"), StrategyAlgorithmVO.O1);
+
+        Mockito.verify(repository).storeStrategyAwardSearchRateTable(Mockito.eq(ARMORY_KEY), Mockito.any(int[].class));
+        Mockito.verify(repository).storeStrategyAlgorithm(ARMORY_KEY, StrategyAlgorithmVO.O1);
+    }
+
+    private static StrategyArmoryDispatch strategyArmoryDispatch(IStrategyRepository repository, int maxRateTableSize) {
+        O1Algorithm o1Algorithm = new O1Algorithm();
+        BucketAlgorithm bucketAlgorithm = new BucketAlgorithm();
+        for (AbstractAlgorithm algorithm : Arrays.asList(o1Algorithm, bucketAlgorithm)) {
+            ReflectionTestUtils.setField(algorithm, "repository", repository);
+            ReflectionTestUtils.setField(algorithm, "maxRateTableSize", maxRateTableSize);
+        }
+        StrategyArmoryDispatch strategyArmoryDispatch = new StrategyArmoryDispatch(Arrays.asList(o1Algorithm, bucketAlgorithm),
+                Collections.singletonList(new SeededRandomSource(0L)), "seeded");
+        ReflectionTestUtils.setField(strategyArmoryDispatch, "repository", repository);
+        return strategyArmoryDispatch;
+    }
+
+    private static List<StrategyAwardEntity> strategyAwardEntities(String... awardRates) {
+        List<StrategyAwardEntity> strategyAwardEntities = new ArrayList<>(awardRates.length);
+        for (int i = 0; i < awardRates.length; i++) {
+            strategyAwardEntities.add(StrategyAwardEntity.builder()
+                    .strategyId(Long.valueOf(KEY))
+                    .awardId(101 + i)
+                    .awardRate(new BigDecimal(awardRates[i]))
+                    .build());
+        }
+        return strategyAwardEntities;
+    }
+
+}
@@ -0,0 +1,96 @@
+package cn.gentlewind.test.domain;
+
+import cn.gentlewind.domain.strategy.model.entity.StrategyAwardEntity;
+import cn.gentlewind.domain.strategy.model.vo.StrategyAliasTableVO;
+import cn.gentlewind.domain.strategy.model.vo.StrategyBucketTableVO;
+import cn.gentlewind.domain.strategy.repository.IStrategyRepository;
+import cn.gentlewind.domain.strategy.service.armory.algorithm.AbstractAlgorithm;
+import cn.gentlewind.domain.strategy.service.armory.algorithm.impl.AliasAlgorithm;
+import cn.gentlewind.domain.strategy.service.armory.algorithm.impl.BucketAlgorithm;
+import cn.gentlewind.domain.strategy.service.armory.random.impl.SeededRandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 抽奖算法分布单测；不依赖 Spring、Redis，仓储用 Mockito 代替，固定种子抽奖后按奖品统计频率，与配置概率比较
+ */
+public class AlgorithmDistributionTest {
+
+    private static final String KEY = "100001";
+    private static final int COUNT = 1_000_000;
+
+    // 与 100001 策略相同的概率，含 0.0001 的低概率奖品
+    private static final int[] AWARD_IDS = {101, 102, 103, 104, 105, 106, 107, 108, 109};
+    private static final String[] AWARD_RATES = {"0.3", "0.2", "0.2", "0.1", "0.1", "0.05", "0.04", "0.0099", "0.0001"};
+
+    @Test
+    public void test_aliasAlgorithm_distribution() {
+        IStrategyRepository repository = Mockito.mock(IStrategyRepository.class);
+        AliasAlgorithm aliasAlgorithm = new AliasAlgorithm();
+        ReflectionTestUtils.setField(aliasAlgorithm, "repository", repository);
+
+        List<StrategyAwardEntity> strategyAwardEntities = strategyAwardEntities();
+        aliasAlgorithm.armoryAlgorithm(KEY, strategyAwardEntities, AbstractAlgorithm.reduceAwardRates(strategyAwardEntities));
+        ArgumentCaptor<StrategyAliasTableVO> captor = ArgumentCaptor.forClass(StrategyAliasTableVO.class);
+        Mockito.verify(repository).storeStrategyAwardAliasTable(Mockito.eq(KEY), captor.capture());
+        Mockito.when(repository.getStrategyAwardAliasTable(KEY)).thenReturn(captor.getValue());
+
+        assertDistribution(aliasAlgorithm.dispatchAlgorithm(KEY, new SeededRandomSource(20240101L), COUNT));
+    }
+
+    @Test
+    public void test_bucketAlgorithm_distribution() {
+        IStrategyRepository repository = Mockito.mock(IStrategyRepository.class);
+        BucketAlgorithm bucketAlgorithm = new BucketAlgorithm();
+        ReflectionTestUtils.setField(bucketAlgorithm, "repository", repository);
+        ReflectionTestUtils.setField(bucketAlgorithm, "maxRateTableSize", 1_000_000);
+
+        List<StrategyAwardEntity> strategyAwardEntities = strategyAwardEntities();
+        bucketAlgorithm.armoryAlgorithm(KEY, strategyAwardEntities, AbstractAlgorithm.reduceAwardRates(strategyAwardEntities));
+        ArgumentCaptor<StrategyBucketTableVO> captor = ArgumentCaptor.forClass(StrategyBucketTableVO.class);
+        Mockito.verify(repository).storeStrategyAwardBucketTable(Mockito.eq(KEY), captor.capture());
+        Mockito.when(repository.getStrategyAwardBucketTable(KEY)).thenReturn(captor.getValue());
+
+        assertDistribution(bucketAlgorithm.dispatchAlgorithm(KEY, new SeededRandomSource(20240101L), COUNT));
+    }
+
+    private static List<StrategyAwardEntity> strategyAwardEntities() {
+        List<StrategyAwardEntity> strategyAwardEntities = new ArrayList<>(AWARD_IDS.length);
+        for (int i = 0; i < AWARD_IDS.length; i++) {
+            strategyAwardEntities.add(StrategyAwardEntity.builder()
+                    .strategyId(Long.valueOf(KEY))
+                    .awardId(AWARD_IDS[i])
+                    .awardRate(new BigDecimal(AWARD_RATES[i]))
+                    .build());
+        }
+        return strategyAwardEntities;
+    }
+
+    /**
+     * 每个奖品的频率与概率之差不超过 5 个标准差；固定种子，结果可重放
+     */
+    private static void assertDistribution(List<Integer> awardIds) {
+        Assert.assertEquals(COUNT, awardIds.size());
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (Integer awardId : awardIds) {
+            counts.merge(awardId, 1, Integer::sum);
+        }
+        Assert.assertEquals(AWARD_IDS.length, counts.size());
+        for (int i = 0; i < AWARD_IDS.length; i++) {
+            double rate = Double.parseDouble(AWARD_RATES[i]);
+            double frequency = counts.getOrDefault(AWARD_IDS[i], 0) / (double) COUNT;
+            double tolerance = 5 * Math.sqrt(rate * (1 - rate) / COUNT);
+            Assert.assertEquals("awardId:" + AWARD_IDS[i], rate, frequency, tolerance);
+        }
+    }
+
+}
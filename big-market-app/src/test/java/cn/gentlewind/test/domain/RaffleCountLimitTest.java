@@ -0,0 +1,42 @@
+package cn.gentlewind.test.domain;
+
+import cn.gentlewind.domain.strategy.model.entity.RaffleFactorEntity;
+import cn.gentlewind.domain.strategy.repository.IStrategyRepository;
+import cn.gentlewind.domain.strategy.service.armory.IStrategyDispatch;
+import cn.gentlewind.domain.strategy.service.raffle.DefaultRaffleStrategy;
+import cn.gentlewind.types.enums.ResponseCode;
+import cn.gentlewind.types.exception.AppException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * 多连抽次数上限单测；超过上限的请求在访问仓储和调度之前拒绝
+ */
+public class RaffleCountLimitTest {
+
+    private final IStrategyRepository repository = Mockito.mock(IStrategyRepository.class);
+    private final IStrategyDispatch strategyDispatch = Mockito.mock(IStrategyDispatch.class);
+
+    @Test
+    public void test_performRaffle_countOverLimit() {
+        DefaultRaffleStrategy raffleStrategy = new DefaultRaffleStrategy(repository, strategyDispatch);
+        ReflectionTestUtils.setField(raffleStrategy, "maxRaffleCount", 100);
+        RaffleFactorEntity raffleFactorEntity = RaffleFactorEntity.builder()
+                .userId("xiaofuge")
+                .strategyId(100001L)
+                .build();
+
+        for (int count : new int[]{0, 101, Integer.MAX_VALUE}) {
+            try {
+                raffleStrategy.performRaffle(raffleFactorEntity, count);
+                Assert.fail("count " + count + " should be rejected");
+            } catch (AppException e) {
+                Assert.assertEquals(ResponseCode.ILLEGAL_PARAMETER.getCode(), e.getCode());
+            }
+        }
+        Mockito.verifyNoInteractions(repository, strategyDispatch);
+    }
+
+}
@@ -8,6 +8,7 @@ import cn.gentlewind.domain.strategy.service.rule.impl.RuleLockLogicFilter;
 import cn.gentlewind.domain.strategy.service.rule.impl.RuleWeightLogicFilter;
 import com.alibaba.fastjson.JSON;
 import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -17,6 +18,7 @@ import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import javax.annotation.Resource;
+import java.util.List;
 
 @Slf4j
 @RunWith(SpringRunner.class)
@@ -79,6 +81,28 @@ public class RaffleStrategyTest {
         log.info("测试结果：{}", JSON.toJSONString(raffleAwardEntity));
     }
 
+    /**
+     * 十连抽
+     */
+    @Test
+    public void test_performRaffle_batch() {
+        RaffleFactorEntity raffleFactorEntity = RaffleFactorEntity.builder()
+                .userId("xiaofuge")
+                .strategyId(100003L)
+                .build();
+
+        List<RaffleAwardEntity> raffleAwardEntities = raffleStrategy.performRaffle(raffleFactorEntity, 10);
+
+        log.info("请求参数：{}", JSON.toJSONString(raffleFactorEntity));
+        log.info("测试结果：{}", JSON.toJSONString(raffleAwardEntities));
+        Assert.assertEquals(10, raffleAwardEntities.size());
+        // 每一抽要么抽中奖品，要么被抽奖中规则拦截后走 rule_luck_award 兜底
+        for (RaffleAwardEntity raffleAwardEntity : raffleAwardEntities) {
+            Assert.assertTrue(JSON.toJSONString(raffleAwardEntity), null != raffleAwardEntity.getAwardId()
+                    || (null != raffleAwardEntity.getAwardDesc() && raffleAwardEntity.getAwardDesc().contains("rule_luck_award")));
+        }
+    }
+
     /**
      * 次数校验
      *
@@ -0,0 +1,24 @@
+package cn.gentlewind.test.domain;
+
+import cn.gentlewind.domain.strategy.model.vo.RuleWeightVO;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * 权重规则单测；校验按积分取不超过积分的最大门槛
+ */
+public class RuleWeightVOTest {
+
+    @Test
+    public void test_ruleWeightValueKey() {
+        RuleWeightVO ruleWeightVO = RuleWeightVO.compile("6000:102,103,104,105,106,107,108,109 4000:102,103,104,105 5000:102,103,104,105,106,107");
+        Assert.assertFalse(ruleWeightVO.isEmpty());
+        Assert.assertNull(ruleWeightVO.ruleWeightValueKey(3999));
+        Assert.assertEquals("4000:102,103,104,105", ruleWeightVO.ruleWeightValueKey(4000));
+        Assert.assertEquals("4000:102,103,104,105", ruleWeightVO.ruleWeightValueKey(4500));
+        Assert.assertEquals("5000:102,103,104,105,106,107", ruleWeightVO.ruleWeightValueKey(5999));
+        Assert.assertEquals("6000:102,103,104,105,106,107,108,109", ruleWeightVO.ruleWeightValueKey(40500));
+        Assert.assertTrue(RuleWeightVO.compile("").isEmpty());
+    }
+
+}
@@ -0,0 +1,50 @@
+package cn.gentlewind.test.domain;
+
+import cn.gentlewind.domain.strategy.model.vo.StrategyAwardRuleModelIndexVO;
+import cn.gentlewind.domain.strategy.model.vo.StrategyAwardRuleModelVO;
+import cn.gentlewind.types.enums.ResponseCode;
+import cn.gentlewind.types.exception.AppException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 奖品规则模型索引单测；校验按阶段拆分规则，未知或不适用的规则拒绝装配
+ */
+public class StrategyAwardRuleModelIndexVOTest {
+
+    @Test
+    public void test_build() {
+        Map<Integer, StrategyAwardRuleModelVO> strategyAwardRuleModelVOMap = new HashMap<>();
+        strategyAwardRuleModelVOMap.put(101, new StrategyAwardRuleModelVO("rule_random,rule_luck_award"));
+        strategyAwardRuleModelVOMap.put(107, new StrategyAwardRuleModelVO("rule_lock,rule_luck_award"));
+        strategyAwardRuleModelVOMap.put(108, null);
+
+        StrategyAwardRuleModelIndexVO index = StrategyAwardRuleModelIndexVO.build(strategyAwardRuleModelVOMap);
+        Assert.assertArrayEquals(new String[0], index.raffleCenterRuleModelList(101));
+        Assert.assertArrayEquals(new String[]{"rule_luck_award"}, index.raffleAfterRuleModelList(101));
+        Assert.assertArrayEquals(new String[]{"rule_lock"}, index.raffleCenterRuleModelList(107));
+        Assert.assertArrayEquals(new String[]{"rule_luck_award"}, index.raffleAfterRuleModelList(107));
+        Assert.assertArrayEquals(new String[0], index.raffleCenterRuleModelList(108));
+    }
+
+    @Test
+    public void test_build_unknownRuleModel() {
+        assertRejected("rule_lock,rule_unknown");
+        // 抽奖前规则不能配置在奖品上
+        assertRejected("rule_weight");
+    }
+
+    private static void assertRejected(String ruleModels) {
+        try {
+            StrategyAwardRuleModelIndexVO.build(Collections.singletonMap(101, new StrategyAwardRuleModelVO(ruleModels)));
+            Assert.fail("ruleModels:" + ruleModels);
+        } catch (AppException e) {
+            Assert.assertEquals(ResponseCode.STRATEGY_RULE_MODEL_UNKNOWN.getCode(), e.getCode());
+        }
+    }
+
+}
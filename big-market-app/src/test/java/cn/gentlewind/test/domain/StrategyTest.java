@@ -1,9 +1,15 @@
 package cn.gentlewind.test.domain;
 
+import cn.gentlewind.domain.strategy.model.entity.StrategyArmoryResultEntity;
+import cn.gentlewind.domain.strategy.model.vo.StrategyAlgorithmVO;
 import cn.gentlewind.domain.strategy.service.armory.IStrategyArmory;
 import cn.gentlewind.domain.strategy.service.armory.IStrategyDispatch;
+import cn.gentlewind.domain.strategy.service.armory.random.impl.SeededRandomSource;
 import cn.gentlewind.infrastructure.persistent.redis.IRedisService;
+import cn.gentlewind.types.enums.ResponseCode;
+import com.alibaba.fastjson.JSON;
 import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -51,4 +57,62 @@ public class StrategyTest {
         log.info("测试结果：{} - 6000 策略配置", strategyDispatch.getRandomAwardId(100001L, "6000:102,103,104,105,106,107,108,109"));
     }
 
-}
\ No newline at end of file
+    /**
+     * 别名表算法装配；100003 策略含 0.0001 概率奖品，查找表需要 10000 槽位，别名表只需 3 列
+     */
+    @Test
+    public void test_getRandomAwardId_alias() {
+        boolean success = strategyArmory.assembleLotteryStrategy(100003L, StrategyAlgorithmVO.ALIAS);
+        log.info("测试结果：{} - 别名表装配", success);
+        Assert.assertTrue(success);
+        Set<Integer> strategyAwardIds = new HashSet<>(Arrays.asList(107, 108, 109));
+        for (int i = 0; i < 10; i++) {
+            Integer awardId = strategyDispatch.getRandomAwardId(100003L);
+            log.info("测试结果：{} - 奖品ID值", awardId);
+            Assert.assertTrue("awardId:" + awardId, strategyAwardIds.contains(awardId));
+        }
+    }
+
+    /**
+     * 批量并行装配；100001 含 rule_weight 配置，装配基础表 + 3 张权重子表；不存在的策略单独失败，不影响其他策略
+     */
+    @Test
+    public void test_assembleLotteryStrategies() {
+        List<StrategyArmoryResultEntity> results = strategyArmory.assembleLotteryStrategies(Arrays.asList(100001L, 100002L, 999999L, 100003L));
+        log.info("测试结果：{}", JSON.toJSONString(results));
+        Assert.assertEquals(4, results.size());
+
+        StrategyArmoryResultEntity result100001 = results.get(0);
+        Assert.assertEquals(Long.valueOf(100001L), result100001.getStrategyId());
+        Assert.assertTrue(result100001.isSuccess());
+        Assert.assertEquals(Integer.valueOf(4), result100001.getTableCount());
+
+        Assert.assertTrue(results.get(1).isSuccess());
+        Assert.assertTrue(results.get(3).isSuccess());
+
+        StrategyArmoryResultEntity unknown = results.get(2);
+        Assert.assertEquals(Long.valueOf(999999L), unknown.getStrategyId());
+        Assert.assertFalse(unknown.isSuccess());
+        Assert.assertEquals(ResponseCode.STRATEGY_NOT_EXIST.getInfo(), unknown.getErrorInfo());
+    }
+
+    /**
+     * 固定种子随机源；同一种子重放得到相同序列
+     */
+    @Test
+    public void test_seededRandomSource_replay() {
+        SeededRandomSource randomSource = new SeededRandomSource(20240101L);
+        int[] first = new int[100];
+        for (int i = 0; i < first.length; i++) {
+            first[i] = randomSource.nextInt(10000);
+        }
+        randomSource.reseed(20240101L);
+        int[] replay = new int[100];
+        for (int i = 0; i < replay.length; i++) {
+            replay[i] = randomSource.nextInt(10000);
+        }
+        Assert.assertArrayEquals(first, replay);
+        log.info("测试结果：{}", JSON.toJSONString(replay));
+    }
+
+}
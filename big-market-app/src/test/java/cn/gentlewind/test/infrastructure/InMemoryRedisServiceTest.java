@@ -0,0 +1,136 @@
+package cn.gentlewind.test.infrastructure;
+
+import cn.gentlewind.infrastructure.persistent.redis.IRedisService;
+import cn.gentlewind.infrastructure.persistent.redis.InMemoryRedisService;
+import cn.gentlewind.infrastructure.persistent.redis.RedisBatch;
+import org.junit.Assert;
+import org.junit.Test;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RLock;
+import org.redisson.api.RMap;
+import org.redisson.api.RPermitExpirableSemaphore;
+import org.redisson.api.RQueue;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 内存 Redis 单测；校验本项目用到的操作与 Redisson 语义一致
+ */
+public class InMemoryRedisServiceTest {
+
+    private final IRedisService redisService = new InMemoryRedisService(0, 0, Collections.emptyMap());
+
+    @Test
+    public void test_valueAndExpire() throws Exception {
+        redisService.setValue("key", 100, 20);
+        Assert.assertEquals(Integer.valueOf(100), redisService.getValue("key"));
+        Thread.sleep(30);
+        Assert.assertNull(redisService.getValue("key"));
+        Assert.assertFalse(redisService.isExists("key"));
+
+        Assert.assertEquals(3, redisService.incrBy("counter", 3));
+        Assert.assertEquals(2, redisService.decr("counter"));
+    }
+
+    @Test
+    public void test_batch() {
+        redisService.setValue("a", "1");
+        RedisBatch batch = redisService.createBatch();
+        RedisBatch.Response<String> a = batch.getValue("a");
+        RedisBatch.Response<Boolean> exists = batch.isExists("b");
+        RedisBatch.Response<Long> counter = batch.incrBy("counter", 5);
+        batch.execute();
+        Assert.assertEquals("1", a.get());
+        Assert.assertFalse(exists.get());
+        Assert.assertEquals(Long.valueOf(5), counter.get());
+    }
+
+    @Test
+    public void test_binaryStream() throws Exception {
+        SeekableByteChannel channel = redisService.getBinaryStream("stream").getChannel();
+        channel.position(4);
+        channel.write(ByteBuffer.wrap(new byte[]{5, 6}));
+        channel.position(0);
+        channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3, 4}));
+        Assert.assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 6}, redisService.getBinaryStream("stream").get());
+
+        ByteBuffer slot = ByteBuffer.allocate(2);
+        channel.position(3);
+        channel.read(slot);
+        Assert.assertArrayEquals(new byte[]{4, 5}, slot.array());
+
+        redisService.getBinaryStream("stream").delete();
+        Assert.assertNull(redisService.getBinaryStream("stream").get());
+
+        RedisBatch batch = redisService.createBatch();
+        batch.setRange("stream", 2, new byte[]{3, 4});
+        RedisBatch.Response<Long> size = batch.setRange("stream", 0, new byte[]{1, 2});
+        batch.execute();
+        Assert.assertEquals(Long.valueOf(4), size.get());
+        Assert.assertArrayEquals(new byte[]{1, 2, 3, 4}, redisService.getBinaryStream("stream").get());
+
+        batch = redisService.createBatch();
+        RedisBatch.Response<byte[]> range = batch.getRange("stream", 1, 2);
+        RedisBatch.Response<byte[]> tail = batch.getRange("stream", 3, 2);
+        batch.execute();
+        Assert.assertArrayEquals(new byte[]{2, 3}, range.get());
+        Assert.assertArrayEquals(new byte[]{4}, tail.get());
+    }
+
+    @Test
+    public void test_mapAndQueueFollowKey() {
+        RMap<String, String> map = redisService.getMap("map");
+        Assert.assertNull(map.get("field"));
+        Assert.assertFalse(redisService.isExists("map"));
+
+        map.put("field", "1");
+        redisService.remove("map");
+        Assert.assertNull(map.get("field"));
+        map.put("field", "2");
+        Assert.assertEquals("2", redisService.<String, String>getMap("map").get("field"));
+
+        RQueue<String> queue = redisService.getQueue("queue");
+        queue.offer("a");
+        redisService.rename("queue", "queue_renamed");
+        Assert.assertTrue(queue.isEmpty());
+        Assert.assertEquals("a", redisService.<String>getQueue("queue_renamed").poll());
+        Assert.assertFalse(redisService.isExists("queue_renamed"));
+    }
+
+    @Test
+    public void test_permitExpirableSemaphore() throws Exception {
+        RPermitExpirableSemaphore semaphore = redisService.getPermitExpirableSemaphore("semaphore");
+        Assert.assertTrue(semaphore.trySetPermits(1));
+        String permitId = semaphore.tryAcquire(0, 20, TimeUnit.MILLISECONDS);
+        Assert.assertNotNull(permitId);
+        Assert.assertNull(semaphore.tryAcquire());
+        // 租期到期后许可自动归还
+        Assert.assertNotNull(semaphore.tryAcquire(200, TimeUnit.MILLISECONDS));
+        Assert.assertFalse(semaphore.tryRelease(permitId));
+    }
+
+    @Test
+    public void test_bloomFilterLockAndTopic() throws Exception {
+        RBloomFilter<Long> bloomFilter = redisService.getBloomFilter("bloom");
+        Assert.assertFalse(bloomFilter.isExists());
+        Assert.assertTrue(bloomFilter.tryInit(1000, 0.01));
+        Assert.assertFalse(bloomFilter.tryInit(1000, 0.01));
+        bloomFilter.add(100001L);
+        Assert.assertTrue(bloomFilter.contains(100001L));
+        Assert.assertFalse(bloomFilter.contains(100002L));
+
+        RLock lock = redisService.getLock("lock");
+        Assert.assertTrue(lock.tryLock(0, 1000, TimeUnit.MILLISECONDS));
+        lock.unlock();
+
+        AtomicReference<String> received = new AtomicReference<>();
+        redisService.getTopic("topic").addListener(String.class, (channel, message) -> received.set(message));
+        Assert.assertEquals(1, redisService.getTopic("topic").publish("100001"));
+        Assert.assertEquals("100001", received.get());
+    }
+
+}
@@ -0,0 +1,65 @@
+package cn.gentlewind.test.infrastructure;
+
+import cn.gentlewind.infrastructure.persistent.redis.LocalBlacklistFilter;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 黑名单本地过滤器单测；校验版本只推进到连续收到的最大值，空缺未补上时版本落后
+ */
+public class LocalBlacklistFilterTest {
+
+    private LocalBlacklistFilter newFilter() {
+        return new LocalBlacklistFilter(BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), 1024, 0.001));
+    }
+
+    @Test
+    public void test_applyBeforeStart() {
+        LocalBlacklistFilter filter = newFilter();
+        // 构建读到基准版本之前到达的加入：版本不可信，用户先写入过滤器
+        filter.apply(5, "user005");
+        filter.apply(3, "user003");
+        Assert.assertEquals(-1, filter.version());
+        Assert.assertTrue(filter.mightContain("user005"));
+
+        // 基准版本 4 已覆盖版本 3，先到的版本 5 接上基准版本
+        filter.start(4);
+        Assert.assertEquals(5, filter.version());
+    }
+
+    @Test
+    public void test_gapHoldsVersion() {
+        LocalBlacklistFilter filter = newFilter();
+        filter.start(10);
+        filter.apply(11, "user011");
+        Assert.assertEquals(11, filter.version());
+
+        // 漏收版本 12：之后的版本不推进
+        filter.apply(13, "user013");
+        filter.apply(14, "user014");
+        Assert.assertEquals(11, filter.version());
+
+        // 空缺补上后一并推进；重复的版本不回退
+        filter.apply(12, "user012");
+        Assert.assertEquals(14, filter.version());
+        filter.apply(12, "user012");
+        Assert.assertEquals(14, filter.version());
+        Assert.assertTrue(filter.mightContain("user013"));
+    }
+
+    @Test
+    public void test_emptyFilter() {
+        LocalBlacklistFilter filter = new LocalBlacklistFilter(null);
+        filter.start(0);
+        Assert.assertFalse(filter.mightContain("user001"));
+        // 名单为空时的增量加入全部判为可能在名单，由 Redis 精确判定
+        filter.apply(1, "user001");
+        Assert.assertEquals(1, filter.version());
+        Assert.assertTrue(filter.mightContain("user002"));
+    }
+
+}
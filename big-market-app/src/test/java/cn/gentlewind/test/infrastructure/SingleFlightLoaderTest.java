@@ -0,0 +1,173 @@
+package cn.gentlewind.test.infrastructure;
+
+import cn.gentlewind.infrastructure.persistent.redis.SingleFlightLoader;
+import cn.gentlewind.types.enums.ResponseCode;
+import cn.gentlewind.types.exception.AppException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 合并加载单测；同一个键并发请求只加载一次，等待有上限，失败不缓存
+ */
+public class SingleFlightLoaderTest {
+
+    private static final String KEY = "big_market_strategy_key_100001";
+    private static final int WAITERS = 16;
+
+    private final SingleFlightLoader singleFlightLoader = new SingleFlightLoader();
+    private final AtomicInteger loads = new AtomicInteger();
+    // 加载线程进入加载函数后计数，测试线程放行前加载一直阻塞
+    private final CountDownLatch loading = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(singleFlightLoader, "waitMillis", 3000L);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void test_load_once() throws Exception {
+        Future<String> leader = executor.submit(() -> singleFlightLoader.load(KEY, blockingLoader("value")));
+        Assert.assertTrue(loading.await(1, TimeUnit.SECONDS));
+
+        List<Thread> waiterThreads = new ArrayList<>();
+        List<Future<String>> waiters = new ArrayList<>();
+        for (int i = 0; i < WAITERS; i++) {
+            waiters.add(executor.submit(() -> {
+                synchronized (waiterThreads) {
+                    waiterThreads.add(Thread.currentThread());
+                }
+                return singleFlightLoader.load(KEY, blockingLoader("other"));
+            }));
+        }
+        awaitParked(waiterThreads, WAITERS);
+
+        release.countDown();
+        Assert.assertEquals("value", leader.get(1, TimeUnit.SECONDS));
+        for (Future<String> waiter : waiters) {
+            Assert.assertEquals("value", waiter.get(1, TimeUnit.SECONDS));
+        }
+        Assert.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void test_load_waitTimeout() throws Exception {
+        ReflectionTestUtils.setField(singleFlightLoader, "waitMillis", 100L);
+        Future<String> leader = executor.submit(() -> singleFlightLoader.load(KEY, blockingLoader("value")));
+        Assert.assertTrue(loading.await(1, TimeUnit.SECONDS));
+
+        long startMillis = System.currentTimeMillis();
+        try {
+            singleFlightLoader.load(KEY, blockingLoader("other"));
+            Assert.fail();
+        } catch (AppException e) {
+            Assert.assertEquals(ResponseCode.STRATEGY_CACHE_LOAD_TIMEOUT.getCode(), e.getCode());
+        }
+        long costMillis = System.currentTimeMillis() - startMillis;
+        Assert.assertTrue("costMillis:" + costMillis, costMillis >= 100 && costMillis < 1000);
+
+        // 超时的等待不影响加载线程
+        release.countDown();
+        Assert.assertEquals("value", leader.get(1, TimeUnit.SECONDS));
+        Assert.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void test_load_failureNotCached() throws Exception {
+        Future<String> leader = executor.submit(() -> singleFlightLoader.load(KEY, () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            awaitRelease();
+            throw new IllegalStateException("db down");
+        }));
+        Assert.assertTrue(loading.await(1, TimeUnit.SECONDS));
+
+        List<Thread> waiterThreads = new ArrayList<>();
+        Future<String> waiter = executor.submit(() -> {
+            synchronized (waiterThreads) {
+                waiterThreads.add(Thread.currentThread());
+            }
+            return singleFlightLoader.load(KEY, blockingLoader("other"));
+        });
+        awaitParked(waiterThreads, 1);
+        release.countDown();
+
+        // 加载线程和等待线程拿到同一个异常
+        assertFailed(leader);
+        assertFailed(waiter);
+
+        // 失败不缓存，下一次请求重新加载
+        Assert.assertEquals("value", singleFlightLoader.load(KEY, blockingLoader("value")));
+        Assert.assertEquals(2, loads.get());
+    }
+
+    private Supplier<String> blockingLoader(String value) {
+        return () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            awaitRelease();
+            return value;
+        };
+    }
+
+    private void awaitRelease() {
+        try {
+            Assert.assertTrue(release.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 等待所有等待线程进入 future.get 阻塞，确保放行前它们都已加入同一次加载
+     */
+    private static void awaitParked(List<Thread> threads, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            boolean parked;
+            synchronized (threads) {
+                parked = threads.size() == count && threads.stream().allMatch(thread -> Thread.State.TIMED_WAITING == thread.getState());
+            }
+            if (parked) return;
+            Thread.sleep(10);
+        }
+        Assert.fail("waiters not parked");
+    }
+
+    private static void assertFailed(Future<String> future) throws InterruptedException {
+        try {
+            future.get(1, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+            Assert.assertEquals("db down", e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            Assert.fail("load not finished");
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+package cn.gentlewind.test.infrastructure;
+
+import cn.gentlewind.infrastructure.persistent.dao.IStrategyBlacklistDao;
+import cn.gentlewind.infrastructure.persistent.po.StrategyBlacklistPO;
+import cn.gentlewind.infrastructure.persistent.redis.IRedisService;
+import cn.gentlewind.infrastructure.persistent.redis.InMemoryRedisService;
+import cn.gentlewind.infrastructure.persistent.redis.LocalBlacklistFilter;
+import cn.gentlewind.infrastructure.persistent.redis.StrategyBlacklistStore;
+import cn.gentlewind.types.common.Constants;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 策略黑名单存储单测；内存 Redis + 模拟名单表，校验广播推进过滤器版本、漏收广播时改用 SISMEMBER 并在后台重建
+ */
+public class StrategyBlacklistStoreTest {
+
+    private static final Long STRATEGY_ID = 100001L;
+
+    private final IRedisService redisService = new InMemoryRedisService(0, 0, Collections.emptyMap());
+    private final IStrategyBlacklistDao strategyBlacklistDao = Mockito.mock(IStrategyBlacklistDao.class);
+    // 模拟 strategy_blacklist 表，下标 + 1 即自增ID
+    private final List<String> table = new CopyOnWriteArrayList<>();
+    private final StrategyBlacklistStore store = new StrategyBlacklistStore();
+
+    @Before
+    public void setUp() {
+        Mockito.when(strategyBlacklistDao.queryStrategyBlacklistCount(STRATEGY_ID)).thenAnswer(invocation -> table.size());
+        Mockito.when(strategyBlacklistDao.queryStrategyBlacklistPage(ArgumentMatchers.eq(STRATEGY_ID), ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt())).thenAnswer(invocation -> {
+            long lastId = invocation.getArgument(1);
+            int limit = invocation.getArgument(2);
+            List<StrategyBlacklistPO> page = new ArrayList<>();
+            for (int i = (int) lastId; i < table.size() && page.size() < limit; i++) {
+                StrategyBlacklistPO strategyBlacklistPO = new StrategyBlacklistPO();
+                strategyBlacklistPO.setId(i + 1L);
+                strategyBlacklistPO.setStrategyId(STRATEGY_ID);
+                strategyBlacklistPO.setUserId(table.get(i));
+                page.add(strategyBlacklistPO);
+            }
+            return page;
+        });
+        Mockito.when(strategyBlacklistDao.insertStrategyBlacklist(ArgumentMatchers.anyList())).thenAnswer(invocation -> {
+            List<StrategyBlacklistPO> strategyBlacklistPOList = invocation.getArgument(0);
+            strategyBlacklistPOList.forEach(strategyBlacklistPO -> table.add(strategyBlacklistPO.getUserId()));
+            return strategyBlacklistPOList.size();
+        });
+
+        ReflectionTestUtils.setField(store, "redisService", redisService);
+        ReflectionTestUtils.setField(store, "strategyBlacklistDao", strategyBlacklistDao);
+        ReflectionTestUtils.setField(store, "loadBatchSize", 2);
+        ReflectionTestUtils.setField(store, "falseProbability", 0.001);
+        ReflectionTestUtils.setField(store, "memberMaximumSize", 1000L);
+        ReflectionTestUtils.setField(store, "memberExpireSeconds", 30L);
+        // 周期任务不参与，版本检查由测试直接触发
+        ReflectionTestUtils.setField(store, "refreshSeconds", 3600L);
+        ReflectionTestUtils.setField(store, "versionCheckSeconds", 3600L);
+        store.init();
+    }
+
+    @After
+    public void tearDown() {
+        store.destroy();
+    }
+
+    @Test
+    public void test_broadcastAdvancesVersion() throws Exception {
+        table.add("user001");
+        table.add("user002");
+        table.add("user003");
+        store.assemble(STRATEGY_ID, true);
+        LocalBlacklistFilter filter = awaitFilter(1);
+
+        Assert.assertTrue(store.contains(STRATEGY_ID, "user003"));
+        Assert.assertFalse(store.contains(STRATEGY_ID, "user004"));
+
+        // 增量加入：广播携带版本 2、3，过滤器连续推进，不需要重建
+        store.add(STRATEGY_ID, Arrays.asList("user004", "user005"));
+        Assert.assertEquals(3, filter.version());
+        Assert.assertSame(filter, localBlacklists().get(STRATEGY_ID));
+        Assert.assertTrue(store.contains(STRATEGY_ID, "user005"));
+    }
+
+    @Test
+    public void test_missedBroadcastFailsOpen() throws Exception {
+        table.add("user001");
+        store.assemble(STRATEGY_ID, true);
+        awaitFilter(1);
+
+        // 其他节点加入 user002，本节点漏收广播：Redis 名单和版本号已变，本地过滤器不知道
+        table.add("user002");
+        redisService.addToSet(Constants.RedisKey.STRATEGY_BLACKLIST_KEY + STRATEGY_ID, "user002");
+        redisService.incr(Constants.RedisKey.STRATEGY_BLACKLIST_VERSION_KEY + STRATEGY_ID);
+
+        // 版本检查读到版本 2，过滤器停在版本 1，不再信任过滤器，改用 SISMEMBER
+        ReflectionTestUtils.invokeMethod(store, "checkVersions");
+        Assert.assertTrue(store.contains(STRATEGY_ID, "user002"));
+        Assert.assertFalse(store.contains(STRATEGY_ID, "user009"));
+
+        // 下一个周期仍未追上，后台重建；重建后的过滤器读到版本 2，重新可信
+        ReflectionTestUtils.invokeMethod(store, "checkVersions");
+        LocalBlacklistFilter filter = awaitFilter(2);
+        Assert.assertTrue(filter.mightContain("user002"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, LocalBlacklistFilter> localBlacklists() {
+        return (Map<Long, LocalBlacklistFilter>) ReflectionTestUtils.getField(store, "localBlacklists");
+    }
+
+    private LocalBlacklistFilter awaitFilter(long version) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            LocalBlacklistFilter filter = localBlacklists().get(STRATEGY_ID);
+            if (null != filter && filter.version() == version) return filter;
+            Thread.sleep(10);
+        }
+        throw new AssertionError("local blacklist filter not built at version " + version);
+    }
+
+}
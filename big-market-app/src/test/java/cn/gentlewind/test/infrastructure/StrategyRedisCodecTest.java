@@ -0,0 +1,151 @@
+package cn.gentlewind.test.infrastructure;
+
+import cn.gentlewind.domain.strategy.model.entity.StrategyAwardEntity;
+import cn.gentlewind.domain.strategy.model.entity.StrategyEntity;
+import cn.gentlewind.infrastructure.persistent.redis.StrategyRedisCodec;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.redisson.client.codec.BaseCodec;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.Encoder;
+import org.redisson.codec.Kryo5Codec;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 策略配置编解码器单测；校验往返一致，并与 Redisson 默认编解码器（Kryo5）、fastjson 对比字节数和耗时
+ */
+@Slf4j
+public class StrategyRedisCodecTest {
+
+    private static final int WARM_UP_ROUNDS = 20_000;
+    private static final int BENCHMARK_ROUNDS = 100_000;
+
+    private final Codec kryoCodec = new Kryo5Codec();
+    private final Codec fastjsonCodec = new FastjsonCodec();
+    private final Codec strategyRedisCodec = new StrategyRedisCodec(kryoCodec);
+
+    @Test
+    public void test_roundTrip() throws Exception {
+        StrategyEntity strategyEntity = strategyEntity();
+        List<StrategyAwardEntity> strategyAwardEntities = strategyAwardEntities();
+
+        Assert.assertEquals(strategyEntity, decode(strategyRedisCodec, encode(strategyRedisCodec, strategyEntity)));
+        Assert.assertEquals(strategyAwardEntities, decode(strategyRedisCodec, encode(strategyRedisCodec, strategyAwardEntities)));
+        Assert.assertEquals("4000:102,103,104,105", decode(strategyRedisCodec, encode(strategyRedisCodec, "4000:102,103,104,105")));
+        Assert.assertEquals(10000, decode(strategyRedisCodec, encode(strategyRedisCodec, 10000)));
+
+        // 切换前由默认编解码器写入的数据仍可读取
+        Assert.assertEquals(strategyAwardEntities, decode(strategyRedisCodec, encode(kryoCodec, strategyAwardEntities)));
+    }
+
+    /**
+     * 字节数、耗时对比；不做断言，耗时较长，默认不随构建执行，需要时手动运行
+     */
+    @Ignore("手动运行的编解码器对比，不随构建执行")
+    @Test
+    public void test_benchmark() throws Exception {
+        benchmark("StrategyEntity", strategyEntity());
+        benchmark("List<StrategyAwardEntity>", strategyAwardEntities());
+    }
+
+    private void benchmark(String name, Object value) throws Exception {
+        for (Codec codec : new Codec[]{kryoCodec, fastjsonCodec, strategyRedisCodec}) {
+            byte[] bytes = encode(codec, value);
+            for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+                decode(codec, encode(codec, value));
+            }
+
+            long startNanos = System.nanoTime();
+            for (int i = 0; i < BENCHMARK_ROUNDS; i++) {
+                encode(codec, value);
+            }
+            long encodeNanos = (System.nanoTime() - startNanos) / BENCHMARK_ROUNDS;
+
+            startNanos = System.nanoTime();
+            for (int i = 0; i < BENCHMARK_ROUNDS; i++) {
+                decode(codec, bytes);
+            }
+            long decodeNanos = (System.nanoTime() - startNanos) / BENCHMARK_ROUNDS;
+
+            log.info("编解码对比 type:{} codec:{} bytes:{} encode:{}ns decode:{}ns", name, codec.getClass().getSimpleName(), bytes.length, encodeNanos, decodeNanos);
+        }
+    }
+
+    private static byte[] encode(Codec codec, Object value) throws Exception {
+        ByteBuf buf = codec.getValueEncoder().encode(value);
+        try {
+            byte[] bytes = new byte[buf.readableBytes()];
+            buf.readBytes(bytes);
+            return bytes;
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static Object decode(Codec codec, byte[] bytes) throws Exception {
+        return codec.getValueDecoder().decode(Unpooled.wrappedBuffer(bytes), null);
+    }
+
+    private static StrategyEntity strategyEntity() {
+        return StrategyEntity.builder()
+                .strategyId(100001L)
+                .strategyDesc("抽奖策略")
+                .ruleModels("rule_weight,rule_blacklist")
+                .build();
+    }
+
+    private static List<StrategyAwardEntity> strategyAwardEntities() {
+        String[] awardRates = {"0.3", "0.2", "0.2", "0.1", "0.1", "0.05", "0.04", "0.0099", "0.0001"};
+        List<StrategyAwardEntity> strategyAwardEntities = new ArrayList<>(awardRates.length);
+        for (int i = 0; i < awardRates.length; i++) {
+            strategyAwardEntities.add(StrategyAwardEntity.builder()
+                    .strategyId(100001L)
+                    .awardId(101 + i)
+                    .awardCount(80000)
+                    .awardCountSurplus(79000 - i)
+                    .awardRate(new BigDecimal(awardRates[i]))
+                    .build());
+        }
+        return strategyAwardEntities;
+    }
+
+    /**
+     * 与 RedisClientConfig.RedisCodec 相同的写法：写入类名；解析时放行本项目的包
+     */
+    private static class FastjsonCodec extends BaseCodec {
+
+        private final ParserConfig parserConfig = new ParserConfig();
+
+        {
+            parserConfig.addAccept("cn.gentlewind.");
+        }
+
+        private final Encoder encoder = in -> Unpooled.wrappedBuffer(JSON.toJSONBytes(in, SerializerFeature.WriteClassName));
+
+        private final Decoder<Object> decoder = (buf, state) -> JSON.parseObject(buf.toString(StandardCharsets.UTF_8), Object.class, parserConfig);
+
+        @Override
+        public Decoder<Object> getValueDecoder() {
+            return decoder;
+        }
+
+        @Override
+        public Encoder getValueEncoder() {
+            return encoder;
+        }
+
+    }
+
+}
@@ -0,0 +1,53 @@
+package cn.gentlewind.test.infrastructure;
+
+import cn.gentlewind.infrastructure.persistent.dao.IUserRaffleCountDao;
+import cn.gentlewind.infrastructure.persistent.po.UserRaffleCountPO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.annotation.Resource;
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * 用户抽奖次数Dao单测；批量写入取较大值，乱序到达的旧值不会让次数回退
+ */
+@Slf4j
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class UserRaffleCountDaoTest {
+
+    private static final Long STRATEGY_ID = 100001L;
+
+    @Resource
+    private IUserRaffleCountDao userRaffleCountDao;
+
+    @Test
+    public void test_upsertUserRaffleCount_greatest() {
+        String userId = "test_" + UUID.randomUUID().toString().substring(0, 8);
+
+        upsert(userId, 5L);
+        Assert.assertEquals(Long.valueOf(5), userRaffleCountDao.queryUserRaffleCount(STRATEGY_ID, userId));
+
+        // 旧批次晚到
+        upsert(userId, 3L);
+        Assert.assertEquals(Long.valueOf(5), userRaffleCountDao.queryUserRaffleCount(STRATEGY_ID, userId));
+
+        upsert(userId, 8L);
+        Assert.assertEquals(Long.valueOf(8), userRaffleCountDao.queryUserRaffleCount(STRATEGY_ID, userId));
+        log.info("测试结果：{} - {}", userId, userRaffleCountDao.queryUserRaffleCount(STRATEGY_ID, userId));
+    }
+
+    private void upsert(String userId, Long raffleCount) {
+        UserRaffleCountPO userRaffleCountPO = new UserRaffleCountPO();
+        userRaffleCountPO.setStrategyId(STRATEGY_ID);
+        userRaffleCountPO.setUserId(userId);
+        userRaffleCountPO.setRaffleCount(raffleCount);
+        userRaffleCountDao.upsertUserRaffleCount(Collections.singletonList(userRaffleCountPO));
+    }
+
+}
@@ -0,0 +1,126 @@
+package cn.gentlewind.test.infrastructure;
+
+import cn.gentlewind.infrastructure.persistent.dao.IUserRaffleCountDao;
+import cn.gentlewind.infrastructure.persistent.po.UserRaffleCountPO;
+import cn.gentlewind.infrastructure.persistent.redis.IRedisService;
+import cn.gentlewind.infrastructure.persistent.redis.InMemoryRedisService;
+import cn.gentlewind.infrastructure.persistent.redis.UserRaffleCountStore;
+import cn.gentlewind.types.common.Constants;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 用户抽奖次数存储单测；内存 Redis + 模拟 Dao，校验计数器新建时按数据库补齐、写库失败后重新排队、重排的旧值不覆盖新值
+ */
+public class UserRaffleCountStoreTest {
+
+    private static final Long STRATEGY_ID = 100001L;
+    private static final String USER_ID = "xiaofuge";
+
+    private final IRedisService redisService = new InMemoryRedisService(0, 0, Collections.emptyMap());
+    private final IUserRaffleCountDao userRaffleCountDao = Mockito.mock(IUserRaffleCountDao.class);
+    // 每次写库的入参
+    private final List<List<UserRaffleCountPO>> upserts = new ArrayList<>();
+    private final UserRaffleCountStore store = new UserRaffleCountStore();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(store, "redisService", redisService);
+        ReflectionTestUtils.setField(store, "userRaffleCountDao", userRaffleCountDao);
+        ReflectionTestUtils.setField(store, "maximumSize", 1000L);
+        ReflectionTestUtils.setField(store, "expireSeconds", 30L);
+        // 周期写库不参与，由测试直接触发
+        ReflectionTestUtils.setField(store, "flushIntervalMillis", 3_600_000L);
+        ReflectionTestUtils.setField(store, "flushBatchSize", 500);
+        store.init();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        store.destroy();
+    }
+
+    @Test
+    public void test_incr_topUpFromDb() {
+        // Redis 数据丢失，数据库记录 7 次
+        Mockito.when(userRaffleCountDao.queryUserRaffleCount(STRATEGY_ID, USER_ID)).thenReturn(7L);
+
+        Assert.assertEquals(8, store.incr(STRATEGY_ID, USER_ID, 1));
+        Assert.assertEquals(8, redisService.getCounter(Constants.RedisKey.USER_RAFFLE_COUNT_KEY + STRATEGY_ID + Constants.UNDERLINE + USER_ID));
+        // 计数器已存在，之后的累加不再查询数据库
+        Assert.assertEquals(18, store.incr(STRATEGY_ID, USER_ID, 10));
+        Assert.assertEquals(18, store.query(STRATEGY_ID, USER_ID));
+        Mockito.verify(userRaffleCountDao, Mockito.times(1)).queryUserRaffleCount(STRATEGY_ID, USER_ID);
+    }
+
+    @Test
+    public void test_incr_newUser() {
+        Mockito.when(userRaffleCountDao.queryUserRaffleCount(STRATEGY_ID, USER_ID)).thenReturn(null);
+
+        Assert.assertEquals(10, store.incr(STRATEGY_ID, USER_ID, 10));
+        Assert.assertEquals(10, store.query(STRATEGY_ID, USER_ID));
+    }
+
+    @Test
+    public void test_flush_requeueAfterFailure() {
+        Mockito.when(userRaffleCountDao.upsertUserRaffleCount(ArgumentMatchers.anyList()))
+                .thenAnswer(invocation -> {
+                    upserts.add(invocation.getArgument(0));
+                    throw new IllegalStateException("db down");
+                })
+                .thenAnswer(invocation -> {
+                    upserts.add(invocation.getArgument(0));
+                    return 1;
+                });
+        store.incr(STRATEGY_ID, USER_ID, 1);
+        store.incr(STRATEGY_ID, USER_ID, 1);
+
+        // 写库失败，计数保留到下一轮
+        ReflectionTestUtils.invokeMethod(store, "flush");
+        Assert.assertEquals(1, upserts.size());
+        Assert.assertEquals(Long.valueOf(2), upserts.get(0).get(0).getRaffleCount());
+
+        ReflectionTestUtils.invokeMethod(store, "flush");
+        Assert.assertEquals(2, upserts.size());
+        Assert.assertEquals(Long.valueOf(2), upserts.get(1).get(0).getRaffleCount());
+
+        // 已写入，没有待写计数
+        ReflectionTestUtils.invokeMethod(store, "flush");
+        Assert.assertEquals(2, upserts.size());
+    }
+
+    @Test
+    public void test_flush_requeueKeepsGreatest() {
+        Mockito.when(userRaffleCountDao.upsertUserRaffleCount(ArgumentMatchers.anyList()))
+                .thenAnswer(invocation -> {
+                    upserts.add(invocation.getArgument(0));
+                    // 写库期间又抽了一次，新值 3 先于失败批次的旧值 2 回到待写队列
+                    store.incr(STRATEGY_ID, USER_ID, 1);
+                    throw new IllegalStateException("db down");
+                })
+                .thenAnswer(invocation -> {
+                    upserts.add(invocation.getArgument(0));
+                    return 1;
+                });
+        store.incr(STRATEGY_ID, USER_ID, 1);
+        store.incr(STRATEGY_ID, USER_ID, 1);
+
+        ReflectionTestUtils.invokeMethod(store, "flush");
+        ReflectionTestUtils.invokeMethod(store, "flush");
+
+        // 重排的旧值不覆盖新值，写库取较大值
+        Assert.assertEquals(2, upserts.size());
+        Assert.assertEquals(1, upserts.get(1).size());
+        Assert.assertEquals(Long.valueOf(3), upserts.get(1).get(0).getRaffleCount());
+    }
+
+}
@@ -19,4 +19,6 @@ public class RaffleFactorEntity {
     private Long strategyId;
     /** 奖品ID */
     private Integer awardId;
+    /** 含本次在内的累计抽奖次数【抽奖中规则使用，为空时由规则自行查询】 */
+    private Long raffleCount;
 }
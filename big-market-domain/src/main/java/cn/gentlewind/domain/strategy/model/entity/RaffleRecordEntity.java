@@ -0,0 +1,30 @@
+package cn.gentlewind.domain.strategy.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * 抽奖记录实体；抽奖完成后交给抽奖后处理，用于记录写入、统计、通知
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RaffleRecordEntity {
+
+    /** 用户ID */
+    private String userId;
+    /** 策略ID */
+    private Long strategyId;
+    /** 奖品ID */
+    private Integer awardId;
+    /** 奖品配置信息 */
+    private String awardConfig;
+    /** 抽奖时间 */
+    private Date raffleTime;
+
+}
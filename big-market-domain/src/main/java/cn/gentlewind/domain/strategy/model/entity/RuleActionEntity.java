@@ -51,8 +51,20 @@ public class RuleActionEntity<T extends RuleActionEntity.RaffleEntity> {
     }
 
     // 抽奖之后
+    @EqualsAndHashCode(callSuper = true)
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
     static public class RaffleAfterEntity extends RaffleEntity {
-
+        /**
+         * 兜底奖品ID；
+         */
+        private Integer awardId;
+        /**
+         * 兜底奖品配置；如 1,100 表示 100 以内随机积分
+         */
+        private String awardConfig;
     }
 
 }
\ No newline at end of file
@@ -16,4 +16,6 @@ public class RuleMatterEntity {
     private Integer awardId;
     /** 抽奖规则类型【rule_random - 随机值计算、rule_lock - 抽奖几次后解锁、rule_luck_award - 幸运奖(兜底奖品)】 */
     private String ruleModel;
+    /** 含本次在内的累计抽奖次数【rule_lock 使用，为空时查询仓储】 */
+    private Long raffleCount;
 }
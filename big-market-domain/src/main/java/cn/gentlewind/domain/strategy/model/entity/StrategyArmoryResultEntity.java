@@ -0,0 +1,28 @@
+package cn.gentlewind.domain.strategy.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 策略装配结果实体；批量装配时每个策略一条
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StrategyArmoryResultEntity {
+
+    /** 策略ID */
+    private Long strategyId;
+    /** 是否装配成功 */
+    private boolean success;
+    /** 装配的查找表数量；基础表 + rule_weight 权重子表 */
+    private Integer tableCount;
+    /** 装配耗时（毫秒） */
+    private Long costMillis;
+    /** 失败原因 */
+    private String errorInfo;
+
+}
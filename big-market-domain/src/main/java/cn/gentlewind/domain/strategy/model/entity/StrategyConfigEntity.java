@@ -0,0 +1,47 @@
+package cn.gentlewind.domain.strategy.model.entity;
+
+import cn.gentlewind.domain.strategy.model.vo.StrategyAwardRuleModelVO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 策略完整配置实体；策略、奖品、规则批量查询后按策略归组，装配和预热时使用
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StrategyConfigEntity {
+
+    /** 策略 */
+    private StrategyEntity strategyEntity;
+    /** 策略奖品 */
+    private List<StrategyAwardEntity> strategyAwardEntities;
+    /** 策略奖品规则模型；奖品ID -> 规则模型 */
+    private Map<Integer, StrategyAwardRuleModelVO> strategyAwardRuleModelVOMap;
+    /** 策略规则 */
+    private List<StrategyRuleEntity> strategyRuleEntities;
+
+    public Long getStrategyId() {
+        return strategyEntity.getStrategyId();
+    }
+
+    /**
+     * 按规则模型查找策略规则
+     *
+     * @param ruleModel 规则模型
+     * @return 策略规则；未配置返回 null
+     */
+    public StrategyRuleEntity queryStrategyRule(String ruleModel) {
+        for (StrategyRuleEntity strategyRuleEntity : strategyRuleEntities) {
+            if (strategyRuleEntity.getRuleModel().equals(ruleModel)) return strategyRuleEntity;
+        }
+        return null;
+    }
+
+}
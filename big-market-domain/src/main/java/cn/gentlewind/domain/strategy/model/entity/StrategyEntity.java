@@ -31,6 +31,21 @@ public class StrategyEntity {
         return ruleModels.split(Constants.SPLIT);
     }
 
+    /**
+     * 是否配置了规则模型
+     *
+     * @param ruleModel 规则模型，如 rule_blacklist
+     * @return 配置了返回 true
+     */
+    public boolean hasRuleModel(String ruleModel) {
+        String[] ruleModels = this.ruleModels();
+        if (null == ruleModels) return false;
+        for (String configured : ruleModels) {
+            if (ruleModel.equals(configured.trim())) return true;
+        }
+        return false;
+    }
+
     /**
      * 获取规则模型
      *
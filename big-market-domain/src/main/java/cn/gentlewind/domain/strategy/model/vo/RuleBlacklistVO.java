@@ -0,0 +1,47 @@
+package cn.gentlewind.domain.strategy.model.vo;
+
+import cn.gentlewind.types.common.Constants;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 黑名单规则值对象；由 rule_blacklist 的规则值编译而来，不可变
+ *
+ * 规则值格式：100:user001,user002,user003，冒号前为黑名单用户的固定奖品ID；
+ * 名单较大时规则值只写奖品ID（100），用户存放在 strategy_blacklist 表，由黑名单存储判定。
+ */
+@Getter
+public class RuleBlacklistVO {
+
+    /** 黑名单用户的固定奖品ID */
+    private final Integer awardId;
+    /** 黑名单用户ID */
+    private final Set<String> userIds;
+
+    private RuleBlacklistVO(Integer awardId, Set<String> userIds) {
+        this.awardId = awardId;
+        this.userIds = userIds;
+    }
+
+    public static RuleBlacklistVO compile(String ruleValue) {
+        String[] splitRuleValue = ruleValue.split(Constants.COLON);
+        if (splitRuleValue.length != 1 && splitRuleValue.length != 2) {
+            throw new IllegalArgumentException("rule_blacklist rule_value invalid input format " + ruleValue);
+        }
+        Set<String> userIds = new HashSet<>();
+        String inlineUserIds = splitRuleValue.length == 2 ? splitRuleValue[1] : "";
+        for (String userId : inlineUserIds.split(Constants.SPLIT)) {
+            String trimmed = userId.trim();
+            if (!trimmed.isEmpty()) userIds.add(trimmed);
+        }
+        return new RuleBlacklistVO(Integer.parseInt(splitRuleValue[0].trim()), Collections.unmodifiableSet(userIds));
+    }
+
+    public boolean contains(String userId) {
+        return null != userId && userIds.contains(userId);
+    }
+
+}
@@ -0,0 +1,28 @@
+package cn.gentlewind.domain.strategy.model.vo;
+
+import lombok.Getter;
+
+/**
+ * 次数锁规则值对象；由 rule_lock 的规则值编译而来，不可变
+ *
+ * 规则值格式：1/2/6，表示用户抽奖次数达到后奖品解锁
+ */
+@Getter
+public class RuleLockVO {
+
+    /** 解锁所需抽奖次数 */
+    private final long raffleCount;
+
+    private RuleLockVO(long raffleCount) {
+        this.raffleCount = raffleCount;
+    }
+
+    public static RuleLockVO compile(String ruleValue) {
+        return new RuleLockVO(Long.parseLong(ruleValue.trim()));
+    }
+
+    public boolean isUnlocked(long userRaffleCount) {
+        return userRaffleCount >= raffleCount;
+    }
+
+}
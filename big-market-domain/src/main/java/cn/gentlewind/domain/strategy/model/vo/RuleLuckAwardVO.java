@@ -0,0 +1,33 @@
+package cn.gentlewind.domain.strategy.model.vo;
+
+import cn.gentlewind.types.common.Constants;
+import lombok.Getter;
+
+/**
+ * 幸运奖（兜底奖品）规则值对象；由 rule_luck_award 的规则值编译而来，不可变
+ *
+ * 规则值格式：101:1,100 表示兜底奖品 101，奖品配置 1,100；只写 1,100 时不指定奖品，由调用方使用默认兜底奖品。
+ */
+@Getter
+public class RuleLuckAwardVO {
+
+    /** 兜底奖品ID；规则值未指定时为 null */
+    private final Integer awardId;
+    /** 兜底奖品配置 */
+    private final String awardConfig;
+
+    private RuleLuckAwardVO(Integer awardId, String awardConfig) {
+        this.awardId = awardId;
+        this.awardConfig = awardConfig;
+    }
+
+    public static RuleLuckAwardVO compile(String ruleValue) {
+        String[] parts = ruleValue.trim().split(Constants.COLON);
+        if (parts.length == 1) return new RuleLuckAwardVO(null, parts[0]);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("rule_luck_award rule_value invalid input format " + ruleValue);
+        }
+        return new RuleLuckAwardVO(Integer.valueOf(parts[0].trim()), parts[1].trim());
+    }
+
+}
@@ -0,0 +1,64 @@
+package cn.gentlewind.domain.strategy.model.vo;
+
+import cn.gentlewind.types.common.Constants;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 权重规则值对象；由 rule_weight 的规则值编译而来，不可变
+ *
+ * 规则值格式：4000:102,103,104,105 5000:102,103,104,105,106,107，编译时按积分门槛升序排成两个平行数组，
+ * 抽奖时二分查找不超过用户积分的最大门槛，取对应的整段配置，即权重查找表的 ruleWeightValueKey。
+ */
+public class RuleWeightVO {
+
+    /** 积分门槛，升序 */
+    private final long[] thresholds;
+    /** 与门槛同下标的权重配置 */
+    private final String[] ruleWeightValueKeys;
+
+    private RuleWeightVO(long[] thresholds, String[] ruleWeightValueKeys) {
+        this.thresholds = thresholds;
+        this.ruleWeightValueKeys = ruleWeightValueKeys;
+    }
+
+    public static RuleWeightVO compile(String ruleValue) {
+        TreeMap<Long, String> tiers = new TreeMap<>();
+        for (String ruleValueKey : ruleValue.split(Constants.SPACE)) {
+            if (ruleValueKey.isEmpty()) continue;
+            String[] parts = ruleValueKey.split(Constants.COLON);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("rule_weight rule_value invalid input format " + ruleValueKey);
+            }
+            tiers.put(Long.parseLong(parts[0]), ruleValueKey);
+        }
+        long[] thresholds = new long[tiers.size()];
+        String[] ruleWeightValueKeys = new String[tiers.size()];
+        int i = 0;
+        for (Map.Entry<Long, String> tier : tiers.entrySet()) {
+            thresholds[i] = tier.getKey();
+            ruleWeightValueKeys[i++] = tier.getValue();
+        }
+        return new RuleWeightVO(thresholds, ruleWeightValueKeys);
+    }
+
+    public boolean isEmpty() {
+        return 0 == thresholds.length;
+    }
+
+    /**
+     * 查找用户积分可用的权重配置
+     *
+     * @param userScore 用户积分
+     * @return 不超过用户积分的最大门槛对应的配置；积分不足最低门槛返回 null
+     */
+    public String ruleWeightValueKey(long userScore) {
+        int index = Arrays.binarySearch(thresholds, userScore);
+        // 未命中时返回 -(插入点) - 1，插入点前一位即不超过积分的最大门槛
+        if (index < 0) index = -index - 2;
+        return index < 0 ? null : ruleWeightValueKeys[index];
+    }
+
+}
@@ -0,0 +1,31 @@
+package cn.gentlewind.domain.strategy.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 抽奖算法值对象
+ *
+ * 每个策略（包括 rule_weight 权重子表）装配时可以选择一种抽奖算法，装配结果和算法标识一起写入 Redis，抽奖时按标识分发。
+ */
+@Getter
+@AllArgsConstructor
+public enum StrategyAlgorithmVO {
+
+    O1("o1", "概率查找表；按约分后的整数权重展开槽位，随机一个槽位即为奖品，概率精度越高查找表越大"),
+    ALIAS("alias", "别名表（Vose Alias Method）；仅存储 N 个概率值和 N 个别名，O(1) 抽奖且与概率精度无关"),
+    BUCKET("bucket", "分桶两级抽奖；按权重数量级分桶，先按精确权重抽桶再在桶内查找表抽奖，查找表超出预算时自动采用"),
+    ;
+
+    private final String code;
+    private final String info;
+
+    public static StrategyAlgorithmVO valueOfCode(String code) {
+        for (StrategyAlgorithmVO algorithm : values()) {
+            if (algorithm.code.equals(code)) return algorithm;
+        }
+        // 未记录算法标识的历史装配数据，均为概率查找表
+        return O1;
+    }
+
+}
@@ -0,0 +1,44 @@
+package cn.gentlewind.domain.strategy.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 别名表值对象；Vose Alias Method 装配结果
+ *
+ * 三个数组长度均为奖品数量 N：
+ * awardIds     - 第 i 列对应的奖品ID
+ * probabilities - 第 i 列保留自身奖品的概率，取值 [0, 1]
+ * aliases      - 第 i 列未命中自身时，转向的别名列下标
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StrategyAliasTableVO {
+
+    private int[] awardIds;
+    private double[] probabilities;
+    private int[] aliases;
+
+    /**
+     * 列数，也就是随机列下标的范围
+     */
+    public int size() {
+        return awardIds.length;
+    }
+
+    /**
+     * 按列抽奖
+     *
+     * @param column 随机列下标 [0, N)
+     * @param coin   随机值 [0, 1)
+     * @return 奖品ID
+     */
+    public int sample(int column, double coin) {
+        return coin < probabilities[column] ? awardIds[column] : awardIds[aliases[column]];
+    }
+
+}
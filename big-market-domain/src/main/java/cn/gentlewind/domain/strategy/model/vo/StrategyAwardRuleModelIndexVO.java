@@ -0,0 +1,68 @@
+package cn.gentlewind.domain.strategy.model.vo;
+
+import cn.gentlewind.domain.strategy.service.rule.factory.DefaultLogicFactory;
+import cn.gentlewind.types.common.Constants;
+import cn.gentlewind.types.enums.ResponseCode;
+import cn.gentlewind.types.exception.AppException;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 策略奖品规则模型索引值对象；装配时按策略预先解析，抽奖时按奖品ID直接取出抽奖中、抽奖后规则
+ *
+ * 只记录配置了对应规则的奖品，未配置规则的奖品返回空数组，抽奖中规则过滤可以直接跳过。
+ * 返回的数组由所有请求共享，调用方只读不改。
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StrategyAwardRuleModelIndexVO {
+
+    private static final String[] EMPTY_RULE_MODELS = new String[0];
+
+    /** 奖品ID -> 抽奖中规则 */
+    private Map<Integer, String[]> raffleCenterRuleModels;
+    /** 奖品ID -> 抽奖后规则 */
+    private Map<Integer, String[]> raffleAfterRuleModels;
+
+    /**
+     * 由奖品规则模型构建索引；奖品上配置了未知或不适用（抽奖前）的规则模型时拒绝装配，不在过滤时静默丢弃
+     *
+     * @param strategyAwardRuleModelVOMap 奖品ID -> 规则模型
+     * @return 索引
+     */
+    public static StrategyAwardRuleModelIndexVO build(Map<Integer, StrategyAwardRuleModelVO> strategyAwardRuleModelVOMap) {
+        Map<Integer, String[]> raffleCenterRuleModels = new HashMap<>();
+        Map<Integer, String[]> raffleAfterRuleModels = new HashMap<>();
+        strategyAwardRuleModelVOMap.forEach((awardId, strategyAwardRuleModelVO) -> {
+            if (null == strategyAwardRuleModelVO || null == strategyAwardRuleModelVO.getRuleModels()) return;
+            for (String ruleModel : strategyAwardRuleModelVO.getRuleModels().split(Constants.SPLIT)) {
+                if (!DefaultLogicFactory.LogicModel.isAwardApplicable(ruleModel)) {
+                    throw new AppException(ResponseCode.STRATEGY_RULE_MODEL_UNKNOWN.getCode(), ResponseCode.STRATEGY_RULE_MODEL_UNKNOWN.getInfo());
+                }
+            }
+            String[] raffleCenterRuleModelList = strategyAwardRuleModelVO.raffleCenterRuleModelList();
+            if (raffleCenterRuleModelList.length > 0) raffleCenterRuleModels.put(awardId, raffleCenterRuleModelList);
+            String[] raffleAfterRuleModelList = strategyAwardRuleModelVO.raffleAfterRuleModelList();
+            if (raffleAfterRuleModelList.length > 0) raffleAfterRuleModels.put(awardId, raffleAfterRuleModelList);
+        });
+        return new StrategyAwardRuleModelIndexVO(raffleCenterRuleModels, raffleAfterRuleModels);
+    }
+
+    public String[] raffleCenterRuleModelList(Integer awardId) {
+        String[] ruleModels = raffleCenterRuleModels.get(awardId);
+        return null == ruleModels ? EMPTY_RULE_MODELS : ruleModels;
+    }
+
+    public String[] raffleAfterRuleModelList(Integer awardId) {
+        String[] ruleModels = raffleAfterRuleModels.get(awardId);
+        return null == ruleModels ? EMPTY_RULE_MODELS : ruleModels;
+    }
+
+}
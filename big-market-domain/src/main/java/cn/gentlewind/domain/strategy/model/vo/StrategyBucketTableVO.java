@@ -0,0 +1,60 @@
+package cn.gentlewind.domain.strategy.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 分桶表值对象；分桶两级抽奖装配结果
+ *
+ * 奖品按整数权重的数量级分桶，两个数组长度均为桶数量：
+ * bucketWeights - 桶权重的前缀和，最后一个元素为总权重；第一级按精确权重抽桶，概率不失真
+ * bucketTables  - 每个桶内的查找表，值为奖品ID；同一数量级内权重相差不足 10 倍，小表即可表达
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StrategyBucketTableVO {
+
+    private long[] bucketWeights;
+    private int[][] bucketTables;
+
+    /**
+     * 总权重，也就是第一级随机值的范围
+     */
+    public long total() {
+        return bucketWeights[bucketWeights.length - 1];
+    }
+
+    /**
+     * 按随机权重值定位桶；桶数量不超过权重数量级个数，顺序查找即可
+     *
+     * @param point 随机值 [0, total)
+     * @return 桶下标
+     */
+    public int bucket(long point) {
+        int bucket = 0;
+        while (point >= bucketWeights[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    public int bucketSize(int bucket) {
+        return bucketTables[bucket].length;
+    }
+
+    /**
+     * 桶内抽奖
+     *
+     * @param bucket 桶下标
+     * @param slot   随机槽位 [0, bucketSize)
+     * @return 奖品ID
+     */
+    public int sample(int bucket, int slot) {
+        return bucketTables[bucket][slot];
+    }
+
+}
@@ -0,0 +1,34 @@
+package cn.gentlewind.domain.strategy.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 抽奖随机源值对象
+ *
+ * 通过 big-market.strategy.random.mode 配置，抽奖分发时统一使用所选随机源。
+ */
+@Getter
+@AllArgsConstructor
+public enum StrategyRandomVO {
+
+    SECURE("secure", "线程级 SecureRandom；每个线程持有一个实例，不再每次抽奖创建，也不会在同一实例上互相阻塞"),
+    BUFFERED("buffered", "预生成缓冲；后台线程批量生成随机数放入缓冲队列，抽奖线程只做数组读取"),
+    SPLITTABLE("splittable", "SplittableRandom；每个线程拆分出独立的实例，非加密强度，吞吐最高"),
+    SEEDED("seeded", "固定种子；同一种子下抽奖序列可重放，用于审计核对，不可用于生产抽奖"),
+    ;
+
+    private final String code;
+    private final String info;
+
+    /**
+     * 按配置值查找随机源；未知的配置值直接抛异常，启动失败，不静默回退到默认随机源
+     */
+    public static StrategyRandomVO valueOfCode(String code) {
+        for (StrategyRandomVO random : values()) {
+            if (random.code.equals(code)) return random;
+        }
+        throw new IllegalArgumentException("unknown random mode: " + code);
+    }
+
+}
@@ -1,10 +1,17 @@
 package cn.gentlewind.domain.strategy.repository;
 
+import cn.gentlewind.domain.strategy.model.entity.RaffleRecordEntity;
 import cn.gentlewind.domain.strategy.model.entity.StrategyAwardEntity;
+import cn.gentlewind.domain.strategy.model.entity.StrategyConfigEntity;
 import cn.gentlewind.domain.strategy.model.entity.StrategyEntity;
 import cn.gentlewind.domain.strategy.model.entity.StrategyRuleEntity;
+import cn.gentlewind.domain.strategy.model.vo.StrategyAlgorithmVO;
+import cn.gentlewind.domain.strategy.model.vo.StrategyAliasTableVO;
+import cn.gentlewind.domain.strategy.model.vo.StrategyAwardRuleModelIndexVO;
 import cn.gentlewind.domain.strategy.model.vo.StrategyAwardRuleModelVO;
+import cn.gentlewind.domain.strategy.model.vo.StrategyBucketTableVO;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -16,19 +23,75 @@ public interface IStrategyRepository {
     List<StrategyAwardEntity> queryStrategyAwardList(Long strategyId);
 
 
-    void storeStrategyAwardSearchRateTable(String key, Integer rateRange, Map<Integer, Integer> strategyAwardSearchRateTable);
+    void storeStrategyAwardSearchRateTable(String key, int[] strategyAwardSearchRateTable);
 
     Integer getStrategyAwardAssemble(String key, Integer rateKey);
 
+    int[] getStrategyAwardAssemble(String key, int[] rateKeys);
+
     int getRateRange(Long strategyId);
 
     int getRateRange(String key);
 
+    void storeStrategyAwardAliasTable(String key, StrategyAliasTableVO strategyAliasTableVO);
+
+    StrategyAliasTableVO getStrategyAwardAliasTable(String key);
+
+    void storeStrategyAwardBucketTable(String key, StrategyBucketTableVO strategyBucketTableVO);
+
+    StrategyBucketTableVO getStrategyAwardBucketTable(String key);
+
+    void storeStrategyAlgorithm(String key, StrategyAlgorithmVO algorithm);
+
+    StrategyAlgorithmVO queryStrategyAlgorithm(String key);
+
+    String nextStrategyArmoryKey(String key);
+
+    void switchStrategyArmoryKey(String key, String armoryKey);
+
+    String queryStrategyArmoryKey(String key);
+
+    boolean isStrategyArmoryAssembled(String key);
+
     StrategyEntity queryStrategyEntityByStrategyId(Long strategyId);
 
+    void registerStrategyMembership(Long strategyId);
+
+    boolean isStrategyExist(Long strategyId);
+
+    void invalidateStrategyConfig(Long strategyId);
+
     StrategyRuleEntity queryStrategyRule(Long strategyId, String ruleModel);
 
     String queryStrategyRuleValue(Long strategyId, Integer awardId, String ruleModel);
 
-    StrategyAwardRuleModelVO queryStrategyAwardRuleModelVO(Long strategyId , Integer awardId);
+    Map<Long, StrategyConfigEntity> queryStrategyConfigMap(Collection<Long> strategyIds);
+
+    Map<Integer, StrategyAwardRuleModelVO> queryStrategyAwardRuleModelVOMap(Long strategyId, Collection<Integer> awardIds);
+
+    void storeStrategyAwardRuleModelIndex(Long strategyId, StrategyAwardRuleModelIndexVO strategyAwardRuleModelIndexVO);
+
+    StrategyAwardRuleModelIndexVO queryStrategyAwardRuleModelIndex(Long strategyId);
+
+    void assembleStrategyBlacklist(Long strategyId, boolean reassemble);
+
+    boolean isStrategyBlacklisted(Long strategyId, String userId);
+
+    void addStrategyBlacklist(Long strategyId, Collection<String> userIds);
+
+    void removeStrategyBlacklist(Long strategyId, Collection<String> userIds);
+
+    long queryUserScore(String userId);
+
+    long addUserScore(String userId, long delta);
+
+    long incrUserRaffleCount(Long strategyId, String userId, int count);
+
+    long queryUserRaffleCount(Long strategyId, String userId);
+
+    void saveRaffleRecords(List<RaffleRecordEntity> raffleRecordEntities);
+
+    void incrStrategyAwardRaffleCount(Map<Long, Map<Integer, Long>> strategyAwardCounts);
+
+    void publishRaffleRecords(List<RaffleRecordEntity> raffleRecordEntities);
 }
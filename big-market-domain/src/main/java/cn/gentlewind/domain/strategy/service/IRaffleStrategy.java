@@ -3,6 +3,8 @@ package cn.gentlewind.domain.strategy.service;
 import cn.gentlewind.domain.strategy.model.entity.RaffleAwardEntity;
 import cn.gentlewind.domain.strategy.model.entity.RaffleFactorEntity;
 
+import java.util.List;
+
 /**
  * 抽奖策略接口
  */
@@ -16,4 +18,13 @@ public interface IRaffleStrategy {
      */
     RaffleAwardEntity performRaffle(RaffleFactorEntity raffleFactorEntity);
 
+    /**
+     * 多连抽；策略规则只校验一次，一次取出多个随机结果，奖品规则批量查询
+     *
+     * @param raffleFactorEntity 抽奖因子实体对象
+     * @param count              抽奖次数，1 到 big-market.strategy.raffle.max-count（默认 100）
+     * @return 抽奖的奖品，按抽奖顺序
+     */
+    List<RaffleAwardEntity> performRaffle(RaffleFactorEntity raffleFactorEntity, int count);
+
 }
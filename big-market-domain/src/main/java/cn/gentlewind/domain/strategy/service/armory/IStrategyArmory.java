@@ -1,5 +1,11 @@
 package cn.gentlewind.domain.strategy.service.armory;
 
+import cn.gentlewind.domain.strategy.model.entity.StrategyArmoryResultEntity;
+import cn.gentlewind.domain.strategy.model.vo.StrategyAlgorithmVO;
+
+import java.util.Collection;
+import java.util.List;
+
 /**
  * 策略装配库
  *
@@ -15,5 +21,50 @@ public interface IStrategyArmory {
      */
     boolean assembleLotteryStrategy(Long strategyId);
 
+    /**
+     * 按指定算法装配抽奖策略配置；带有超低概率奖品的策略可以选择 {@link StrategyAlgorithmVO#ALIAS}
+     *
+     * @param strategyId 策略ID
+     * @param algorithm  抽奖算法
+     * @return 装配结果
+     */
+    boolean assembleLotteryStrategy(Long strategyId, StrategyAlgorithmVO algorithm);
+
+    /**
+     * 策略配置变更后重新装配；先失效各节点的策略实体、奖品列表缓存，再按最新配置装配新版本
+     *
+     * @param strategyId 策略ID
+     * @return 装配结果
+     */
+    boolean reloadLotteryStrategy(Long strategyId);
+
+    /**
+     * 批量装配抽奖策略；多个策略及其 rule_weight 权重子表在有界线程池中并行装配，单个策略失败不影响其他策略
+     *
+     * @param strategyIds 策略ID集合
+     * @return 每个策略的装配结果，顺序与入参一致
+     */
+    List<StrategyArmoryResultEntity> assembleLotteryStrategies(Collection<Long> strategyIds);
+
+    /**
+     * 按指定算法批量装配抽奖策略
+     *
+     * @param strategyIds 策略ID集合
+     * @param algorithm   抽奖算法
+     * @return 每个策略的装配结果，顺序与入参一致
+     */
+    List<StrategyArmoryResultEntity> assembleLotteryStrategies(Collection<Long> strategyIds, StrategyAlgorithmVO algorithm);
+
+    /**
+     * 预热抽奖策略；用于服务启动、Redis 故障切换后
+     *
+     * 1. 查询策略、奖品列表、权重规则、规则值，填充缓存
+     * 2. 未装配的查找表进行装配，已装配的不重复装配
+     * 3. 把当前版本的装配数据加载到本地缓存，首个抽奖请求不再访问 Redis
+     *
+     * @param strategyIds 策略ID集合
+     * @return 每个策略的预热结果，顺序与入参一致
+     */
+    List<StrategyArmoryResultEntity> warmUpLotteryStrategies(Collection<Long> strategyIds);
 
 }
@@ -1,5 +1,7 @@
 package cn.gentlewind.domain.strategy.service.armory;
 
+import java.util.List;
+
 public interface IStrategyDispatch {
 
     /**
@@ -11,4 +13,15 @@ public interface IStrategyDispatch {
     Integer getRandomAwardId(Long strategyId);
 
     Integer getRandomAwardId(Long strategyId, String ruleWeightValue);
+
+    /**
+     * 批量抽奖；一次取出多个随机结果，查找表和算法标识只读取一次
+     *
+     * @param strategyId 策略ID
+     * @param count      抽奖次数
+     * @return 抽奖结果，按抽奖顺序
+     */
+    List<Integer> getRandomAwardIds(Long strategyId, int count);
+
+    List<Integer> getRandomAwardIds(Long strategyId, String ruleWeightValue, int count);
 }
@@ -1,19 +1,34 @@
 package cn.gentlewind.domain.strategy.service.armory;
 
+import cn.gentlewind.domain.strategy.model.entity.StrategyArmoryResultEntity;
 import cn.gentlewind.domain.strategy.model.entity.StrategyAwardEntity;
+import cn.gentlewind.domain.strategy.model.entity.StrategyConfigEntity;
 import cn.gentlewind.domain.strategy.model.entity.StrategyEntity;
 import cn.gentlewind.domain.strategy.model.entity.StrategyRuleEntity;
+import cn.gentlewind.domain.strategy.model.vo.StrategyAlgorithmVO;
+import cn.gentlewind.domain.strategy.model.vo.StrategyAwardRuleModelIndexVO;
+import cn.gentlewind.domain.strategy.model.vo.StrategyAwardRuleModelVO;
+import cn.gentlewind.domain.strategy.model.vo.StrategyRandomVO;
 import cn.gentlewind.domain.strategy.repository.IStrategyRepository;
+import cn.gentlewind.domain.strategy.service.armory.algorithm.AbstractAlgorithm;
+import cn.gentlewind.domain.strategy.service.armory.algorithm.IAlgorithm;
+import cn.gentlewind.domain.strategy.service.armory.random.IRandomSource;
+import cn.gentlewind.domain.strategy.service.rule.compiler.RulePipelineCompiler;
+import cn.gentlewind.domain.strategy.service.rule.factory.DefaultLogicFactory;
 import cn.gentlewind.types.enums.ResponseCode;
 import cn.gentlewind.types.exception.AppException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.security.SecureRandom;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 
 @Slf4j
@@ -23,6 +38,30 @@ public class StrategyArmoryDispatch implements IStrategyArmory ,IStrategyDispatc
     @Resource
     private IStrategyRepository repository;
 
+    // 规则流水线编译器；装配时预先编译，配置错误在装配阶段暴露
+    @Resource
+    private RulePipelineCompiler rulePipelineCompiler;
+
+    // 批量装配并行度；装配以 Redis 写入为主，线程数可以高于 CPU 核数
+    private static final int ARMORY_PARALLELISM = Runtime.getRuntime().availableProcessors() * 2;
+
+    // 抽奖算法分组；装配和抽奖都按算法标识分发
+    private final Map<StrategyAlgorithmVO, IAlgorithm> algorithmGroup = new EnumMap<>(StrategyAlgorithmVO.class);
+
+    // 抽奖随机源；按 big-market.strategy.random.mode 从所有随机源中选取一个
+    private final IRandomSource randomSource;
+
+    public StrategyArmoryDispatch(List<IAlgorithm> algorithms, List<IRandomSource> randomSources,
+                                  @Value("${big-market.strategy.random.mode:secure}") String randomMode) {
+        algorithms.forEach(algorithm -> algorithmGroup.put(algorithm.algorithm(), algorithm));
+        StrategyRandomVO random = StrategyRandomVO.valueOfCode(randomMode);
+        this.randomSource = randomSources.stream()
+                .filter(source -> source.random() == random)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("random source not found: " + randomMode));
+        log.info("抽奖随机源 mode:{}", random.getCode());
+    }
+
     /**
      * 构建策略奖品概率查找表
      *
@@ -31,21 +70,211 @@ public class StrategyArmoryDispatch implements IStrategyArmory ,IStrategyDispatc
      */
     @Override
     public boolean assembleLotteryStrategy(Long strategyId) {
-        // 查询策略配置
-        List<StrategyAwardEntity> strategyAwardEntities = repository.queryStrategyAwardList(strategyId);
+        return assembleLotteryStrategy(strategyId, StrategyAlgorithmVO.O1);
+    }
+
+    /**
+     * 按指定算法构建策略奖品概率查找表，rule_weight 权重子表使用同一种算法
+     *
+     * @param strategyId 策略ID
+     * @param algorithm  抽奖算法
+     * @return
+     */
+    @Override
+    public boolean assembleLotteryStrategy(Long strategyId, StrategyAlgorithmVO algorithm) {
+        return assembleLotteryStrategy(strategyId, key -> algorithm);
+    }
+
+    /**
+     * 重新装配时每张查找表沿用当前版本记录的算法；新增的 rule_weight 权重子表没有记录，按概率查找表装配
+     */
+    @Override
+    public boolean reloadLotteryStrategy(Long strategyId) {
+        repository.invalidateStrategyConfig(strategyId);
+        return assembleLotteryStrategy(strategyId, key -> repository.queryStrategyAlgorithm(repository.queryStrategyArmoryKey(key)));
+    }
+
+    /**
+     * 装配策略的所有查找表
+     *
+     * @param strategyId  策略ID
+     * @param algorithmOf 查找表 key -> 抽奖算法
+     * @return
+     */
+    private boolean assembleLotteryStrategy(Long strategyId, Function<String, StrategyAlgorithmVO> algorithmOf) {
+        StrategyConfigEntity strategyConfigEntity = repository.queryStrategyConfigMap(Collections.singletonList(strategyId)).get(strategyId);
+        if (null == strategyConfigEntity) {
+            throw new AppException(ResponseCode.STRATEGY_NOT_EXIST.getCode(), ResponseCode.STRATEGY_NOT_EXIST.getInfo());
+        }
+        assembleStrategyAwardRuleModelIndex(strategyConfigEntity);
+        assembleStrategyBlacklist(strategyConfigEntity);
+        Map<String, List<StrategyAwardEntity>> strategyArmoryTables = queryStrategyArmoryTables(strategyConfigEntity);
+        for (Map.Entry<String, List<StrategyAwardEntity>> entry : strategyArmoryTables.entrySet()) {
+            assembleLotteryStrategy(entry.getKey(), entry.getValue(), algorithmOf.apply(entry.getKey()));
+        }
+        return true;
+    }
+
+    @Override
+    public List<StrategyArmoryResultEntity> assembleLotteryStrategies(Collection<Long> strategyIds) {
+        return assembleLotteryStrategies(strategyIds, StrategyAlgorithmVO.O1);
+    }
+
+    /**
+     * 批量装配抽奖策略
+     *
+     * 1. 每个策略先在线程池中查询配置，拆分出基础表和 rule_weight 权重子表
+     * 2. 所有查找表作为独立任务提交到同一个有界线程池，任务之间不阻塞等待，不会占满线程后互相等待
+     * 3. 单个策略的任一查找表失败，该策略记为失败并返回原因，其他策略继续装配
+     *
+     * @param strategyIds 策略ID集合
+     * @param algorithm   抽奖算法
+     * @return 每个策略的装配结果
+     */
+    @Override
+    public List<StrategyArmoryResultEntity> assembleLotteryStrategies(Collection<Long> strategyIds, StrategyAlgorithmVO algorithm) {
+        return armoryLotteryStrategies(strategyIds, strategyConfigEntity -> {
+            assembleStrategyAwardRuleModelIndex(strategyConfigEntity);
+            assembleStrategyBlacklist(strategyConfigEntity);
+        }, (key, strategyAwardEntities) -> assembleLotteryStrategy(key, strategyAwardEntities, algorithm));
+    }
+
+    @Override
+    public List<StrategyArmoryResultEntity> warmUpLotteryStrategies(Collection<Long> strategyIds) {
+        // 规则值随批量配置查询写入缓存，规则过滤不再逐条查询数据库
+        return armoryLotteryStrategies(strategyIds, strategyConfigEntity -> {
+            assembleStrategyAwardRuleModelIndex(strategyConfigEntity);
+            assembleStrategyBlacklist(strategyConfigEntity);
+        }, (key, strategyAwardEntities) -> {
+            if (!repository.isStrategyArmoryAssembled(key)) {
+                log.info("策略预热，查找表未装配 key:{}", key);
+                assembleLotteryStrategy(key, strategyAwardEntities, StrategyAlgorithmVO.O1);
+            }
+            // 按抽奖路径把版本键、算法标识、查找表加载到本地缓存；不抽奖，不消耗共享随机源，种子回放不受影响
+            String armoryKey = repository.queryStrategyArmoryKey(key);
+            StrategyAlgorithmVO algorithm = repository.queryStrategyAlgorithm(armoryKey);
+            algorithmGroup.get(algorithm).warmUpAlgorithm(armoryKey);
+        });
+    }
+
+    /**
+     * 并行处理多个策略的所有查找表
+     *
+     * 策略、奖品、规则配置先按批一次查询（各一条 IN 查询），单个策略的处理不再访问数据库
+     *
+     * @param strategyIds     策略ID集合
+     * @param strategyArmory  单个策略的处理，在拆分查找表之前执行
+     * @param tableArmory     单张查找表的处理；入参为 key 和奖品列表
+     * @return 每个策略的处理结果
+     */
+    private List<StrategyArmoryResultEntity> armoryLotteryStrategies(Collection<Long> strategyIds, Consumer<StrategyConfigEntity> strategyArmory,
+                                                                     BiConsumer<String, List<StrategyAwardEntity>> tableArmory) {
+        Set<Long> distinctStrategyIds = new LinkedHashSet<>(strategyIds);
+        if (distinctStrategyIds.isEmpty()) return Collections.emptyList();
+
+        Map<Long, StrategyConfigEntity> strategyConfigMap = repository.queryStrategyConfigMap(distinctStrategyIds);
+
+        ForkJoinPool armoryPool = new ForkJoinPool(Math.min(ARMORY_PARALLELISM, distinctStrategyIds.size() * 4));
+        try {
+            List<CompletableFuture<StrategyArmoryResultEntity>> futures = new ArrayList<>(distinctStrategyIds.size());
+            for (Long strategyId : distinctStrategyIds) {
+                long startMillis = System.currentTimeMillis();
+                CompletableFuture<StrategyArmoryResultEntity> future = CompletableFuture
+                        .supplyAsync(() -> {
+                            StrategyConfigEntity strategyConfigEntity = strategyConfigMap.get(strategyId);
+                            if (null == strategyConfigEntity) {
+                                throw new AppException(ResponseCode.STRATEGY_NOT_EXIST.getCode(), ResponseCode.STRATEGY_NOT_EXIST.getInfo());
+                            }
+                            strategyArmory.accept(strategyConfigEntity);
+                            return queryStrategyArmoryTables(strategyConfigEntity);
+                        }, armoryPool)
+                        .thenCompose(strategyArmoryTables -> CompletableFuture.allOf(strategyArmoryTables.entrySet().stream()
+                                        .map(entry -> CompletableFuture.runAsync(() -> tableArmory.accept(entry.getKey(), entry.getValue()), armoryPool))
+                                        .toArray(CompletableFuture[]::new))
+                                .thenApply(v -> StrategyArmoryResultEntity.builder()
+                                        .strategyId(strategyId)
+                                        .success(true)
+                                        .tableCount(strategyArmoryTables.size())
+                                        .costMillis(System.currentTimeMillis() - startMillis)
+                                        .build()))
+                        .exceptionally(e -> {
+                            Throwable cause = e instanceof CompletionException && null != e.getCause() ? e.getCause() : e;
+                            log.error("策略批量装配失败 strategyId:{}", strategyId, cause);
+                            return StrategyArmoryResultEntity.builder()
+                                    .strategyId(strategyId)
+                                    .success(false)
+                                    .costMillis(System.currentTimeMillis() - startMillis)
+                                    .errorInfo(cause instanceof AppException ? ((AppException) cause).getInfo() : cause.getMessage())
+                                    .build();
+                        });
+                futures.add(future);
+            }
+
+            List<StrategyArmoryResultEntity> strategyArmoryResults = new ArrayList<>(futures.size());
+            for (CompletableFuture<StrategyArmoryResultEntity> future : futures) {
+                strategyArmoryResults.add(future.join());
+            }
+            log.info("策略批量装配完成 total:{} failed:{}", strategyArmoryResults.size(), strategyArmoryResults.stream().filter(result -> !result.isSuccess()).count());
+            return strategyArmoryResults;
+        } finally {
+            armoryPool.shutdown();
+        }
+    }
+
+    /**
+     * 装配奖品规则模型索引；一次查询策略全部奖品的规则模型并预先解析，抽奖时不再逐次查询和拆分
+     * 同时登记策略ID，抽奖入口据此拦截不存在的策略
+     * 写入索引之前先编译抽奖前、抽奖中、抽奖后规则流水线，规则模型配置错误时装配失败，不会在抽奖请求中才发现
+     *
+     * @param strategyConfigEntity 策略完整配置
+     */
+    private void assembleStrategyAwardRuleModelIndex(StrategyConfigEntity strategyConfigEntity) {
+        Long strategyId = strategyConfigEntity.getStrategyId();
+        Map<Integer, StrategyAwardRuleModelVO> strategyAwardRuleModelVOMap = strategyConfigEntity.getStrategyAwardRuleModelVOMap();
+        StrategyAwardRuleModelIndexVO strategyAwardRuleModelIndexVO = StrategyAwardRuleModelIndexVO.build(strategyAwardRuleModelVOMap);
+        rulePipelineCompiler.compileBefore(strategyConfigEntity.getStrategyEntity());
+        strategyAwardRuleModelIndexVO.getRaffleCenterRuleModels().forEach((awardId, ruleModels) -> rulePipelineCompiler.compileCenter(strategyId, awardId, ruleModels));
+        strategyAwardRuleModelIndexVO.getRaffleAfterRuleModels().forEach((awardId, ruleModels) -> rulePipelineCompiler.compileAfter(strategyId, awardId, ruleModels));
+        repository.registerStrategyMembership(strategyId);
+        repository.storeStrategyAwardRuleModelIndex(strategyId, strategyAwardRuleModelIndexVO);
+    }
+
+    /**
+     * 装配策略黑名单；只处理配置了 rule_blacklist 的策略。Redis 已有名单时不重写，只构建本节点的布隆过滤器，
+     * 查找表装配、活动中调整概率都不会重新读取整张名单表；全量重建由 IStrategyBlacklist 单独触发
+     *
+     * @param strategyConfigEntity 策略完整配置
+     */
+    private void assembleStrategyBlacklist(StrategyConfigEntity strategyConfigEntity) {
+        if (!strategyConfigEntity.getStrategyEntity().hasRuleModel(DefaultLogicFactory.LogicModel.RULE_BLACKLIST.getCode())) return;
+        repository.assembleStrategyBlacklist(strategyConfigEntity.getStrategyId(), false);
+    }
+
+    /**
+     * 查询策略需要装配的所有查找表
+     *
+     * @param strategyConfigEntity 策略完整配置
+     * @return key -> 奖品列表；key 为 strategyId 或 strategyId_权重值
+     */
+    private Map<String, List<StrategyAwardEntity>> queryStrategyArmoryTables(StrategyConfigEntity strategyConfigEntity) {
+        Map<String, List<StrategyAwardEntity>> strategyArmoryTables = new LinkedHashMap<>();
+        Long strategyId = strategyConfigEntity.getStrategyId();
+
+        // 策略奖品配置
+        List<StrategyAwardEntity> strategyAwardEntities = strategyConfigEntity.getStrategyAwardEntities();
 
         // 构建策略奖品概率查找表
-        assembleLotteryStrategy(String.valueOf(strategyId), strategyAwardEntities);
+        strategyArmoryTables.put(String.valueOf(strategyId), strategyAwardEntities);
 
-        // 查询策略实体类
-        StrategyEntity strategyEntity = repository.queryStrategyEntityByStrategyId(strategyId);
+        // 策略实体类
+        StrategyEntity strategyEntity = strategyConfigEntity.getStrategyEntity();
 
         // 取出策略规则（rule_weight,rule_blacklist）
         String ruleWeight = strategyEntity.getRuleWeight();
-        if (null == ruleWeight) return true;
+        if (null == ruleWeight) return strategyArmoryTables;
 
-        // 通过策略ID和rule_weight查询策略规则，拿到策略规则实体类
-        StrategyRuleEntity strategyRuleEntity = repository.queryStrategyRule(strategyId, ruleWeight);
+        // 按 rule_weight 取出策略规则实体类
+        StrategyRuleEntity strategyRuleEntity = strategyConfigEntity.queryStrategyRule(ruleWeight);
         if (null == strategyRuleEntity){
             // 如果策略规则为空，则抛出异常
             throw new AppException(ResponseCode.STRATEGY_RULE_WEIGHT_IS_NULL.getCode(), ResponseCode.STRATEGY_RULE_WEIGHT_IS_NULL.getInfo()) ;
@@ -67,13 +296,10 @@ public class StrategyArmoryDispatch implements IStrategyArmory ,IStrategyDispatc
             // lambda表达式，接受一个StrategyAwardEntity类型的entity，判断是否在ruleWeightValues中，如果不在则返回true，表示需要移除该元素。
             strategyAwardEntitiesClone.removeIf(entity -> !ruleWeightValues.contains(entity.getAwardId()));
             // 重新构建策略奖品概率查找表
-            assembleLotteryStrategy(String.valueOf(strategyId).concat("_").concat(key), strategyAwardEntitiesClone);
+            strategyArmoryTables.put(String.valueOf(strategyId).concat("_").concat(key), strategyAwardEntitiesClone);
         }
 
-        return true;
-
-
-
+        return strategyArmoryTables;
     }
 
 
@@ -83,93 +309,62 @@ public class StrategyArmoryDispatch implements IStrategyArmory ,IStrategyDispatc
      * 用于上面的方法进行重新装配，根据不同的策略和权重配置，生成并存储不同的抽奖策略查找表
      * @param key                   策略标识符字符串
      * @param strategyAwardEntities 包含奖品和对应概率的实体列表
+     * @param algorithm             抽奖算法
      */
-    private void assembleLotteryStrategy(String key, List<StrategyAwardEntity> strategyAwardEntities) {
-        // 2. 获取最小概率值 minAwardRate
-        // 通过流式处理计算`strategyAwardEntities`列表中`awardRate`属性的最小值。
-        BigDecimal minAwardRate = strategyAwardEntities.stream() // 将`strategyAwardEntities`列表转换为流。
-                .map(StrategyAwardEntity::getAwardRate) // 将每个StrategyAwardEntity对象的awardRate属性转换为BigDecimal类型。
-                .min(BigDecimal::compareTo) // 对每个BigDecimal对象执行compareTo进行自然排序，并返回最小值。
-                .orElse(BigDecimal.ZERO); // 如果`strategyAwardEntities`列表为空，则返回BigDecimal.ZERO零值
-                // .orElse(BigDecimal.ZERO) 的作用是确保 minAwardRate 总是有值。如果 min 函数找不到最小值（即列表为空），
-        // 那么 minAwardRate 将被设置为 BigDecimal.ZERO。这样可以避免在后续的代码中因为尝试使用 null 值而抛出 NullPointerException。
-        if (minAwardRate.compareTo(BigDecimal.ZERO) == 0) {
-            log.info("最小概率为0");
-            return; // 或者抛出异常，根据业务逻辑决定
-        }
-
-
-        // 3. 获取概率值总和 totalAwardRate
-        BigDecimal totalAwardRate = strategyAwardEntities.stream()
-                .map(StrategyAwardEntity::getAwardRate)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-//        1. `reduce`是一个终端操作，用于将流中的元素聚合起来，产生单一的结果。
-//        2. 第一个参数`BigDecimal.ZERO`作为初始值，确保在流为空的情况下也能正常工作。
-//        3. 第二个参数`BigDecimal::add`是一个方法引用，表示使用`BigDecimal`类的`add`方法作为累加器函数。
-//        - 这意味着流中的每个元素都将被依次与累积结果相加。
-//        - 初始累积结果为`BigDecimal.ZERO`，之后每次迭代都会更新累积结果。
-//        reduce`操作最终返回流中所有`BigDecimal`元素的总和
-
-
-        // 4. 用总概率除以最小概率拿到概率的范围（百分位、千分位、万分位）
-        // 比如：用 1 / 0.0001 获得概率范围为10000，0.95 / 0.0001
-        BigDecimal rateRange ;
-        try{
-            rateRange = totalAwardRate.divide(minAwardRate, 0, RoundingMode.CEILING);
-        } catch(ArithmeticException e) {
-            log.info("除法运算错误：总概率 = {}，最小概率 = {}", totalAwardRate, minAwardRate, e);
-            throw e;
-        }
-//        divide：除法运算
-//        - 除数：`minAwardRate`。
-//        - 小数位数：`0`，意味着结果将是一个整数。
-//        - 四舍五入模式：`RoundingMode.CEILING`，表示结果将向上取整。floor：向下取整
-
-        // 5. 生成策略奖品概率查找表「这里指需要在list集合中，存放上对应的奖品占位即可，占位越多等于概率越高」这种方法允许通过简单地随机选择列表中的一个元素来实现概率权重的选择机制。
-        // 预定义一个查找表
-        List<Integer> strategyAwardSearchRateTables = new ArrayList<>(rateRange.intValue()); // bigDecimal方法，转为int类型
-        for (StrategyAwardEntity strategyAward : strategyAwardEntities) {
-            Integer awardId = strategyAward.getAwardId();
-            BigDecimal awardRate = strategyAward.getAwardRate();
-            // 计算出每个概率值需要存放到查找表的数量，循环填充
-            // 通过计算 rateRange 和 awardRate 的乘积来确定每个奖项在查找表中应该出现的次数。rateRange.multiply(awardRate) 返回一个 BigDecimal，
-            // 然后通过 setScale(0, RoundingMode.CEILING) 将其向上取整，并转换为 int 类型。这个值表示当前奖项 awardId 在查找表中应出现的次数。
-            // 随后，通过循环将 awardId 多次添加到 strategyAwardSearchRateTables 列表中。
-            for (int i = 0; i < rateRange.multiply(awardRate).setScale(0, RoundingMode.CEILING).intValue(); i++) {
-                strategyAwardSearchRateTables.add(awardId);
-            }
+    private void assembleLotteryStrategy(String key, List<StrategyAwardEntity> strategyAwardEntities, StrategyAlgorithmVO algorithm) {
+        // 奖品概率约分为整数权重，只计算一次，预算判断和装配共用
+        long[] awardWeights = AbstractAlgorithm.reduceAwardRates(strategyAwardEntities);
+        // 概率全为 0 时任何算法都装配不出数据；在分配版本之前失败，不切换版本指针，抽奖继续使用当前版本
+        if (Arrays.stream(awardWeights).allMatch(awardWeight -> 0 == awardWeight)) {
+            log.error("策略奖品概率总和为0，跳过装配 key:{}", key);
+            throw new AppException(ResponseCode.STRATEGY_AWARD_RATE_IS_ZERO.getCode(), ResponseCode.STRATEGY_AWARD_RATE_IS_ZERO.getInfo());
         }
-
-        // 6. 对存储的奖品进行乱序操作
-        Collections.shuffle(strategyAwardSearchRateTables);
-        // shuffle：对列表进行随机排列
-
-        // 7. 将查找表添加到 Map 中，并且将索引作为键，奖品 ID 作为值存储到 Map 中。
-        // 这样能够通过索引来获取对应的奖品 ID。
-        Map<Integer, Integer> shuffleStrategyAwardSearchRateTable = new LinkedHashMap<>();
-        for (int i = 0; i < strategyAwardSearchRateTables.size(); i++) {
-            shuffleStrategyAwardSearchRateTable.put(i, strategyAwardSearchRateTables.get(i));
+        // 概率精度过高时查找表会超出预算，改用分桶两级抽奖，保证装配耗时和内存可控
+        if (!algorithmGroup.get(algorithm).armoryWithinBudget(strategyAwardEntities, awardWeights)) {
+            log.warn("策略装配超出查找表预算，改用分桶算法 key:{} algorithm:{}", key, algorithm.getCode());
+            algorithm = StrategyAlgorithmVO.BUCKET;
         }
-
-        // 8. 将查找表存放到 Redis
-        repository.storeStrategyAwardSearchRateTable(key, shuffleStrategyAwardSearchRateTable.size(), shuffleStrategyAwardSearchRateTable);
-
+        // 新版本写入独立的版本键，全部写完后原子切换版本指针；抽奖方只会读到某一个完整版本，运行中调整概率不需要停流量
+        String armoryKey = repository.nextStrategyArmoryKey(key);
+        algorithmGroup.get(algorithm).armoryAlgorithm(armoryKey, strategyAwardEntities, awardWeights);
+        // 记录装配所用算法，抽奖时按算法分发
+        repository.storeStrategyAlgorithm(armoryKey, algorithm);
+        repository.switchStrategyArmoryKey(key, armoryKey);
     }
+
     @Override
     public Integer getRandomAwardId(Long strategyId) {
-        // 分布式部署下，不一定为当前应用做的策略装配。也就是值不一定会保存到本应用，而是分布式应用，所以需要从 Redis 中获取。
-        int rateRange = repository.getRateRange(strategyId);
-        // 通过生成的随机值，获取概率值奖品查找表的结果
-        return repository.getStrategyAwardAssemble(String.valueOf(strategyId), new SecureRandom().nextInt(rateRange));
+        return getRandomAwardId(String.valueOf(strategyId));
     }
 
     @Override
     public Integer getRandomAwardId(Long strategyId, String ruleWeightValue) {
         String key = String.valueOf(strategyId).concat("_").concat(ruleWeightValue);
+        return getRandomAwardId(key);
+    }
+
+    private Integer getRandomAwardId(String key) {
         // 分布式部署下，不一定为当前应用做的策略装配。也就是值不一定会保存到本应用，而是分布式应用，所以需要从 Redis 中获取。
-        int rateRange = repository.getRateRange(key);
-        // 通过生成的随机值，获取概率值奖品查找表的结果
-        return repository.getStrategyAwardAssemble(key, new SecureRandom().nextInt(rateRange));
+        String armoryKey = repository.queryStrategyArmoryKey(key);
+        StrategyAlgorithmVO algorithm = repository.queryStrategyAlgorithm(armoryKey);
+        return algorithmGroup.get(algorithm).dispatchAlgorithm(armoryKey, randomSource);
+    }
+
+    @Override
+    public List<Integer> getRandomAwardIds(Long strategyId, int count) {
+        return getRandomAwardIds(String.valueOf(strategyId), count);
+    }
+
+    @Override
+    public List<Integer> getRandomAwardIds(Long strategyId, String ruleWeightValue, int count) {
+        String key = String.valueOf(strategyId).concat("_").concat(ruleWeightValue);
+        return getRandomAwardIds(key, count);
+    }
+
+    private List<Integer> getRandomAwardIds(String key, int count) {
+        String armoryKey = repository.queryStrategyArmoryKey(key);
+        StrategyAlgorithmVO algorithm = repository.queryStrategyAlgorithm(armoryKey);
+        return algorithmGroup.get(algorithm).dispatchAlgorithm(armoryKey, randomSource, count);
     }
 
     /**
@@ -0,0 +1,69 @@
+package cn.gentlewind.domain.strategy.service.armory.algorithm;
+
+import cn.gentlewind.domain.strategy.model.entity.StrategyAwardEntity;
+import cn.gentlewind.domain.strategy.repository.IStrategyRepository;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.annotation.Resource;
+import java.util.List;
+
+/**
+ * 抽奖算法抽象类，提供仓储服务和查找表预算
+ */
+public abstract class AbstractAlgorithm implements IAlgorithm {
+
+    @Resource
+    protected IStrategyRepository repository;
+
+    // 单个策略（含每张权重子表）查找表的最大槽位数；超出时装配改用分桶算法
+    @Value("${big-market.strategy.armory.max-rate-table-size:1000000}")
+    protected int maxRateTableSize;
+
+    @Override
+    public boolean armoryWithinBudget(List<StrategyAwardEntity> strategyAwardEntities, long[] awardWeights) {
+        return armorySize(strategyAwardEntities, awardWeights) <= maxRateTableSize;
+    }
+
+    /**
+     * 装配后占用的槽位（元素）数量
+     */
+    protected abstract long armorySize(List<StrategyAwardEntity> strategyAwardEntities, long[] awardWeights);
+
+    /**
+     * 奖品概率按最大小数位放大为整数，再整体除以最大公约数，得到精确且最小的整数权重
+     * 如 0.3、0.2、0.05 -> 30、20、5 -> 6、4、1；不再对每个奖品向上取整，概率分布不会失真
+     * 每张查找表装配时由装配方计算一次，预算判断和各算法装配共用结果
+     *
+     * @param strategyAwardEntities 奖品列表
+     * @return 与奖品列表一一对应的整数权重；概率全为 0 时全部为 0
+     */
+    public static long[] reduceAwardRates(List<StrategyAwardEntity> strategyAwardEntities) {
+        int scale = 0;
+        for (StrategyAwardEntity strategyAward : strategyAwardEntities) {
+            scale = Math.max(scale, strategyAward.getAwardRate().stripTrailingZeros().scale());
+        }
+
+        long[] awardWeights = new long[strategyAwardEntities.size()];
+        long gcd = 0;
+        for (int i = 0; i < awardWeights.length; i++) {
+            awardWeights[i] = strategyAwardEntities.get(i).getAwardRate().movePointRight(scale).longValueExact();
+            gcd = gcd(gcd, awardWeights[i]);
+        }
+        if (0 == gcd) return awardWeights;
+
+        for (int i = 0; i < awardWeights.length; i++) {
+            awardWeights[i] /= gcd;
+        }
+        return awardWeights;
+    }
+
+    protected static long gcd(long a, long b) {
+        while (0 != b) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+}
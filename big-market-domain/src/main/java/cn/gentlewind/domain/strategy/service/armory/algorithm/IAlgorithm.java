@@ -0,0 +1,66 @@
+package cn.gentlewind.domain.strategy.service.armory.algorithm;
+
+import cn.gentlewind.domain.strategy.model.entity.StrategyAwardEntity;
+import cn.gentlewind.domain.strategy.model.vo.StrategyAlgorithmVO;
+import cn.gentlewind.domain.strategy.service.armory.random.IRandomSource;
+
+import java.util.List;
+
+/**
+ * 抽奖算法
+ *
+ * 装配：把策略奖品概率转换为算法所需的数据结构并存放到 Redis
+ * 调度：按装配结果随机出一个奖品ID
+ */
+public interface IAlgorithm {
+
+    /**
+     * 算法标识
+     */
+    StrategyAlgorithmVO algorithm();
+
+    /**
+     * 按当前算法装配后的规模是否在预算内；超出预算时由装配方改用分桶算法
+     *
+     * @param strategyAwardEntities 包含奖品和对应概率的实体列表
+     * @param awardWeights          约分后的整数权重，见 {@link AbstractAlgorithm#reduceAwardRates(List)}
+     * @return true 在预算内
+     */
+    boolean armoryWithinBudget(List<StrategyAwardEntity> strategyAwardEntities, long[] awardWeights);
+
+    /**
+     * 装配算法数据
+     *
+     * @param key                   策略标识；strategyId 或 strategyId_权重值
+     * @param strategyAwardEntities 包含奖品和对应概率的实体列表
+     * @param awardWeights          约分后的整数权重；由装配方计算一次，预算判断和装配共用
+     */
+    void armoryAlgorithm(String key, List<StrategyAwardEntity> strategyAwardEntities, long[] awardWeights);
+
+    /**
+     * 预热，把装配数据加载到本地缓存；不抽奖，不消耗随机源
+     *
+     * @param key 策略标识
+     */
+    void warmUpAlgorithm(String key);
+
+    /**
+     * 调度算法，也就是抽奖
+     *
+     * @param key          策略标识
+     * @param randomSource 随机源
+     * @return 奖品ID
+     */
+    Integer dispatchAlgorithm(String key, IRandomSource randomSource);
+
+    /**
+     * 批量调度，也就是多连抽；装配数据只读取一次
+     *
+     * @param key          策略标识
+     * @param randomSource 随机源
+     * @param count        抽奖次数
+     * @return 奖品ID，按抽奖顺序
+     */
+    List<Integer> dispatchAlgorithm(String key, IRandomSource randomSource, int count);
+
+}
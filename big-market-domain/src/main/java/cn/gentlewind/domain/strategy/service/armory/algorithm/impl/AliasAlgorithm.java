@@ -0,0 +1,128 @@
+package cn.gentlewind.domain.strategy.service.armory.algorithm.impl;
+
+import cn.gentlewind.domain.strategy.model.entity.StrategyAwardEntity;
+import cn.gentlewind.domain.strategy.model.vo.StrategyAlgorithmVO;
+import cn.gentlewind.domain.strategy.model.vo.StrategyAliasTableVO;
+import cn.gentlewind.domain.strategy.service.armory.algorithm.AbstractAlgorithm;
+import cn.gentlewind.domain.strategy.service.armory.random.IRandomSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 别名表算法（Vose Alias Method）
+ *
+ * 装配时把 N 个奖品的概率拆分到 N 列，每列最多由两个奖品组成（自身 + 别名），只需要存储 N 个概率值和 N 个别名下标。
+ * 抽奖时随机一列，再掷一次硬币决定取自身还是别名，O(1) 完成且与概率精度无关，适合带有超低概率奖品的策略。
+ */
+@Slf4j
+@Component
+public class AliasAlgorithm extends AbstractAlgorithm {
+
+    @Override
+    public StrategyAlgorithmVO algorithm() {
+        return StrategyAlgorithmVO.ALIAS;
+    }
+
+    @Override
+    public void armoryAlgorithm(String key, List<StrategyAwardEntity> strategyAwardEntities, long[] awardWeights) {
+        int n = strategyAwardEntities.size();
+        BigDecimal totalAwardRate = strategyAwardEntities.stream()
+                .map(StrategyAwardEntity::getAwardRate)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (0 == n || totalAwardRate.compareTo(BigDecimal.ZERO) == 0) {
+            log.info("策略奖品概率总和为0，跳过别名表装配 key:{}", key);
+            return;
+        }
+
+        // 1. 概率按总和归一化后乘以 N，平均值为 1；小于 1 的列需要别名补齐，大于 1 的列用于补齐别人
+        int[] awardIds = new int[n];
+        double[] scaled = new double[n];
+        BigDecimal columns = BigDecimal.valueOf(n);
+        for (int i = 0; i < n; i++) {
+            StrategyAwardEntity strategyAward = strategyAwardEntities.get(i);
+            awardIds[i] = strategyAward.getAwardId();
+            scaled[i] = strategyAward.getAwardRate().multiply(columns).divide(totalAwardRate, MathContext.DECIMAL64).doubleValue();
+        }
+
+        // 2. 小列、大列工作栈
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallSize = 0, largeSize = 0;
+        for (int i = 0; i < n; i++) {
+            if (scaled[i] < 1.0) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
+            }
+        }
+
+        // 3. 每次取一个小列，用一个大列补齐到 1，大列剩余部分重新归类
+        double[] probabilities = new double[n];
+        int[] aliases = new int[n];
+        while (smallSize > 0 && largeSize > 0) {
+            int less = small[--smallSize];
+            int more = large[--largeSize];
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallSize++] = more;
+            } else {
+                large[largeSize++] = more;
+            }
+        }
+        // 4. 剩余列只可能因浮点误差留下，概率视为 1
+        while (largeSize > 0) {
+            int more = large[--largeSize];
+            probabilities[more] = 1.0;
+            aliases[more] = more;
+        }
+        while (smallSize > 0) {
+            int less = small[--smallSize];
+            probabilities[less] = 1.0;
+            aliases[less] = less;
+        }
+
+        // 5. 存放到 Redis
+        repository.storeStrategyAwardAliasTable(key, StrategyAliasTableVO.builder()
+                .awardIds(awardIds)
+                .probabilities(probabilities)
+                .aliases(aliases)
+                .build());
+    }
+
+    /**
+     * 别名表只有 N 列，与概率精度无关
+     */
+    @Override
+    protected long armorySize(List<StrategyAwardEntity> strategyAwardEntities, long[] awardWeights) {
+        return strategyAwardEntities.size();
+    }
+
+    @Override
+    public void warmUpAlgorithm(String key) {
+        repository.getStrategyAwardAliasTable(key);
+    }
+
+    @Override
+    public Integer dispatchAlgorithm(String key, IRandomSource randomSource) {
+        StrategyAliasTableVO strategyAliasTableVO = repository.getStrategyAwardAliasTable(key);
+        return strategyAliasTableVO.sample(randomSource.nextInt(strategyAliasTableVO.size()), randomSource.nextDouble());
+    }
+
+    @Override
+    public List<Integer> dispatchAlgorithm(String key, IRandomSource randomSource, int count) {
+        StrategyAliasTableVO strategyAliasTableVO = repository.getStrategyAwardAliasTable(key);
+        List<Integer> awardIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            awardIds.add(strategyAliasTableVO.sample(randomSource.nextInt(strategyAliasTableVO.size()), randomSource.nextDouble()));
+        }
+        return awardIds;
+    }
+
+}
@@ -0,0 +1,164 @@
+package cn.gentlewind.domain.strategy.service.armory.algorithm.impl;
+
+import cn.gentlewind.domain.strategy.model.entity.StrategyAwardEntity;
+import cn.gentlewind.domain.strategy.model.vo.StrategyAlgorithmVO;
+import cn.gentlewind.domain.strategy.model.vo.StrategyBucketTableVO;
+import cn.gentlewind.domain.strategy.service.armory.algorithm.AbstractAlgorithm;
+import cn.gentlewind.domain.strategy.service.armory.random.IRandomSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 分桶两级抽奖算法
+ *
+ * 概率精度很高时（如 0.000001），概率查找表需要百万级以上槽位，装配慢且占用大量内存。
+ * 这里按整数权重的数量级（十进制位数）分桶：第一级按桶的精确权重抽桶，第二级在桶内查找表随机一个槽位。
+ * 同一数量级内权重相差不足 10 倍，桶内查找表在预算内即可表达；超出预算时按最大余数法量化，每个奖品至少保留 1 个槽位。
+ */
+@Slf4j
+@Component
+public class BucketAlgorithm extends AbstractAlgorithm {
+
+    @Override
+    public StrategyAlgorithmVO algorithm() {
+        return StrategyAlgorithmVO.BUCKET;
+    }
+
+    @Override
+    public void armoryAlgorithm(String key, List<StrategyAwardEntity> strategyAwardEntities, long[] awardWeights) {
+        // 1. 按整数权重数量级分桶；权重大的桶在前，抽桶时顺序查找更快命中
+        Map<Integer, List<Integer>> decadeBuckets = new TreeMap<>(Collections.reverseOrder());
+        for (int i = 0; i < awardWeights.length; i++) {
+            if (0 == awardWeights[i]) continue;
+            int decade = Long.toString(awardWeights[i]).length();
+            decadeBuckets.computeIfAbsent(decade, k -> new ArrayList<>()).add(i);
+        }
+        if (decadeBuckets.isEmpty()) {
+            log.info("策略奖品概率总和为0，跳过分桶表装配 key:{}", key);
+            return;
+        }
+
+        // 2. 逐桶生成查找表，桶权重取精确权重之和
+        int bucketBudget = Math.max(1, maxRateTableSize / decadeBuckets.size());
+        long[] bucketWeights = new long[decadeBuckets.size()];
+        int[][] bucketTables = new int[decadeBuckets.size()][];
+        long cumulativeWeight = 0;
+        int bucket = 0;
+        for (List<Integer> awardIndexes : decadeBuckets.values()) {
+            long[] weights = new long[awardIndexes.size()];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = awardWeights[awardIndexes.get(i)];
+            }
+            long bucketWeight = sum(weights);
+            long[] slotCounts = bucketSlotCounts(weights, bucketWeight, bucketBudget);
+
+            int[] bucketTable = new int[Math.toIntExact(sum(slotCounts))];
+            int slot = 0;
+            for (int i = 0; i < slotCounts.length; i++) {
+                int awardId = strategyAwardEntities.get(awardIndexes.get(i)).getAwardId();
+                for (int j = 0; j < slotCounts[i]; j++) {
+                    bucketTable[slot++] = awardId;
+                }
+            }
+
+            cumulativeWeight = Math.addExact(cumulativeWeight, bucketWeight);
+            bucketWeights[bucket] = cumulativeWeight;
+            bucketTables[bucket] = bucketTable;
+            bucket++;
+        }
+
+        // 3. 存放到 Redis
+        repository.storeStrategyAwardBucketTable(key, StrategyBucketTableVO.builder()
+                .bucketWeights(bucketWeights)
+                .bucketTables(bucketTables)
+                .build());
+    }
+
+    /**
+     * 桶内槽位数量；先按桶内最大公约数约分，仍超出预算时按最大余数法量化到预算大小
+     */
+    private long[] bucketSlotCounts(long[] weights, long bucketWeight, int bucketBudget) {
+        long gcd = 0;
+        for (long weight : weights) {
+            gcd = gcd(gcd, weight);
+        }
+        long[] slotCounts = new long[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            slotCounts[i] = weights[i] / gcd;
+        }
+        if (bucketWeight / gcd <= bucketBudget) return slotCounts;
+
+        BigInteger total = BigInteger.valueOf(bucketWeight);
+        BigInteger budget = BigInteger.valueOf(bucketBudget);
+        long[] remainders = new long[weights.length];
+        long assigned = 0;
+        for (int i = 0; i < weights.length; i++) {
+            BigInteger[] quota = BigInteger.valueOf(weights[i]).multiply(budget).divideAndRemainder(total);
+            slotCounts[i] = Math.max(1, quota[0].longValue());
+            remainders[i] = quota[1].longValue();
+            assigned += slotCounts[i];
+        }
+        // 余下的槽位依次分给余数最大的奖品
+        for (long remaining = bucketBudget - assigned; remaining > 0; remaining--) {
+            int max = 0;
+            for (int i = 1; i < remainders.length; i++) {
+                if (remainders[i] > remainders[max]) max = i;
+            }
+            slotCounts[max]++;
+            remainders[max] = -1;
+        }
+        return slotCounts;
+    }
+
+    private static long sum(long[] values) {
+        long total = 0;
+        for (long value : values) {
+            total = Math.addExact(total, value);
+        }
+        return total;
+    }
+
+    /**
+     * 分桶表大小由预算约束，不会超出
+     */
+    @Override
+    public boolean armoryWithinBudget(List<StrategyAwardEntity> strategyAwardEntities, long[] awardWeights) {
+        return true;
+    }
+
+    @Override
+    protected long armorySize(List<StrategyAwardEntity> strategyAwardEntities, long[] awardWeights) {
+        return maxRateTableSize;
+    }
+
+    @Override
+    public void warmUpAlgorithm(String key) {
+        repository.getStrategyAwardBucketTable(key);
+    }
+
+    @Override
+    public Integer dispatchAlgorithm(String key, IRandomSource randomSource) {
+        StrategyBucketTableVO strategyBucketTableVO = repository.getStrategyAwardBucketTable(key);
+        int bucket = strategyBucketTableVO.bucket(randomSource.nextLong(strategyBucketTableVO.total()));
+        return strategyBucketTableVO.sample(bucket, randomSource.nextInt(strategyBucketTableVO.bucketSize(bucket)));
+    }
+
+    @Override
+    public List<Integer> dispatchAlgorithm(String key, IRandomSource randomSource, int count) {
+        StrategyBucketTableVO strategyBucketTableVO = repository.getStrategyAwardBucketTable(key);
+        List<Integer> awardIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int bucket = strategyBucketTableVO.bucket(randomSource.nextLong(strategyBucketTableVO.total()));
+            awardIds.add(strategyBucketTableVO.sample(bucket, randomSource.nextInt(strategyBucketTableVO.bucketSize(bucket))));
+        }
+        return awardIds;
+    }
+
+}
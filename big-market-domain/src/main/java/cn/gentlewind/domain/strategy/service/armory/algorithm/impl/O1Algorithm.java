@@ -0,0 +1,115 @@
+package cn.gentlewind.domain.strategy.service.armory.algorithm.impl;
+
+import cn.gentlewind.domain.strategy.model.entity.StrategyAwardEntity;
+import cn.gentlewind.domain.strategy.model.vo.StrategyAlgorithmVO;
+import cn.gentlewind.domain.strategy.service.armory.algorithm.AbstractAlgorithm;
+import cn.gentlewind.domain.strategy.service.armory.random.IRandomSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 概率查找表算法
+ *
+ * 每个奖品按概率占据对应数量的槽位，抽奖时随机一个槽位即可。
+ * 槽位数由概率的整数权重经最大公约数约分得到，查找表大小取决于概率精度，如 0.0001 的奖品需要 10000 个槽位；
+ * 超出 maxRateTableSize 预算时由装配方改用分桶算法。
+ */
+@Slf4j
+@Component
+public class O1Algorithm extends AbstractAlgorithm {
+
+    @Override
+    public StrategyAlgorithmVO algorithm() {
+        return StrategyAlgorithmVO.O1;
+    }
+
+    /**
+     * 根据策略和权值装配抽奖策略
+     *
+     * 用于上面的方法进行重新装配，根据不同的策略和权重配置，生成并存储不同的抽奖策略查找表
+     * @param key                   策略标识符字符串
+     * @param strategyAwardEntities 包含奖品和对应概率的实体列表
+     * @param awardSlotCounts       约分后的整数权重，即每个奖品的槽位数
+     */
+    @Override
+    public void armoryAlgorithm(String key, List<StrategyAwardEntity> strategyAwardEntities, long[] awardSlotCounts) {
+        // 1. 每个奖品在查找表中的槽位数量即约分后的整数权重，查找表大小为各奖品槽位数之和
+        // 比如：0.3、0.2、0.2、0.1、0.1、0.05、0.04、0.0099、0.0001 -> 3000、2000、...、99、1，共 10000 个槽位
+        int tableSize = Math.toIntExact(sum(awardSlotCounts));
+        if (0 == tableSize) {
+            log.info("最小概率为0");
+            return;
+        }
+
+        // 2. 生成策略奖品概率查找表「存放上对应的奖品占位即可，占位越多等于概率越高」直接填充 int[]，避免装箱的 List 和 Map
+        int[] strategyAwardSearchRateTable = new int[tableSize];
+        int slot = 0;
+        for (int i = 0; i < strategyAwardEntities.size(); i++) {
+            int awardId = strategyAwardEntities.get(i).getAwardId();
+            for (int j = 0; j < awardSlotCounts[i]; j++) {
+                strategyAwardSearchRateTable[slot++] = awardId;
+            }
+        }
+
+        // 3. 对存储的奖品进行乱序操作；Fisher-Yates 原地洗牌，不产生额外的数组
+        SecureRandom secureRandom = new SecureRandom();
+        for (int i = strategyAwardSearchRateTable.length - 1; i > 0; i--) {
+            int j = secureRandom.nextInt(i + 1);
+            int awardId = strategyAwardSearchRateTable[i];
+            strategyAwardSearchRateTable[i] = strategyAwardSearchRateTable[j];
+            strategyAwardSearchRateTable[j] = awardId;
+        }
+
+        // 4. 将查找表存放到 Redis，下标即 rateKey
+        repository.storeStrategyAwardSearchRateTable(key, strategyAwardSearchRateTable);
+    }
+
+    @Override
+    protected long armorySize(List<StrategyAwardEntity> strategyAwardEntities, long[] awardWeights) {
+        return sum(awardWeights);
+    }
+
+    private static long sum(long[] awardSlotCounts) {
+        long total = 0;
+        for (long awardSlotCount : awardSlotCounts) {
+            total = Math.addExact(total, awardSlotCount);
+        }
+        return total;
+    }
+
+    @Override
+    public void warmUpAlgorithm(String key) {
+        repository.getRateRange(key);
+        // 超过本地缓存上限的查找表，按固定下标读取一个槽位，加载头部
+        repository.getStrategyAwardAssemble(key, 0);
+    }
+
+    @Override
+    public Integer dispatchAlgorithm(String key, IRandomSource randomSource) {
+        // 分布式部署下，不一定为当前应用做的策略装配。也就是值不一定会保存到本应用，而是分布式应用，所以需要从 Redis 中获取。
+        int rateRange = repository.getRateRange(key);
+        // 通过生成的随机值，获取概率值奖品查找表的结果
+        return repository.getStrategyAwardAssemble(key, randomSource.nextInt(rateRange));
+    }
+
+    @Override
+    public List<Integer> dispatchAlgorithm(String key, IRandomSource randomSource, int count) {
+        int rateRange = repository.getRateRange(key);
+        int[] rateKeys = new int[count];
+        for (int i = 0; i < count; i++) {
+            rateKeys[i] = randomSource.nextInt(rateRange);
+        }
+        // 一次读取全部槽位
+        int[] awardIds = repository.getStrategyAwardAssemble(key, rateKeys);
+        List<Integer> result = new ArrayList<>(count);
+        for (int awardId : awardIds) {
+            result.add(awardId);
+        }
+        return result;
+    }
+
+}
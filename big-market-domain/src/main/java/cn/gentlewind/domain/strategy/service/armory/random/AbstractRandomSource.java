@@ -0,0 +1,42 @@
+package cn.gentlewind.domain.strategy.service.armory.random;
+
+/**
+ * 抽奖随机源抽象类
+ *
+ * 子类只需提供 32 位随机数 next()，有界取值按 java.util.Random 的拒绝采样实现，消除取模偏差。
+ */
+public abstract class AbstractRandomSource implements IRandomSource {
+
+    /**
+     * 32 位均匀分布的随机数
+     */
+    protected abstract int next();
+
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) throw new IllegalArgumentException("bound must be positive: " + bound);
+        int bits, value;
+        do {
+            bits = next() >>> 1;
+            value = bits % bound;
+        } while (bits - value + (bound - 1) < 0);
+        return value;
+    }
+
+    @Override
+    public long nextLong(long bound) {
+        if (bound <= 0) throw new IllegalArgumentException("bound must be positive: " + bound);
+        long bits, value;
+        do {
+            bits = (((long) next() << 32) + next()) >>> 1;
+            value = bits % bound;
+        } while (bits - value + (bound - 1) < 0);
+        return value;
+    }
+
+    @Override
+    public double nextDouble() {
+        return (((long) (next() >>> 6) << 27) + (next() >>> 5)) * 0x1.0p-53;
+    }
+
+}
@@ -0,0 +1,32 @@
+package cn.gentlewind.domain.strategy.service.armory.random;
+
+import cn.gentlewind.domain.strategy.model.vo.StrategyRandomVO;
+
+/**
+ * 抽奖随机源接口；实现需要线程安全
+ */
+public interface IRandomSource {
+
+    /**
+     * 随机源标识
+     */
+    StrategyRandomVO random();
+
+    /**
+     * @param bound 上界（不含），必须大于 0
+     * @return [0, bound) 内均匀分布的随机值
+     */
+    int nextInt(int bound);
+
+    /**
+     * @param bound 上界（不含），必须大于 0
+     * @return [0, bound) 内均匀分布的随机值
+     */
+    long nextLong(long bound);
+
+    /**
+     * @return [0, 1) 内均匀分布的随机值
+     */
+    double nextDouble();
+
+}
@@ -0,0 +1,99 @@
+package cn.gentlewind.domain.strategy.service.armory.random.impl;
+
+import cn.gentlewind.domain.strategy.model.vo.StrategyRandomVO;
+import cn.gentlewind.domain.strategy.service.armory.random.AbstractRandomSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 预生成缓冲随机源
+ *
+ * 后台线程用 SecureRandom 批量生成随机数块放入有界队列，队列满时阻塞等待；抽奖线程每次取走一整块，
+ * 块内随机数只由该线程读取，抽奖路径上只有数组读取，没有锁竞争和熵池访问。
+ * 队列被取空时抽奖线程自行生成一块，不会等待后台线程。后台线程在首次抽奖时启动，未选用该随机源时不占用线程。
+ */
+@Slf4j
+@Component
+public class BufferedRandomSource extends AbstractRandomSource {
+
+    // 每块随机数个数
+    private static final int BLOCK_SIZE = 4096;
+    // 缓冲队列块数；64 块共 1MB
+    private static final int BUFFER_BLOCKS = 64;
+
+    private final BlockingQueue<int[]> buffer = new ArrayBlockingQueue<>(BUFFER_BLOCKS);
+    private final ThreadLocal<Block> currentBlock = ThreadLocal.withInitial(Block::new);
+    private final ThreadLocal<SecureRandom> fallbackRandom = ThreadLocal.withInitial(SecureRandom::new);
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private volatile Thread refillThread;
+
+    @Override
+    public StrategyRandomVO random() {
+        return StrategyRandomVO.BUFFERED;
+    }
+
+    @Override
+    protected int next() {
+        Block block = currentBlock.get();
+        if (block.position == block.values.length) {
+            block.values = takeBlock();
+            block.position = 0;
+        }
+        return block.values[block.position++];
+    }
+
+    private int[] takeBlock() {
+        if (started.compareAndSet(false, true)) {
+            startRefill();
+        }
+        int[] values = buffer.poll();
+        return null != values ? values : generateBlock(fallbackRandom.get());
+    }
+
+    private void startRefill() {
+        Thread thread = new Thread(() -> {
+            SecureRandom secureRandom = new SecureRandom();
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    buffer.put(generateBlock(secureRandom));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "raffle-random-refill");
+        thread.setDaemon(true);
+        thread.start();
+        refillThread = thread;
+        log.info("抽奖随机数缓冲后台线程已启动 blockSize:{} bufferBlocks:{}", BLOCK_SIZE, BUFFER_BLOCKS);
+    }
+
+    private static int[] generateBlock(SecureRandom secureRandom) {
+        byte[] bytes = new byte[BLOCK_SIZE * 4];
+        secureRandom.nextBytes(bytes);
+        int[] values = new int[BLOCK_SIZE];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(values);
+        return values;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        Thread thread = refillThread;
+        if (null != thread) thread.interrupt();
+    }
+
+    /**
+     * 线程当前持有的随机数块；初始为空块，首次读取时取块
+     */
+    private static class Block {
+        private int[] values = new int[0];
+        private int position;
+    }
+
+}
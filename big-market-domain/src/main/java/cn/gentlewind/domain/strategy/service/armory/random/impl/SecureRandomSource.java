@@ -0,0 +1,40 @@
+package cn.gentlewind.domain.strategy.service.armory.random.impl;
+
+import cn.gentlewind.domain.strategy.model.vo.StrategyRandomVO;
+import cn.gentlewind.domain.strategy.service.armory.random.AbstractRandomSource;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+
+/**
+ * 线程级 SecureRandom 随机源
+ *
+ * SecureRandom 的 next 方法是同步的，所有线程共用一个实例会互相阻塞；每次抽奖新建实例又有创建和熵池开销。
+ * 这里每个线程首次使用时创建一个实例并一直复用。
+ */
+@Component
+public class SecureRandomSource extends AbstractRandomSource {
+
+    private final ThreadLocal<SecureRandom> secureRandomPool = ThreadLocal.withInitial(SecureRandom::new);
+
+    @Override
+    public StrategyRandomVO random() {
+        return StrategyRandomVO.SECURE;
+    }
+
+    @Override
+    protected int next() {
+        return secureRandomPool.get().nextInt();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return secureRandomPool.get().nextInt(bound);
+    }
+
+    @Override
+    public double nextDouble() {
+        return secureRandomPool.get().nextDouble();
+    }
+
+}
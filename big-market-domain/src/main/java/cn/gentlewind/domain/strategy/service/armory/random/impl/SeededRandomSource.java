@@ -0,0 +1,57 @@
+package cn.gentlewind.domain.strategy.service.armory.random.impl;
+
+import cn.gentlewind.domain.strategy.model.vo.StrategyRandomVO;
+import cn.gentlewind.domain.strategy.service.armory.random.AbstractRandomSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.SplittableRandom;
+
+/**
+ * 固定种子随机源
+ *
+ * 所有线程共用一个以固定种子创建的序列，按调用顺序依次取值；同一种子、同一装配数据下，抽奖结果序列完全一致，
+ * 用于审计时重放抽奖过程。序列有全局同步，吞吐不高，不可用于生产抽奖。
+ * 重放的前提是抽奖按固定顺序串行发生：并发抽奖时各线程取到的是序列中的哪一段取决于线程调度，结果集合可重现，
+ * 但每个用户拿到的结果不能按请求顺序重放；审计重放需要单线程按原顺序逐次抽奖。
+ */
+@Slf4j
+@Component
+public class SeededRandomSource extends AbstractRandomSource {
+
+    private SplittableRandom splittableRandom;
+    // 当前种子下已产生的随机数个数，审计时用于核对重放位置
+    private long sequence;
+
+    public SeededRandomSource(@Value("${big-market.strategy.random.seed:0}") long seed) {
+        reseed(seed);
+    }
+
+    @Override
+    public StrategyRandomVO random() {
+        return StrategyRandomVO.SEEDED;
+    }
+
+    /**
+     * 重置种子，从序列开头重放
+     *
+     * @param seed 种子
+     */
+    public synchronized void reseed(long seed) {
+        this.splittableRandom = new SplittableRandom(seed);
+        this.sequence = 0;
+        log.info("抽奖随机源重置种子 seed:{}", seed);
+    }
+
+    public synchronized long sequence() {
+        return sequence;
+    }
+
+    @Override
+    protected synchronized int next() {
+        sequence++;
+        return splittableRandom.nextInt();
+    }
+
+}
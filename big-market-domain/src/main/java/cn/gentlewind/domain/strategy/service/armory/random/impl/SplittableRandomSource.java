@@ -0,0 +1,51 @@
+package cn.gentlewind.domain.strategy.service.armory.random.impl;
+
+import cn.gentlewind.domain.strategy.model.vo.StrategyRandomVO;
+import cn.gentlewind.domain.strategy.service.armory.random.AbstractRandomSource;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+
+/**
+ * SplittableRandom 随机源
+ *
+ * SplittableRandom 不是线程安全的，每个线程首次使用时从根实例拆分出独立实例，之后无任何同步。
+ * 根实例以 SecureRandom 生成的种子创建，不同节点、不同进程的序列互不相同。
+ */
+@Component
+public class SplittableRandomSource extends AbstractRandomSource {
+
+    private final SplittableRandom root = new SplittableRandom(new SecureRandom().nextLong());
+    private final ThreadLocal<SplittableRandom> splittableRandomPool = ThreadLocal.withInitial(this::split);
+
+    @Override
+    public StrategyRandomVO random() {
+        return StrategyRandomVO.SPLITTABLE;
+    }
+
+    private synchronized SplittableRandom split() {
+        return root.split();
+    }
+
+    @Override
+    protected int next() {
+        return splittableRandomPool.get().nextInt();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return splittableRandomPool.get().nextInt(bound);
+    }
+
+    @Override
+    public long nextLong(long bound) {
+        return splittableRandomPool.get().nextLong(bound);
+    }
+
+    @Override
+    public double nextDouble() {
+        return splittableRandomPool.get().nextDouble();
+    }
+
+}
@@ -0,0 +1,36 @@
+package cn.gentlewind.domain.strategy.service.blacklist;
+
+import java.util.Collection;
+
+/**
+ * 策略黑名单维护；运营操作入口，抽奖流程不调用
+ *
+ * 日常增删走增量接口：写库、写 Redis 后广播，各节点把用户加入本地布隆过滤器，不需要重新装配。
+ * 查找表装配、重新装配不会重写黑名单，名单全量重建只通过这里触发
+ */
+public interface IStrategyBlacklist {
+
+    /**
+     * 全量重新装配策略黑名单；从 strategy_blacklist 表流式写入 Redis，各节点随后在后台重建本地布隆过滤器
+     *
+     * @param strategyId 策略ID
+     */
+    void reassembleStrategyBlacklist(Long strategyId);
+
+    /**
+     * 增量加入黑名单
+     *
+     * @param strategyId 策略ID
+     * @param userIds    用户ID
+     */
+    void addStrategyBlacklist(Long strategyId, Collection<String> userIds);
+
+    /**
+     * 增量移出黑名单
+     *
+     * @param strategyId 策略ID
+     * @param userIds    用户ID
+     */
+    void removeStrategyBlacklist(Long strategyId, Collection<String> userIds);
+
+}
@@ -0,0 +1,54 @@
+package cn.gentlewind.domain.strategy.service.blacklist;
+
+import cn.gentlewind.domain.strategy.model.entity.StrategyEntity;
+import cn.gentlewind.domain.strategy.repository.IStrategyRepository;
+import cn.gentlewind.domain.strategy.service.rule.factory.DefaultLogicFactory;
+import cn.gentlewind.types.enums.ResponseCode;
+import cn.gentlewind.types.exception.AppException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.util.Collection;
+
+/**
+ * 策略黑名单维护；只处理配置了 rule_blacklist 的策略
+ */
+@Slf4j
+@Service
+public class StrategyBlacklistService implements IStrategyBlacklist {
+
+    @Resource
+    private IStrategyRepository repository;
+
+    @Override
+    public void reassembleStrategyBlacklist(Long strategyId) {
+        checkBlacklistStrategy(strategyId);
+        repository.assembleStrategyBlacklist(strategyId, true);
+    }
+
+    @Override
+    public void addStrategyBlacklist(Long strategyId, Collection<String> userIds) {
+        if (null == userIds || userIds.isEmpty()) return;
+        checkBlacklistStrategy(strategyId);
+        repository.addStrategyBlacklist(strategyId, userIds);
+    }
+
+    @Override
+    public void removeStrategyBlacklist(Long strategyId, Collection<String> userIds) {
+        if (null == userIds || userIds.isEmpty()) return;
+        checkBlacklistStrategy(strategyId);
+        repository.removeStrategyBlacklist(strategyId, userIds);
+    }
+
+    private void checkBlacklistStrategy(Long strategyId) {
+        StrategyEntity strategyEntity = repository.queryStrategyEntityByStrategyId(strategyId);
+        if (null == strategyEntity) {
+            throw new AppException(ResponseCode.STRATEGY_NOT_EXIST.getCode(), ResponseCode.STRATEGY_NOT_EXIST.getInfo());
+        }
+        if (!strategyEntity.hasRuleModel(DefaultLogicFactory.LogicModel.RULE_BLACKLIST.getCode())) {
+            throw new AppException(ResponseCode.ILLEGAL_PARAMETER.getCode(), ResponseCode.ILLEGAL_PARAMETER.getInfo());
+        }
+    }
+
+}
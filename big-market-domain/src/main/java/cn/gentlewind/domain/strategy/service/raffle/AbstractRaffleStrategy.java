@@ -5,7 +5,7 @@ import cn.gentlewind.domain.strategy.model.entity.RaffleFactorEntity;
 import cn.gentlewind.domain.strategy.model.entity.RuleActionEntity;
 import cn.gentlewind.domain.strategy.model.entity.StrategyEntity;
 import cn.gentlewind.domain.strategy.model.vo.RuleLogicCheckTypeVO;
-import cn.gentlewind.domain.strategy.model.vo.StrategyAwardRuleModelVO;
+import cn.gentlewind.domain.strategy.model.vo.StrategyAwardRuleModelIndexVO;
 import cn.gentlewind.domain.strategy.repository.IStrategyRepository;
 import cn.gentlewind.domain.strategy.service.IRaffleStrategy;
 import cn.gentlewind.domain.strategy.service.armory.IStrategyDispatch;
@@ -14,6 +14,9 @@ import cn.gentlewind.types.enums.ResponseCode;
 import cn.gentlewind.types.exception.AppException;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.*;
 
 
 /**
@@ -29,6 +32,9 @@ public abstract class AbstractRaffleStrategy implements IRaffleStrategy {
     protected IStrategyRepository repository;
     // 策略调度服务 -> 只负责抽奖处理，通过新增接口的方式，隔离职责，不需要使用方关心或者调用抽奖的初始化
     protected IStrategyDispatch strategyDispatch;
+    // 多连抽单次请求的最大抽奖次数；超过的请求在访问 Redis 和数据库之前拒绝
+    @Value("${big-market.strategy.raffle.max-count:100}")
+    protected int maxRaffleCount;
 
     // 构造函数
     public AbstractRaffleStrategy(IStrategyRepository repository, IStrategyDispatch strategyDispatch) {
@@ -39,35 +45,57 @@ public abstract class AbstractRaffleStrategy implements IRaffleStrategy {
     /**
      * 定义了一个模板方法performRaffle，它包含了抽奖过程的基本步骤
      *
+     * 抽奖结果（含兜底奖品）在抽奖线程中同步得出；记录写入、统计、通知交给抽奖后处理异步执行，不计入抽奖耗时
+     *
      * @param raffleFactorEntity 抽奖因子实体对象，根据入参信息计算抽奖结果，包含用户id和策略id
      * @return
      */
     @Override
     public RaffleAwardEntity performRaffle(RaffleFactorEntity raffleFactorEntity) {
+        RaffleAwardEntity raffleAwardEntity = raffle(raffleFactorEntity);
+        this.doRaffleAfterAsync(raffleFactorEntity, Collections.singletonList(raffleAwardEntity));
+        return raffleAwardEntity;
+    }
+
+    private RaffleAwardEntity raffle(RaffleFactorEntity raffleFactorEntity) {
         // 1. 参数校验
         String userId = raffleFactorEntity.getUserId();
         Long strategyId = raffleFactorEntity.getStrategyId();
         if (null == strategyId || StringUtils.isBlank(userId)) {
             throw new AppException(ResponseCode.ILLEGAL_PARAMETER.getCode(), ResponseCode.ILLEGAL_PARAMETER.getInfo());
         }
+        // 不存在的策略ID在访问 Redis 和数据库之前拒绝
+        if (!repository.isStrategyExist(strategyId)) {
+            throw new AppException(ResponseCode.STRATEGY_NOT_EXIST.getCode(), ResponseCode.STRATEGY_NOT_EXIST.getInfo());
+        }
 
         // 2. 查询抽奖策略4000,5000,6000
         StrategyEntity strategy = repository.queryStrategyEntityByStrategyId(strategyId);
+        if (null == strategy) {
+            throw new AppException(ResponseCode.STRATEGY_NOT_EXIST.getCode(), ResponseCode.STRATEGY_NOT_EXIST.getInfo());
+        }
 
         // 3. 抽奖前 - 规则过滤
         // 拿到规则过滤的规则，即用户id，策略id，奖品id
         RuleActionEntity<RuleActionEntity.RaffleBeforeEntity> ruleActionEntity = this
-                .doCheckRaffleBeforeLogic(RaffleFactorEntity.builder().userId(userId).strategyId(strategyId).build(), strategy.ruleModels());
+                .doCheckRaffleBeforeLogic(RaffleFactorEntity.builder().userId(userId).strategyId(strategyId).build(), strategy);
 
         //  ruleActionEntity 的 code 属性是否表示需要规则引擎接管后续流程。如果相等，则执行特定的逻辑，否则继续按照默认流程进行
         if (RuleLogicCheckTypeVO.TAKE_OVER.getCode().equals(ruleActionEntity.getCode())) {
 
             if (DefaultLogicFactory.LogicModel.RULE_BLACKLIST.getCode().equals(ruleActionEntity.getRuleModel())) {
-                // 黑名单返回固定的奖品ID
+                // 黑名单返回固定的奖品ID，不计入抽奖次数
                 return RaffleAwardEntity.builder()
                         .awardId(ruleActionEntity.getData().getAwardId())
                         .build();
-            } else if (DefaultLogicFactory.LogicModel.RULE_WIGHT.getCode().equals(ruleActionEntity.getRuleModel())) {
+            }
+        }
+
+        // 累加用户在该策略下的抽奖次数；放在抽奖前规则之后，被黑名单接管的抽奖不计数
+        long raffleCount = repository.incrUserRaffleCount(strategyId, userId, 1);
+
+        if (RuleLogicCheckTypeVO.TAKE_OVER.getCode().equals(ruleActionEntity.getCode())) {
+            if (DefaultLogicFactory.LogicModel.RULE_WIGHT.getCode().equals(ruleActionEntity.getRuleModel())) {
                 // 权重根据返回的信息进行抽奖
                 RuleActionEntity.RaffleBeforeEntity raffleBeforeEntity = ruleActionEntity.getData();
                 String ruleWeightValueKey = raffleBeforeEntity.getRuleWeightValueKey();
@@ -82,20 +110,26 @@ public abstract class AbstractRaffleStrategy implements IRaffleStrategy {
         Integer awardId = strategyDispatch.getRandomAwardId(strategyId);
 
         // 5. 查询奖品规则：抽奖中（拿到奖品ID时，过滤规则）、抽奖后（扣减完奖品库存后过滤，抽奖中拦截和无库存则走兜底）
-        StrategyAwardRuleModelVO strategyAwardRuleModelVO = repository.queryStrategyAwardRuleModelVO(strategyId, awardId);
+        // 规则在装配时已按奖品预先解析，未配置抽奖中规则的奖品直接返回
+        StrategyAwardRuleModelIndexVO strategyAwardRuleModelIndexVO = repository.queryStrategyAwardRuleModelIndex(strategyId);
+        String[] raffleCenterRuleModels = strategyAwardRuleModelIndexVO.raffleCenterRuleModelList(awardId);
+        if (0 == raffleCenterRuleModels.length) {
+            return RaffleAwardEntity.builder()
+                    .awardId(awardId)
+                    .build();
+        }
 
-        // 6. 抽奖中-规则过滤
+        // 6. 抽奖中-规则过滤，次数锁按累加后的次数校验
         RuleActionEntity<RuleActionEntity.RaffleCenterEntity> ruleActionCenterEntity = this.doCheckRaffleCenterLogic(RaffleFactorEntity.builder()
                 .userId(userId)
                 .strategyId(strategyId)
                 .awardId(awardId)
-                .build(), strategyAwardRuleModelVO.raffleCenterRuleModelList());
+                .raffleCount(raffleCount)
+                .build(), raffleCenterRuleModels);
 
+        // 7. 抽奖后 - 抽奖中规则拦截时，按奖品的抽奖后规则发放兜底奖品
         if(RuleLogicCheckTypeVO.TAKE_OVER.getCode().equals(ruleActionCenterEntity.getCode())){
-            log.info("【临时日志】中奖中规则拦截，通过抽奖后规则rule_luck_award 走兜底奖励。");
-            return RaffleAwardEntity. builder()
-                    .awardDesc("中奖中规则拦截，通过抽奖后规则rule_luck_award 走兜底奖励。")
-                    .build();
+            return raffleLuckAward(userId, strategyId, awardId, strategyAwardRuleModelIndexVO.raffleAfterRuleModelList(awardId));
         }
 
 
@@ -104,10 +138,140 @@ public abstract class AbstractRaffleStrategy implements IRaffleStrategy {
                 .build();
     }
 
-    // 定义了一个抽象方法doCheckRaffleBeforeLogic，它由子类实现，用于实现抽奖前的规则过滤
-    protected abstract RuleActionEntity<RuleActionEntity.RaffleBeforeEntity> doCheckRaffleBeforeLogic(RaffleFactorEntity raffleFactorEntity, String... logics);
+    /**
+     * 多连抽
+     *
+     * 与单次抽奖流程一致，区别在于：
+     * 1. 策略查询和抽奖前规则只执行一次，整批抽奖共用结果
+     * 2. N 次随机一次取出，查找表和算法标识只读取一次
+     * 3. 奖品规则取自装配时预先解析的索引；第 i 次抽奖的抽奖中规则按这一次对应的累计次数过滤，与逐次单抽结果一致
+     *
+     * @param raffleFactorEntity 抽奖因子实体对象
+     * @param count              抽奖次数
+     * @return 抽奖的奖品，按抽奖顺序
+     */
+    @Override
+    public List<RaffleAwardEntity> performRaffle(RaffleFactorEntity raffleFactorEntity, int count) {
+        List<RaffleAwardEntity> raffleAwardEntities = raffle(raffleFactorEntity, count);
+        this.doRaffleAfterAsync(raffleFactorEntity, raffleAwardEntities);
+        return raffleAwardEntities;
+    }
+
+    private List<RaffleAwardEntity> raffle(RaffleFactorEntity raffleFactorEntity, int count) {
+        // 1. 参数校验
+        String userId = raffleFactorEntity.getUserId();
+        Long strategyId = raffleFactorEntity.getStrategyId();
+        if (null == strategyId || StringUtils.isBlank(userId) || count <= 0 || count > maxRaffleCount) {
+            throw new AppException(ResponseCode.ILLEGAL_PARAMETER.getCode(), ResponseCode.ILLEGAL_PARAMETER.getInfo());
+        }
+        // 不存在的策略ID在访问 Redis 和数据库之前拒绝
+        if (!repository.isStrategyExist(strategyId)) {
+            throw new AppException(ResponseCode.STRATEGY_NOT_EXIST.getCode(), ResponseCode.STRATEGY_NOT_EXIST.getInfo());
+        }
+
+        // 2. 查询抽奖策略
+        StrategyEntity strategy = repository.queryStrategyEntityByStrategyId(strategyId);
+        if (null == strategy) {
+            throw new AppException(ResponseCode.STRATEGY_NOT_EXIST.getCode(), ResponseCode.STRATEGY_NOT_EXIST.getInfo());
+        }
+
+        // 3. 抽奖前 - 规则过滤，整批只执行一次
+        RuleActionEntity<RuleActionEntity.RaffleBeforeEntity> ruleActionEntity = this
+                .doCheckRaffleBeforeLogic(RaffleFactorEntity.builder().userId(userId).strategyId(strategyId).build(), strategy);
+
+        if (RuleLogicCheckTypeVO.TAKE_OVER.getCode().equals(ruleActionEntity.getCode())) {
+            if (DefaultLogicFactory.LogicModel.RULE_BLACKLIST.getCode().equals(ruleActionEntity.getRuleModel())) {
+                // 黑名单每次都返回固定的奖品ID
+                List<RaffleAwardEntity> raffleAwardEntities = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    raffleAwardEntities.add(RaffleAwardEntity.builder()
+                            .awardId(ruleActionEntity.getData().getAwardId())
+                            .build());
+                }
+                return raffleAwardEntities;
+            }
+        }
+
+        // 累加用户在该策略下的抽奖次数，整批一次累加；被黑名单接管的抽奖不计数
+        long priorRaffleCount = repository.incrUserRaffleCount(strategyId, userId, count) - count;
+
+        if (RuleLogicCheckTypeVO.TAKE_OVER.getCode().equals(ruleActionEntity.getCode())) {
+            if (DefaultLogicFactory.LogicModel.RULE_WIGHT.getCode().equals(ruleActionEntity.getRuleModel())) {
+                // 权重根据返回的信息进行抽奖
+                String ruleWeightValueKey = ruleActionEntity.getData().getRuleWeightValueKey();
+                List<Integer> awardIds = strategyDispatch.getRandomAwardIds(strategyId, ruleWeightValueKey, count);
+                List<RaffleAwardEntity> raffleAwardEntities = new ArrayList<>(count);
+                for (Integer awardId : awardIds) {
+                    raffleAwardEntities.add(RaffleAwardEntity.builder()
+                            .awardId(awardId)
+                            .build());
+                }
+                return raffleAwardEntities;
+            }
+        }
+
+        // 4. 默认抽奖流程，一次取出 N 个结果
+        List<Integer> awardIds = strategyDispatch.getRandomAwardIds(strategyId, count);
+
+        // 5. 奖品规则索引，装配时已预先解析
+        StrategyAwardRuleModelIndexVO strategyAwardRuleModelIndexVO = repository.queryStrategyAwardRuleModelIndex(strategyId);
+
+        // 6. 抽奖中 - 规则过滤；第 i 次抽奖的累计次数为整批之前的次数 + i + 1，与逐次单抽时累加后的次数相同
+        List<RaffleAwardEntity> raffleAwardEntities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Integer awardId = awardIds.get(i);
+            String[] raffleCenterRuleModels = strategyAwardRuleModelIndexVO.raffleCenterRuleModelList(awardId);
+            if (0 == raffleCenterRuleModels.length) {
+                raffleAwardEntities.add(RaffleAwardEntity.builder()
+                        .awardId(awardId)
+                        .build());
+                continue;
+            }
+            RuleActionEntity<RuleActionEntity.RaffleCenterEntity> ruleActionCenterEntity = this.doCheckRaffleCenterLogic(RaffleFactorEntity.builder()
+                    .userId(userId)
+                    .strategyId(strategyId)
+                    .awardId(awardId)
+                    .raffleCount(priorRaffleCount + i + 1)
+                    .build(), raffleCenterRuleModels);
+            if (RuleLogicCheckTypeVO.TAKE_OVER.getCode().equals(ruleActionCenterEntity.getCode())) {
+                raffleAwardEntities.add(raffleLuckAward(userId, strategyId, awardId, strategyAwardRuleModelIndexVO.raffleAfterRuleModelList(awardId)));
+                continue;
+            }
+            raffleAwardEntities.add(RaffleAwardEntity.builder()
+                    .awardId(awardId)
+                    .build());
+        }
+
+        return raffleAwardEntities;
+    }
+
+    /**
+     * 抽奖后规则；抽奖中规则拦截后同步得出兜底奖品，规则值装配时已预先解析
+     */
+    private RaffleAwardEntity raffleLuckAward(String userId, Long strategyId, Integer awardId, String[] raffleAfterRuleModels) {
+        RuleActionEntity<RuleActionEntity.RaffleAfterEntity> ruleActionAfterEntity = this.doCheckRaffleAfterLogic(RaffleFactorEntity.builder()
+                .userId(userId)
+                .strategyId(strategyId)
+                .awardId(awardId)
+                .build(), raffleAfterRuleModels);
+        if (RuleLogicCheckTypeVO.TAKE_OVER.getCode().equals(ruleActionAfterEntity.getCode())) {
+            return RaffleAwardEntity.builder()
+                    .awardId(ruleActionAfterEntity.getData().getAwardId())
+                    .awardConfig(ruleActionAfterEntity.getData().getAwardConfig())
+                    .build();
+        }
+        return RaffleAwardEntity.builder()
+                .awardDesc("中奖中规则拦截，奖品未配置抽奖后规则rule_luck_award 兜底奖励。")
+                .build();
+    }
+
+    // 定义了一个抽象方法doCheckRaffleBeforeLogic，它由子类实现，用于实现抽奖前的规则过滤；规则模型取自策略实体
+    protected abstract RuleActionEntity<RuleActionEntity.RaffleBeforeEntity> doCheckRaffleBeforeLogic(RaffleFactorEntity raffleFactorEntity, StrategyEntity strategy);
 
     protected abstract RuleActionEntity<RuleActionEntity.RaffleCenterEntity> doCheckRaffleCenterLogic(RaffleFactorEntity raffleFactorEntity, String... logics);
 
-//    protected abstract RuleActionEntity<RuleActionEntity.RaffleAfterEntity> doCheckRaffleAfterLogic(RaffleFactorEntity raffleFactorEntity, String... logics);
+    protected abstract RuleActionEntity<RuleActionEntity.RaffleAfterEntity> doCheckRaffleAfterLogic(RaffleFactorEntity raffleFactorEntity, String... logics);
+
+    // 抽奖后处理，异步执行；实现方不能阻塞抽奖线程
+    protected abstract void doRaffleAfterAsync(RaffleFactorEntity raffleFactorEntity, List<RaffleAwardEntity> raffleAwardEntities);
 }
\ No newline at end of file
@@ -1,80 +1,59 @@
 package cn.gentlewind.domain.strategy.service.raffle;
 
+import cn.gentlewind.domain.strategy.model.entity.RaffleAwardEntity;
 import cn.gentlewind.domain.strategy.model.entity.RaffleFactorEntity;
+import cn.gentlewind.domain.strategy.model.entity.RaffleRecordEntity;
 import cn.gentlewind.domain.strategy.model.entity.RuleActionEntity;
 import cn.gentlewind.domain.strategy.model.entity.RuleMatterEntity;
+import cn.gentlewind.domain.strategy.model.entity.StrategyEntity;
 import cn.gentlewind.domain.strategy.model.vo.RuleLogicCheckTypeVO;
 import cn.gentlewind.domain.strategy.repository.IStrategyRepository;
 import cn.gentlewind.domain.strategy.service.armory.IStrategyDispatch;
-import cn.gentlewind.domain.strategy.service.rule.ILogicFilter;
-import cn.gentlewind.domain.strategy.service.rule.factory.DefaultLogicFactory;
+import cn.gentlewind.domain.strategy.service.raffle.after.RaffleAfterProcessor;
+import cn.gentlewind.domain.strategy.service.rule.compiler.RulePipelineCompiler;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * 在抽奖实现的子类中，处理抽奖具体的规则过滤过程。
+ *
+ * 规则模型由 RulePipelineCompiler 按策略预先编译为流水线，这里只组装规则物料并执行。
+ * 抽奖后处理只入队，不在抽奖线程中执行。
  */
 @Slf4j
 @Service
 public class DefaultRaffleStrategy extends AbstractRaffleStrategy {
 
     @Resource
-    private DefaultLogicFactory logicFactory;
+    private RulePipelineCompiler rulePipelineCompiler;
+
+    @Resource
+    private RaffleAfterProcessor raffleAfterProcessor;
 
     public DefaultRaffleStrategy(IStrategyRepository repository, IStrategyDispatch strategyDispatch) {
         super(repository, strategyDispatch);
     }
 
-    //
+    /**
+     * 抽奖前规则过滤；黑名单在编译时已排在最前
+     * @param raffleFactorEntity 抽奖因子
+     * @param strategy 策略实体，规则模型 rule_weight,rule_blacklist
+     * @return
+     */
     @Override
-    protected RuleActionEntity<RuleActionEntity.RaffleBeforeEntity> doCheckRaffleBeforeLogic(RaffleFactorEntity raffleFactorEntity, String... logics) {
-        Map<String, ILogicFilter<RuleActionEntity.RaffleBeforeEntity>> logicFilterGroup = logicFactory.openLogicFilter();
-
-        // 黑名单规则优先过滤
-        String ruleBackList = Arrays.stream(logics)
-                .filter(str -> str.contains(DefaultLogicFactory.LogicModel.RULE_BLACKLIST.getCode()))
-                .findFirst()
-                .orElse(null);
-
-        if (ruleBackList!= null && StringUtils.isNotBlank(ruleBackList)) {
-            ILogicFilter<RuleActionEntity.RaffleBeforeEntity> logicFilter = logicFilterGroup.get(DefaultLogicFactory.LogicModel.RULE_BLACKLIST.getCode());
-            RuleMatterEntity ruleMatterEntity = new RuleMatterEntity();
-            ruleMatterEntity.setUserId(raffleFactorEntity.getUserId());
-            ruleMatterEntity.setAwardId(ruleMatterEntity.getAwardId());
-            ruleMatterEntity.setStrategyId(raffleFactorEntity.getStrategyId());
-            ruleMatterEntity.setRuleModel(DefaultLogicFactory.LogicModel.RULE_BLACKLIST.getCode());
-            RuleActionEntity<RuleActionEntity.RaffleBeforeEntity> ruleActionEntity = logicFilter.filter(ruleMatterEntity);
-            if (!RuleLogicCheckTypeVO.ALLOW.getCode().equals(ruleActionEntity.getCode())) {
-                return ruleActionEntity;
-            }
+    protected RuleActionEntity<RuleActionEntity.RaffleBeforeEntity> doCheckRaffleBeforeLogic(RaffleFactorEntity raffleFactorEntity, StrategyEntity strategy) {
+        RuleMatterEntity ruleMatterEntity = new RuleMatterEntity();
+        ruleMatterEntity.setUserId(raffleFactorEntity.getUserId());
+        ruleMatterEntity.setStrategyId(raffleFactorEntity.getStrategyId());
+        RuleActionEntity<RuleActionEntity.RaffleBeforeEntity> ruleActionEntity = rulePipelineCompiler.compileBefore(strategy).filter(ruleMatterEntity);
+        if (!RuleLogicCheckTypeVO.ALLOW.getCode().equals(ruleActionEntity.getCode())) {
+            log.info("抽奖前规则过滤 userId: {} ruleModel: {} code: {} info: {}", raffleFactorEntity.getUserId(), ruleActionEntity.getRuleModel(), ruleActionEntity.getCode(), ruleActionEntity.getInfo());
         }
-
-        // 顺序过滤剩余规则
-        List<String> ruleList = Arrays.stream(logics)
-                .filter(s -> !s.equals(DefaultLogicFactory.LogicModel.RULE_BLACKLIST.getCode()))
-                .collect(Collectors.toList());
-
-        RuleActionEntity<RuleActionEntity.RaffleBeforeEntity> ruleActionEntity = null;
-        for (String ruleModel : ruleList) {
-            ILogicFilter<RuleActionEntity.RaffleBeforeEntity> logicFilter = logicFilterGroup.get(ruleModel);
-            RuleMatterEntity ruleMatterEntity = new RuleMatterEntity();
-            ruleMatterEntity.setUserId(raffleFactorEntity.getUserId());
-            ruleMatterEntity.setAwardId(ruleMatterEntity.getAwardId());
-            ruleMatterEntity.setStrategyId(raffleFactorEntity.getStrategyId());
-            ruleMatterEntity.setRuleModel(ruleModel);
-            ruleActionEntity = logicFilter.filter(ruleMatterEntity);
-            // 非放行结果则顺序过滤
-            log.info("抽奖前规则过滤 userId: {} ruleModel: {} code: {} info: {}", raffleFactorEntity.getUserId(), ruleModel, ruleActionEntity.getCode(), ruleActionEntity.getInfo());
-            if (!RuleLogicCheckTypeVO.ALLOW.getCode().equals(ruleActionEntity.getCode())) return ruleActionEntity;
-        }
-
         return ruleActionEntity;
     }
 
@@ -91,23 +70,66 @@ public class DefaultRaffleStrategy extends AbstractRaffleStrategy {
                 .info(RuleLogicCheckTypeVO.ALLOW.getInfo())
                 .build();
 
-        Map<String, ILogicFilter<RuleActionEntity.RaffleCenterEntity>> logicFilterGroup = logicFactory.openLogicFilter();
+        RuleMatterEntity ruleMatterEntity = new RuleMatterEntity();
+        ruleMatterEntity.setUserId(raffleFactorEntity.getUserId());
+        ruleMatterEntity.setAwardId(raffleFactorEntity.getAwardId());
+        ruleMatterEntity.setStrategyId(raffleFactorEntity.getStrategyId());
+        ruleMatterEntity.setRaffleCount(raffleFactorEntity.getRaffleCount());
+        RuleActionEntity<RuleActionEntity.RaffleCenterEntity> ruleActionEntity = rulePipelineCompiler
+                .compileCenter(raffleFactorEntity.getStrategyId(), raffleFactorEntity.getAwardId(), logics)
+                .filter(ruleMatterEntity);
+        if (!RuleLogicCheckTypeVO.ALLOW.getCode().equals(ruleActionEntity.getCode())) {
+            log.info("抽奖中规则过滤 userId: {} awardId: {} code: {} info: {}", raffleFactorEntity.getUserId(), raffleFactorEntity.getAwardId(), ruleActionEntity.getCode(), ruleActionEntity.getInfo());
+        }
+        return ruleActionEntity;
+    }
 
-        RuleActionEntity<RuleActionEntity.RaffleCenterEntity> ruleActionEntity = null;
-        for (String ruleModel : logics) {
-            ILogicFilter<RuleActionEntity.RaffleCenterEntity> logicFilter = logicFilterGroup.get(ruleModel);
-            RuleMatterEntity ruleMatterEntity = new RuleMatterEntity();
-            ruleMatterEntity.setUserId(raffleFactorEntity.getUserId());
-            ruleMatterEntity.setAwardId(raffleFactorEntity.getAwardId());
-            ruleMatterEntity.setStrategyId(raffleFactorEntity.getStrategyId());
-            ruleMatterEntity.setRuleModel(ruleModel);
-            ruleActionEntity = logicFilter.filter(ruleMatterEntity);
-            // 非放行结果则顺序过滤
-            log.info("抽奖中规则过滤 userId: {} ruleModel: {} code: {} info: {}", raffleFactorEntity.getUserId(), ruleModel, ruleActionEntity.getCode(), ruleActionEntity.getInfo());
-            if (!RuleLogicCheckTypeVO.ALLOW.getCode().equals(ruleActionEntity.getCode())) return ruleActionEntity;
+    /**
+     * 抽奖后规则过滤
+     * @param raffleFactorEntity 抽奖因子，奖品ID为被抽奖中规则拦截的奖品
+     * @param logics 规则模型：rule_luck_award
+     * @return
+     */
+    @Override
+    protected RuleActionEntity<RuleActionEntity.RaffleAfterEntity> doCheckRaffleAfterLogic(RaffleFactorEntity raffleFactorEntity, String... logics) {
+        if (logics == null || 0 == logics.length) return RuleActionEntity.<RuleActionEntity.RaffleAfterEntity>builder()
+                .code(RuleLogicCheckTypeVO.ALLOW.getCode())
+                .info(RuleLogicCheckTypeVO.ALLOW.getInfo())
+                .build();
+
+        RuleMatterEntity ruleMatterEntity = new RuleMatterEntity();
+        ruleMatterEntity.setUserId(raffleFactorEntity.getUserId());
+        ruleMatterEntity.setAwardId(raffleFactorEntity.getAwardId());
+        ruleMatterEntity.setStrategyId(raffleFactorEntity.getStrategyId());
+        RuleActionEntity<RuleActionEntity.RaffleAfterEntity> ruleActionEntity = rulePipelineCompiler
+                .compileAfter(raffleFactorEntity.getStrategyId(), raffleFactorEntity.getAwardId(), logics)
+                .filter(ruleMatterEntity);
+        if (!RuleLogicCheckTypeVO.ALLOW.getCode().equals(ruleActionEntity.getCode())) {
+            log.info("抽奖后规则过滤 userId: {} awardId: {} ruleModel: {} luckAwardId: {}", raffleFactorEntity.getUserId(), raffleFactorEntity.getAwardId(), ruleActionEntity.getRuleModel(), ruleActionEntity.getData().getAwardId());
         }
         return ruleActionEntity;
     }
 
+    /**
+     * 抽奖后处理；只把抽中奖品的记录放入队列，记录写入、统计、通知由 RaffleAfterProcessor 的消费线程执行
+     * @param raffleFactorEntity 抽奖因子
+     * @param raffleAwardEntities 抽奖结果
+     */
+    @Override
+    protected void doRaffleAfterAsync(RaffleFactorEntity raffleFactorEntity, List<RaffleAwardEntity> raffleAwardEntities) {
+        Date raffleTime = new Date();
+        List<RaffleRecordEntity> raffleRecordEntities = new ArrayList<>(raffleAwardEntities.size());
+        for (RaffleAwardEntity raffleAwardEntity : raffleAwardEntities) {
+            if (null == raffleAwardEntity.getAwardId()) continue;
+            raffleRecordEntities.add(RaffleRecordEntity.builder()
+                    .userId(raffleFactorEntity.getUserId())
+                    .strategyId(raffleFactorEntity.getStrategyId())
+                    .awardId(raffleAwardEntity.getAwardId())
+                    .awardConfig(raffleAwardEntity.getAwardConfig())
+                    .raffleTime(raffleTime)
+                    .build());
+        }
+        if (!raffleRecordEntities.isEmpty()) raffleAfterProcessor.submit(raffleRecordEntities);
+    }
 
 }
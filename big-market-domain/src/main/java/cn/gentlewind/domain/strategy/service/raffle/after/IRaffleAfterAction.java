@@ -0,0 +1,28 @@
+package cn.gentlewind.domain.strategy.service.raffle.after;
+
+import cn.gentlewind.domain.strategy.model.entity.RaffleRecordEntity;
+
+import java.util.List;
+
+/**
+ * 抽奖后处理动作；不影响抽奖结果的工作（记录写入、统计、通知），由 RaffleAfterProcessor 的消费线程按批执行
+ */
+public interface IRaffleAfterAction {
+
+    /**
+     * 处理一批抽奖记录；单个动作失败不影响其他动作
+     *
+     * @param raffleRecordEntities 抽奖记录，按提交顺序
+     */
+    void execute(List<RaffleRecordEntity> raffleRecordEntities);
+
+    /**
+     * 是否可丢弃；队列满时可丢弃的动作跳过，不可丢弃的动作在提交线程中同步执行
+     *
+     * @return 可丢弃返回 true，默认不可丢弃
+     */
+    default boolean droppable() {
+        return false;
+    }
+
+}
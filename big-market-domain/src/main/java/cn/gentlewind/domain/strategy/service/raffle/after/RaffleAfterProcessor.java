@@ -0,0 +1,163 @@
+package cn.gentlewind.domain.strategy.service.raffle.after;
+
+import cn.gentlewind.domain.strategy.model.entity.RaffleRecordEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 抽奖后处理器；抽奖线程只把记录放入有界队列，记录写入、统计、通知由专用的单个消费线程按批执行
+ *
+ * 1. 提交：队列满时短暂等待消费线程腾出位置；仍然放不下的记录在抽奖线程中同步执行不可丢弃的动作（记录写入），
+ *    可丢弃的动作（统计、通知）跳过并计数。抽奖记录不会因队列满而丢失
+ * 2. 执行：消费线程等待记录，每次取出一批依次交给所有动作，批量写库、批量访问 Redis
+ * 3. 不使用共享线程池：后处理不占用其他任务的线程，也不会因拒绝策略（CallerRunsPolicy）回到抽奖线程执行
+ * 4. 停机：不再入队，消费线程处理完队列中的记录后退出；超时仍未处理完的，停机线程一起取出处理
+ */
+@Slf4j
+@Component
+public class RaffleAfterProcessor {
+
+    // 消费线程等待记录的间隔；停机时最多延迟一个间隔察觉
+    private static final long POLL_MILLIS = 100;
+
+    private final List<IRaffleAfterAction> actions;
+    private final BlockingQueue<RaffleRecordEntity> records;
+    private final int batchSize;
+
+    // 队列满时抽奖线程等待入队的最长时间
+    @Value("${big-market.strategy.raffle-after.offer-timeout-millis:50}")
+    private long offerTimeoutMillis;
+
+    // 停机时等待消费线程处理完队列的最长时间
+    @Value("${big-market.strategy.raffle-after.shutdown-timeout-millis:5000}")
+    private long shutdownTimeoutMillis;
+
+    // 跳过可丢弃动作的记录数
+    private final AtomicLong dropped = new AtomicLong();
+    // 停机后不再入队
+    private volatile boolean running = true;
+    // 消费线程，守护线程，不阻止进程退出；停机时由 destroy 等待其处理完队列
+    private Thread consumer;
+
+    public RaffleAfterProcessor(List<IRaffleAfterAction> actions,
+                                @Value("${big-market.strategy.raffle-after.queue-capacity:10000}") int queueCapacity,
+                                @Value("${big-market.strategy.raffle-after.batch-size:200}") int batchSize) {
+        this.actions = actions;
+        this.records = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        consumer = new Thread(this::consume, "raffle-after");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * 提交抽奖记录；通常立即返回，队列满时最多等待 offerTimeoutMillis，仍放不下的记录同步写入
+     *
+     * @param raffleRecordEntities 抽奖记录
+     */
+    public void submit(List<RaffleRecordEntity> raffleRecordEntities) {
+        List<RaffleRecordEntity> overflow = null;
+        boolean waited = false;
+        for (RaffleRecordEntity raffleRecordEntity : raffleRecordEntities) {
+            if (null == overflow && running) {
+                if (records.offer(raffleRecordEntity)) continue;
+                // 队列满时一批只等待一次，之后仍放不下的记录全部同步写入
+                if (!waited) {
+                    waited = true;
+                    if (offer(raffleRecordEntity)) continue;
+                }
+                overflow = new ArrayList<>();
+            }
+            if (null == overflow) overflow = new ArrayList<>();
+            overflow.add(raffleRecordEntity);
+        }
+        if (null != overflow) executeRequired(overflow);
+    }
+
+    private boolean offer(RaffleRecordEntity raffleRecordEntity) {
+        try {
+            return records.offer(raffleRecordEntity, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 队列满或停机后提交的记录；只执行不可丢弃的动作，可丢弃的动作跳过并计数
+     */
+    private void executeRequired(List<RaffleRecordEntity> overflow) {
+        for (IRaffleAfterAction action : actions) {
+            if (action.droppable()) continue;
+            try {
+                action.execute(overflow);
+            } catch (RuntimeException e) {
+                log.error("抽奖后处理同步执行失败 action:{} count:{}", action.getClass().getSimpleName(), overflow.size(), e);
+            }
+        }
+        long count = dropped.addAndGet(overflow.size());
+        // 持续溢出时按 2 的幂次输出日志，不刷屏
+        if (Long.numberOfLeadingZeros(count) != Long.numberOfLeadingZeros(count - overflow.size())) {
+            log.warn("抽奖后处理队列已满，记录已同步写入，统计、通知跳过 dropped:{}", count);
+        }
+    }
+
+    /**
+     * 消费循环；取到第一条后再取出已到达的记录凑成一批。停机后处理完队列中的记录再退出
+     */
+    private void consume() {
+        List<RaffleRecordEntity> batch = new ArrayList<>(batchSize);
+        while (running || !records.isEmpty()) {
+            RaffleRecordEntity raffleRecordEntity;
+            try {
+                raffleRecordEntity = records.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (null == raffleRecordEntity) continue;
+            batch.add(raffleRecordEntity);
+            records.drainTo(batch, batchSize - 1);
+            execute(batch);
+            batch.clear();
+        }
+    }
+
+    private void execute(List<RaffleRecordEntity> batch) {
+        for (IRaffleAfterAction action : actions) {
+            try {
+                action.execute(batch);
+            } catch (RuntimeException e) {
+                log.error("抽奖后处理失败 action:{} count:{}", action.getClass().getSimpleName(), batch.size(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void destroy() throws InterruptedException {
+        running = false;
+        consumer.join(shutdownTimeoutMillis);
+        // 超时未处理完的记录，以及消费线程退出后才入队的记录
+        List<RaffleRecordEntity> batch = new ArrayList<>(batchSize);
+        while (records.drainTo(batch, batchSize) > 0) {
+            execute(batch);
+            batch.clear();
+        }
+        log.info("抽奖后处理已停止 dropped:{}", dropped.get());
+    }
+
+}
@@ -0,0 +1,33 @@
+package cn.gentlewind.domain.strategy.service.raffle.after.impl;
+
+import cn.gentlewind.domain.strategy.model.entity.RaffleRecordEntity;
+import cn.gentlewind.domain.strategy.repository.IStrategyRepository;
+import cn.gentlewind.domain.strategy.service.raffle.after.IRaffleAfterAction;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.List;
+
+/**
+ * 抽奖后处理 - 中奖通知；一批记录合并为一次广播
+ */
+@Component
+public class RaffleNotifyAction implements IRaffleAfterAction {
+
+    @Resource
+    private IStrategyRepository repository;
+
+    @Override
+    public void execute(List<RaffleRecordEntity> raffleRecordEntities) {
+        repository.publishRaffleRecords(raffleRecordEntities);
+    }
+
+    /**
+     * 通知允许在队列满时不发送
+     */
+    @Override
+    public boolean droppable() {
+        return true;
+    }
+
+}
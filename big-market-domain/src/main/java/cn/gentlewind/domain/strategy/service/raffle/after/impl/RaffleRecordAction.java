@@ -0,0 +1,25 @@
+package cn.gentlewind.domain.strategy.service.raffle.after.impl;
+
+import cn.gentlewind.domain.strategy.model.entity.RaffleRecordEntity;
+import cn.gentlewind.domain.strategy.repository.IStrategyRepository;
+import cn.gentlewind.domain.strategy.service.raffle.after.IRaffleAfterAction;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.List;
+
+/**
+ * 抽奖后处理 - 写入抽奖记录；一批一次批量插入
+ */
+@Component
+public class RaffleRecordAction implements IRaffleAfterAction {
+
+    @Resource
+    private IStrategyRepository repository;
+
+    @Override
+    public void execute(List<RaffleRecordEntity> raffleRecordEntities) {
+        repository.saveRaffleRecords(raffleRecordEntities);
+    }
+
+}
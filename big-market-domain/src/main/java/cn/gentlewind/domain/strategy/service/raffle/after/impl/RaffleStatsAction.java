@@ -0,0 +1,40 @@
+package cn.gentlewind.domain.strategy.service.raffle.after.impl;
+
+import cn.gentlewind.domain.strategy.model.entity.RaffleRecordEntity;
+import cn.gentlewind.domain.strategy.repository.IStrategyRepository;
+import cn.gentlewind.domain.strategy.service.raffle.after.IRaffleAfterAction;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 抽奖后处理 - 奖品抽中次数统计；一批内按策略、奖品合并后累加
+ */
+@Component
+public class RaffleStatsAction implements IRaffleAfterAction {
+
+    @Resource
+    private IStrategyRepository repository;
+
+    @Override
+    public void execute(List<RaffleRecordEntity> raffleRecordEntities) {
+        Map<Long, Map<Integer, Long>> strategyAwardCounts = new HashMap<>();
+        for (RaffleRecordEntity raffleRecordEntity : raffleRecordEntities) {
+            strategyAwardCounts.computeIfAbsent(raffleRecordEntity.getStrategyId(), k -> new HashMap<>())
+                    .merge(raffleRecordEntity.getAwardId(), 1L, Long::sum);
+        }
+        repository.incrStrategyAwardRaffleCount(strategyAwardCounts);
+    }
+
+    /**
+     * 统计允许在队列满时少计
+     */
+    @Override
+    public boolean droppable() {
+        return true;
+    }
+
+}
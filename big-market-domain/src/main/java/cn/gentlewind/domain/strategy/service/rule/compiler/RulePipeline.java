@@ -0,0 +1,41 @@
+package cn.gentlewind.domain.strategy.service.rule.compiler;
+
+import cn.gentlewind.domain.strategy.model.entity.RuleActionEntity;
+import cn.gentlewind.domain.strategy.model.entity.RuleMatterEntity;
+import cn.gentlewind.domain.strategy.model.vo.RuleLogicCheckTypeVO;
+import cn.gentlewind.domain.strategy.service.rule.ILogicFilter;
+
+/**
+ * 规则流水线；策略（或策略奖品）的过滤器按执行顺序预先解析为不可变数组
+ *
+ * 抽奖时按下标顺序执行，遇到非放行结果即返回；不再查找过滤器映射，也不再逐次拆分、过滤规则模型。
+ */
+public final class RulePipeline<T extends RuleActionEntity.RaffleEntity> {
+
+    private final String[] ruleModels;
+    private final ILogicFilter<T>[] logicFilters;
+
+    RulePipeline(String[] ruleModels, ILogicFilter<T>[] logicFilters) {
+        this.ruleModels = ruleModels;
+        this.logicFilters = logicFilters;
+    }
+
+    /**
+     * 顺序执行全部过滤器；物料对象在各阶段间复用，只替换规则模型
+     *
+     * @param ruleMatterEntity 规则物料，用户ID、策略ID、奖品ID由调用方设置
+     * @return 第一个非放行结果；全部放行时返回放行结果
+     */
+    public RuleActionEntity<T> filter(RuleMatterEntity ruleMatterEntity) {
+        for (int i = 0; i < logicFilters.length; i++) {
+            ruleMatterEntity.setRuleModel(ruleModels[i]);
+            RuleActionEntity<T> ruleActionEntity = logicFilters[i].filter(ruleMatterEntity);
+            if (!RuleLogicCheckTypeVO.ALLOW.getCode().equals(ruleActionEntity.getCode())) return ruleActionEntity;
+        }
+        return RuleActionEntity.<T>builder()
+                .code(RuleLogicCheckTypeVO.ALLOW.getCode())
+                .info(RuleLogicCheckTypeVO.ALLOW.getInfo())
+                .build();
+    }
+
+}
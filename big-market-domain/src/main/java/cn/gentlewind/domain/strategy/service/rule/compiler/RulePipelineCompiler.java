@@ -0,0 +1,144 @@
+package cn.gentlewind.domain.strategy.service.rule.compiler;
+
+import cn.gentlewind.domain.strategy.model.entity.RuleActionEntity;
+import cn.gentlewind.domain.strategy.model.entity.StrategyEntity;
+import cn.gentlewind.domain.strategy.service.rule.ILogicFilter;
+import cn.gentlewind.domain.strategy.service.rule.factory.DefaultLogicFactory;
+import cn.gentlewind.types.enums.ResponseCode;
+import cn.gentlewind.types.exception.AppException;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * 规则流水线编译器；把策略的规则模型编译为 RulePipeline，并按策略缓存
+ *
+ * 1. 抽奖前规则取自 strategy.rule_models，黑名单排在最前，其余按配置顺序
+ * 2. 抽奖中、抽奖后规则取自奖品规则索引，按策略奖品编译
+ * 3. 没有过滤器实现、或不属于当前阶段的规则模型在编译时拒绝；策略装配、预热时即全部编译，配置错误使装配失败，不会在抽奖请求中才发现
+ * 与 StrategyRuleCompiler 相同，编译结果记录来源的规则模型，配置变更后就地重新编译。
+ */
+@Slf4j
+@Component
+public class RulePipelineCompiler {
+
+    @Resource
+    private DefaultLogicFactory logicFactory;
+
+    /** 策略ID -> 抽奖前流水线 */
+    private final Map<Long, CompiledPipeline<String, RuleActionEntity.RaffleBeforeEntity>> beforePipelines = new ConcurrentHashMap<>();
+    /** 策略ID -> (奖品ID -> 抽奖中流水线) */
+    private final Map<Long, Map<Integer, CompiledPipeline<String[], RuleActionEntity.RaffleCenterEntity>>> centerPipelines = new ConcurrentHashMap<>();
+    /** 策略ID -> (奖品ID -> 抽奖后流水线) */
+    private final Map<Long, Map<Integer, CompiledPipeline<String[], RuleActionEntity.RaffleAfterEntity>>> afterPipelines = new ConcurrentHashMap<>();
+
+    /**
+     * 抽奖前规则流水线
+     *
+     * @param strategyEntity 策略实体
+     * @return 流水线；未配置规则时为空流水线
+     */
+    public RulePipeline<RuleActionEntity.RaffleBeforeEntity> compileBefore(StrategyEntity strategyEntity) {
+        Long strategyId = strategyEntity.getStrategyId();
+        String ruleModels = strategyEntity.getRuleModels();
+        CompiledPipeline<String, RuleActionEntity.RaffleBeforeEntity> compiledPipeline = beforePipelines.get(strategyId);
+        if (null == compiledPipeline || !Objects.equals(compiledPipeline.source, ruleModels)) {
+            String[] orderedRuleModels = orderBlacklistFirst(strategyEntity.ruleModels());
+            compiledPipeline = new CompiledPipeline<>(ruleModels, compile(strategyId, orderedRuleModels, DefaultLogicFactory.LogicModel::isBefore));
+            beforePipelines.put(strategyId, compiledPipeline);
+            log.info("抽奖前规则流水线编译完成 strategyId:{} ruleModels:{}", strategyId, Arrays.toString(orderedRuleModels));
+        }
+        return compiledPipeline.pipeline;
+    }
+
+    /**
+     * 抽奖中规则流水线
+     *
+     * @param strategyId 策略ID
+     * @param awardId    奖品ID
+     * @param ruleModels 奖品的抽奖中规则，取自奖品规则索引
+     * @return 流水线
+     */
+    public RulePipeline<RuleActionEntity.RaffleCenterEntity> compileCenter(Long strategyId, Integer awardId, String[] ruleModels) {
+        return compileAward(centerPipelines, strategyId, awardId, ruleModels, DefaultLogicFactory.LogicModel::isCenter);
+    }
+
+    /**
+     * 抽奖后规则流水线
+     *
+     * @param strategyId 策略ID
+     * @param awardId    奖品ID
+     * @param ruleModels 奖品的抽奖后规则，取自奖品规则索引
+     * @return 流水线
+     */
+    public RulePipeline<RuleActionEntity.RaffleAfterEntity> compileAfter(Long strategyId, Integer awardId, String[] ruleModels) {
+        return compileAward(afterPipelines, strategyId, awardId, ruleModels, DefaultLogicFactory.LogicModel::isAfter);
+    }
+
+    private <T extends RuleActionEntity.RaffleEntity> RulePipeline<T> compileAward(Map<Long, Map<Integer, CompiledPipeline<String[], T>>> pipelines,
+                                                                                    Long strategyId, Integer awardId, String[] ruleModels, Predicate<String> stage) {
+        Map<Integer, CompiledPipeline<String[], T>> strategyPipelines = pipelines.computeIfAbsent(strategyId, k -> new ConcurrentHashMap<>());
+        CompiledPipeline<String[], T> compiledPipeline = strategyPipelines.get(awardId);
+        // 索引未重建时是同一个数组实例，引用相等即可跳过逐个比较
+        if (null == compiledPipeline || (compiledPipeline.source != ruleModels && !Arrays.equals(compiledPipeline.source, ruleModels))) {
+            compiledPipeline = new CompiledPipeline<>(ruleModels, this.<T>compile(strategyId, ruleModels, stage));
+            strategyPipelines.put(awardId, compiledPipeline);
+            log.info("奖品规则流水线编译完成 strategyId:{} awardId:{} ruleModels:{}", strategyId, awardId, Arrays.toString(ruleModels));
+        }
+        return compiledPipeline.pipeline;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends RuleActionEntity.RaffleEntity> RulePipeline<T> compile(Long strategyId, String[] ruleModels, Predicate<String> stage) {
+        Map<String, ILogicFilter<T>> logicFilterGroup = logicFactory.openLogicFilter();
+        String[] stageRuleModels = null == ruleModels ? new String[0] : ruleModels.clone();
+        ILogicFilter<T>[] logicFilters = new ILogicFilter[stageRuleModels.length];
+        for (int i = 0; i < stageRuleModels.length; i++) {
+            ILogicFilter<T> logicFilter = logicFilterGroup.get(stageRuleModels[i]);
+            if (null == logicFilter || !stage.test(stageRuleModels[i])) {
+                log.error("规则流水线编译失败，规则模型未实现或不属于当前阶段 strategyId:{} ruleModel:{}", strategyId, stageRuleModels[i]);
+                throw new AppException(ResponseCode.STRATEGY_RULE_MODEL_UNKNOWN.getCode(), ResponseCode.STRATEGY_RULE_MODEL_UNKNOWN.getInfo());
+            }
+            logicFilters[i] = logicFilter;
+        }
+        return new RulePipeline<>(stageRuleModels, logicFilters);
+    }
+
+    /**
+     * 黑名单优先；命中黑名单直接返回固定奖品，不必再计算其余规则
+     */
+    private static String[] orderBlacklistFirst(String[] ruleModels) {
+        if (null == ruleModels) return null;
+        String blacklist = DefaultLogicFactory.LogicModel.RULE_BLACKLIST.getCode();
+        boolean hasBlacklist = false;
+        List<String> orderedRuleModels = new ArrayList<>(ruleModels.length);
+        for (String ruleModel : ruleModels) {
+            String trimmed = ruleModel.trim();
+            if (blacklist.equals(trimmed)) {
+                hasBlacklist = true;
+            } else if (!trimmed.isEmpty() && !orderedRuleModels.contains(trimmed)) {
+                orderedRuleModels.add(trimmed);
+            }
+        }
+        if (hasBlacklist) orderedRuleModels.add(0, blacklist);
+        return orderedRuleModels.toArray(new String[0]);
+    }
+
+    @AllArgsConstructor
+    private static final class CompiledPipeline<S, T extends RuleActionEntity.RaffleEntity> {
+        /** 编译来源的规则模型 */
+        private final S source;
+        /** 编译结果 */
+        private final RulePipeline<T> pipeline;
+    }
+
+}
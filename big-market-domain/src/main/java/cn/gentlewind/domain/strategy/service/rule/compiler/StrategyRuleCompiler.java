@@ -0,0 +1,84 @@
+package cn.gentlewind.domain.strategy.service.rule.compiler;
+
+import cn.gentlewind.domain.strategy.model.entity.RuleMatterEntity;
+import cn.gentlewind.domain.strategy.model.vo.RuleBlacklistVO;
+import cn.gentlewind.domain.strategy.model.vo.RuleLockVO;
+import cn.gentlewind.domain.strategy.model.vo.RuleLuckAwardVO;
+import cn.gentlewind.domain.strategy.model.vo.RuleWeightVO;
+import cn.gentlewind.domain.strategy.repository.IStrategyRepository;
+import cn.gentlewind.types.common.Constants;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 规则编译器；把 strategy_rule 的规则值字符串编译为不可变的规则值对象，并按策略缓存
+ *
+ * 规则值仍从仓储的两级缓存读取，编译结果记录其来源字符串；配置变更后仓储读到的规则值不同，
+ * 就地重新编译，不需要额外订阅失效消息。规则值未变时过滤器只做一次比较和查找，不再重复解析。
+ */
+@Slf4j
+@Component
+public class StrategyRuleCompiler {
+
+    @Resource
+    private IStrategyRepository repository;
+
+    /** 策略ID -> (规则模型[_奖品ID] -> 编译结果) */
+    private final Map<Long, Map<String, CompiledRule<?>>> compiledRules = new ConcurrentHashMap<>();
+
+    public RuleBlacklistVO compileBlacklist(RuleMatterEntity ruleMatterEntity) {
+        return compile(ruleMatterEntity, RuleBlacklistVO::compile);
+    }
+
+    public RuleWeightVO compileWeight(RuleMatterEntity ruleMatterEntity) {
+        return compile(ruleMatterEntity, RuleWeightVO::compile);
+    }
+
+    public RuleLockVO compileLock(RuleMatterEntity ruleMatterEntity) {
+        return compile(ruleMatterEntity, RuleLockVO::compile);
+    }
+
+    public RuleLuckAwardVO compileLuckAward(RuleMatterEntity ruleMatterEntity) {
+        return compile(ruleMatterEntity, RuleLuckAwardVO::compile);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T compile(RuleMatterEntity ruleMatterEntity, Function<String, T> compiler) {
+        Long strategyId = ruleMatterEntity.getStrategyId();
+        String ruleValue = repository.queryStrategyRuleValue(strategyId, ruleMatterEntity.getAwardId(), ruleMatterEntity.getRuleModel());
+        if (null == ruleValue) return null;
+
+        Map<String, CompiledRule<?>> strategyRules = compiledRules.computeIfAbsent(strategyId, k -> new ConcurrentHashMap<>());
+        String ruleKey = null == ruleMatterEntity.getAwardId()
+                ? ruleMatterEntity.getRuleModel()
+                : ruleMatterEntity.getRuleModel() + Constants.UNDERLINE + ruleMatterEntity.getAwardId();
+        CompiledRule<?> compiledRule = strategyRules.get(ruleKey);
+        if (null == compiledRule || !compiledRule.matches(ruleValue)) {
+            compiledRule = new CompiledRule<>(ruleValue, compiler.apply(ruleValue));
+            strategyRules.put(ruleKey, compiledRule);
+            log.info("规则编译完成 strategyId:{} ruleKey:{}", strategyId, ruleKey);
+        }
+        return (T) compiledRule.rule;
+    }
+
+    @AllArgsConstructor
+    private static final class CompiledRule<T> {
+        /** 编译来源的规则值 */
+        private final String ruleValue;
+        /** 编译结果 */
+        private final T rule;
+
+        // 缓存命中时一般是同一个字符串实例，引用相等即可跳过逐字符比较
+        boolean matches(String ruleValue) {
+            return this.ruleValue == ruleValue || Objects.equals(this.ruleValue, ruleValue);
+        }
+    }
+
+}
@@ -50,18 +50,40 @@ public class DefaultLogicFactory {
         RULE_BLACKLIST("rule_blacklist", "【抽奖前规则】黑名单规则过滤，命中黑名单则直接返回", "before"),
         RULE_LOCK("rule_lock", "【抽奖中规则】抽奖n次后，对应奖品可解锁抽奖", "center"),
         RULE_LUCK_AWARD("rule_luck_award", "【抽奖后规则】抽奖n次后，对应奖品可解锁抽奖", "after"),
+        RULE_RANDOM("rule_random", "【发奖规则】随机积分，发奖时按规则值计算，不参与抽奖过滤", "award"),
         ;
 
         private final String code;
         private final String info;
         private final String type;
 
+        public static boolean isBefore(String code){
+            LogicModel logicModel = valueOfCode(code);
+            return null != logicModel && "before".equals(logicModel.type);
+        }
+
         public static boolean isCenter(String code){
-            return "center".equals(LogicModel.valueOf(code.toUpperCase()).type);
+            LogicModel logicModel = valueOfCode(code);
+            return null != logicModel && "center".equals(logicModel.type);
         }
 
         public static boolean isAfter(String code){
-            return "after".equals(LogicModel.valueOf(code.toUpperCase()).type);
+            LogicModel logicModel = valueOfCode(code);
+            return null != logicModel && "after".equals(logicModel.type);
+        }
+
+        // 奖品上可以配置的规则：抽奖中、抽奖后规则，以及发奖规则
+        public static boolean isAwardApplicable(String code){
+            LogicModel logicModel = valueOfCode(code);
+            return null != logicModel && !"before".equals(logicModel.type);
+        }
+
+        // 按规则编码查找；枚举名与编码不完全一致（RULE_WIGHT），未知的规则返回 null
+        public static LogicModel valueOfCode(String code) {
+            for (LogicModel logicModel : values()) {
+                if (logicModel.code.equals(code)) return logicModel;
+            }
+            return null;
         }
 
     }
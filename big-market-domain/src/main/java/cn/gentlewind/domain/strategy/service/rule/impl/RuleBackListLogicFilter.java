@@ -2,12 +2,13 @@ package cn.gentlewind.domain.strategy.service.rule.impl;
 
 import cn.gentlewind.domain.strategy.model.entity.RuleActionEntity;
 import cn.gentlewind.domain.strategy.model.entity.RuleMatterEntity;
+import cn.gentlewind.domain.strategy.model.vo.RuleBlacklistVO;
 import cn.gentlewind.domain.strategy.model.vo.RuleLogicCheckTypeVO;
 import cn.gentlewind.domain.strategy.repository.IStrategyRepository;
 import cn.gentlewind.domain.strategy.service.annotation.LogicStrategy;
 import cn.gentlewind.domain.strategy.service.rule.ILogicFilter;
+import cn.gentlewind.domain.strategy.service.rule.compiler.StrategyRuleCompiler;
 import cn.gentlewind.domain.strategy.service.rule.factory.DefaultLogicFactory;
-import cn.gentlewind.types.common.Constants;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -23,7 +24,11 @@ import javax.annotation.Resource;
 @LogicStrategy(logicMode = DefaultLogicFactory.LogicModel.RULE_BLACKLIST)
 public class RuleBackListLogicFilter implements ILogicFilter<RuleActionEntity.RaffleBeforeEntity> {
 
-    // 提供基础服务
+    // 规则编译器，提供预解析的黑名单
+    @Resource
+    private StrategyRuleCompiler ruleCompiler;
+
+    // 策略仓储，查询大规模黑名单（strategy_blacklist 表装配到 Redis）
     @Resource
     private IStrategyRepository repository;
 
@@ -40,36 +45,25 @@ public class RuleBackListLogicFilter implements ILogicFilter<RuleActionEntity.Ra
         // 从ruleMatterEntity对象中获取用户ID。ruleMatterEntity是一个包含策略相关数据的实体。
         String userId = ruleMatterEntity.getUserId();
 
-        // 从存储库中查询规则值配置。使用策略ID、奖项ID和规则模型作为查询参数。
-        String ruleValue = repository.queryStrategyRuleValue(ruleMatterEntity.getStrategyId(), ruleMatterEntity.getAwardId(), ruleMatterEntity.getRuleModel());
-
-        log.info(ruleValue);
-        // 将查询到的规则值字符串按冒号进行分割，得到一个字符串数组splitRuleValue。
-        String[] splitRuleValue = ruleValue.split(Constants.COLON);
-        // 从splitRuleValue数组中提取第一个元素，并将其转换为整数类型，表示黑名单用户的固定奖品ID。
-        Integer awardId = Integer.parseInt(splitRuleValue[0]);
+        // 取出编译好的黑名单：固定奖品ID + 黑名单用户集合，规则值未变更时不再重复解析
+        RuleBlacklistVO ruleBlacklistVO = ruleCompiler.compileBlacklist(ruleMatterEntity);
 
-        // 从splitRuleValue数组中提取第二个元素，并将其按逗号进行分割，得到一个字符串数组userBlackIds。
-        String[] userBlackIds = splitRuleValue[1].split(Constants.SPLIT);
-        // 遍历黑名单列表的每个黑名单用户id
-        for (String userBlackId : userBlackIds) {
-            // 如果当前用户id与黑名单中的某个用户id匹配
-            if (userId.equals(userBlackId)) {
-                // 创建并返回一个RuleActionEntity对象，表明用户被黑名单规则接管
-                return RuleActionEntity.<RuleActionEntity.RaffleBeforeEntity>builder()
-                        // 设置规则模型为黑名单规则
-                        .ruleModel(DefaultLogicFactory.LogicModel.RULE_BLACKLIST.getCode())
-                        // 设置关联的数据，包括策略id和奖品id
-                        .data(RuleActionEntity.RaffleBeforeEntity.builder()
-                                .strategyId(ruleMatterEntity.getStrategyId())
-                                .awardId(awardId)
-                                .build())
-                        // 设置状态码为TAKE_OVER，表明规则接管
-                        .code(RuleLogicCheckTypeVO.TAKE_OVER.getCode())
-                        .info(RuleLogicCheckTypeVO.TAKE_OVER.getInfo())
-                        // 构建并返回这个RuleActionEntity对象
-                        .build();
-            }
+        // 如果当前用户在黑名单中；先查规则值内联的小名单，再查黑名单表（本地布隆过滤器预判，可能命中时才访问 Redis）
+        if (null != ruleBlacklistVO && (ruleBlacklistVO.contains(userId) || repository.isStrategyBlacklisted(ruleMatterEntity.getStrategyId(), userId))) {
+            // 创建并返回一个RuleActionEntity对象，表明用户被黑名单规则接管
+            return RuleActionEntity.<RuleActionEntity.RaffleBeforeEntity>builder()
+                    // 设置规则模型为黑名单规则
+                    .ruleModel(DefaultLogicFactory.LogicModel.RULE_BLACKLIST.getCode())
+                    // 设置关联的数据，包括策略id和奖品id
+                    .data(RuleActionEntity.RaffleBeforeEntity.builder()
+                            .strategyId(ruleMatterEntity.getStrategyId())
+                            .awardId(ruleBlacklistVO.getAwardId())
+                            .build())
+                    // 设置状态码为TAKE_OVER，表明规则接管
+                    .code(RuleLogicCheckTypeVO.TAKE_OVER.getCode())
+                    .info(RuleLogicCheckTypeVO.TAKE_OVER.getInfo())
+                    // 构建并返回这个RuleActionEntity对象
+                    .build();
         }
 
         // 如果用户ID不在黑名单中，返回一个允许继续的规则动作实体
@@ -2,12 +2,13 @@ package cn.gentlewind.domain.strategy.service.rule.impl;
 
 import cn.gentlewind.domain.strategy.model.entity.RuleActionEntity;
 import cn.gentlewind.domain.strategy.model.entity.RuleMatterEntity;
+import cn.gentlewind.domain.strategy.model.vo.RuleLockVO;
 import cn.gentlewind.domain.strategy.model.vo.RuleLogicCheckTypeVO;
 import cn.gentlewind.domain.strategy.repository.IStrategyRepository;
 import cn.gentlewind.domain.strategy.service.annotation.LogicStrategy;
 import cn.gentlewind.domain.strategy.service.rule.ILogicFilter;
+import cn.gentlewind.domain.strategy.service.rule.compiler.StrategyRuleCompiler;
 import cn.gentlewind.domain.strategy.service.rule.factory.DefaultLogicFactory;
-import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -24,10 +25,11 @@ import javax.annotation.Resource;
 public class RuleLockLogicFilter implements ILogicFilter<RuleActionEntity.RaffleCenterEntity> {
 
     @Resource
-    private IStrategyRepository repository;
+    private StrategyRuleCompiler ruleCompiler;
 
-    // 定义用户目前的抽奖次数，后续从数据库查
-    private Long userRaffleCount = 0L;
+    // 策略仓储，查询用户在策略下的累计抽奖次数
+    @Resource
+    private IStrategyRepository repository;
 
 
     @Override
@@ -36,15 +38,12 @@ public class RuleLockLogicFilter implements ILogicFilter<RuleActionEntity.Raffle
         log.info("规则过滤-次数锁： userId：{} strategyId：{} ruleModel：{}",ruleMatterEntity.getUserId(),
                 ruleMatterEntity.getStrategyId(),ruleMatterEntity.getRuleModel());
 
-        // 查询规则值的配置 rule_lock:1/2/6 表示抽奖次数为1/2/6次后解锁
-        String ruleValue = repository.queryStrategyRuleValue(ruleMatterEntity.getStrategyId(), ruleMatterEntity.getAwardId(), ruleMatterEntity.getRuleModel());
-
-        // 次数为1/2/6
-        long raffleCount = Long.parseLong(ruleValue);
+        // 查询编译好的规则值 rule_lock:1/2/6 表示抽奖次数为1/2/6次后解锁
+        RuleLockVO ruleLockVO = ruleCompiler.compileLock(ruleMatterEntity);
 
         // 规则过滤
-        // 当用户抽奖次数大于规则值，则放行
-        if(userRaffleCount>= raffleCount){
+        // 未配置次数锁，或用户抽奖次数大于规则值，则放行；抽奖流程已带上本次抽奖对应的次数，未带上时查询仓储
+        if (null == ruleLockVO || ruleLockVO.isUnlocked(raffleCount(ruleMatterEntity))) {
             return RuleActionEntity.<RuleActionEntity.RaffleCenterEntity>builder()
                     .code(RuleLogicCheckTypeVO.ALLOW.getCode())
                     .info(RuleLogicCheckTypeVO.ALLOW.getInfo())
@@ -58,4 +57,9 @@ public class RuleLockLogicFilter implements ILogicFilter<RuleActionEntity.Raffle
                 .build();
 
     }
+
+    private long raffleCount(RuleMatterEntity ruleMatterEntity) {
+        if (null != ruleMatterEntity.getRaffleCount()) return ruleMatterEntity.getRaffleCount();
+        return repository.queryUserRaffleCount(ruleMatterEntity.getStrategyId(), ruleMatterEntity.getUserId());
+    }
 }
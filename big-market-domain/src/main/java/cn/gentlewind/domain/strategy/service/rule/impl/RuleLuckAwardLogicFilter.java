@@ -0,0 +1,60 @@
+package cn.gentlewind.domain.strategy.service.rule.impl;
+
+import cn.gentlewind.domain.strategy.model.entity.RuleActionEntity;
+import cn.gentlewind.domain.strategy.model.entity.RuleMatterEntity;
+import cn.gentlewind.domain.strategy.model.vo.RuleLogicCheckTypeVO;
+import cn.gentlewind.domain.strategy.model.vo.RuleLuckAwardVO;
+import cn.gentlewind.domain.strategy.service.annotation.LogicStrategy;
+import cn.gentlewind.domain.strategy.service.rule.ILogicFilter;
+import cn.gentlewind.domain.strategy.service.rule.compiler.StrategyRuleCompiler;
+import cn.gentlewind.domain.strategy.service.rule.factory.DefaultLogicFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 【抽奖后规则】幸运奖（兜底奖品）
+ *
+ * 抽奖中规则拦截了抽到的奖品时执行，返回该奖品配置的兜底奖品；规则值已预先编译，不访问数据库
+ */
+@Slf4j
+@Component
+@LogicStrategy(logicMode = DefaultLogicFactory.LogicModel.RULE_LUCK_AWARD)
+public class RuleLuckAwardLogicFilter implements ILogicFilter<RuleActionEntity.RaffleAfterEntity> {
+
+    @Resource
+    private StrategyRuleCompiler ruleCompiler;
+
+    // 规则值未指定奖品ID（如 1,100）时的兜底奖品，默认 101 随机积分
+    @Value("${big-market.strategy.luck-award.default-award-id:101}")
+    private Integer defaultAwardId;
+
+    @Override
+    public RuleActionEntity<RuleActionEntity.RaffleAfterEntity> filter(RuleMatterEntity ruleMatterEntity) {
+        log.info("规则过滤-兜底奖品 userId:{} strategyId:{} awardId:{} ruleModel:{}", ruleMatterEntity.getUserId(),
+                ruleMatterEntity.getStrategyId(), ruleMatterEntity.getAwardId(), ruleMatterEntity.getRuleModel());
+
+        // 查询编译好的兜底奖品配置
+        RuleLuckAwardVO ruleLuckAwardVO = ruleCompiler.compileLuckAward(ruleMatterEntity);
+        if (null == ruleLuckAwardVO) {
+            return RuleActionEntity.<RuleActionEntity.RaffleAfterEntity>builder()
+                    .code(RuleLogicCheckTypeVO.ALLOW.getCode())
+                    .info(RuleLogicCheckTypeVO.ALLOW.getInfo())
+                    .build();
+        }
+
+        // 规则接管，返回兜底奖品
+        return RuleActionEntity.<RuleActionEntity.RaffleAfterEntity>builder()
+                .ruleModel(DefaultLogicFactory.LogicModel.RULE_LUCK_AWARD.getCode())
+                .data(RuleActionEntity.RaffleAfterEntity.builder()
+                        .awardId(null == ruleLuckAwardVO.getAwardId() ? defaultAwardId : ruleLuckAwardVO.getAwardId())
+                        .awardConfig(ruleLuckAwardVO.getAwardConfig())
+                        .build())
+                .code(RuleLogicCheckTypeVO.TAKE_OVER.getCode())
+                .info(RuleLogicCheckTypeVO.TAKE_OVER.getInfo())
+                .build();
+    }
+
+}
@@ -3,16 +3,16 @@ package cn.gentlewind.domain.strategy.service.rule.impl;
 import cn.gentlewind.domain.strategy.model.entity.RuleActionEntity;
 import cn.gentlewind.domain.strategy.model.entity.RuleMatterEntity;
 import cn.gentlewind.domain.strategy.model.vo.RuleLogicCheckTypeVO;
+import cn.gentlewind.domain.strategy.model.vo.RuleWeightVO;
 import cn.gentlewind.domain.strategy.repository.IStrategyRepository;
 import cn.gentlewind.domain.strategy.service.annotation.LogicStrategy;
 import cn.gentlewind.domain.strategy.service.rule.ILogicFilter;
+import cn.gentlewind.domain.strategy.service.rule.compiler.StrategyRuleCompiler;
 import cn.gentlewind.domain.strategy.service.rule.factory.DefaultLogicFactory;
-import cn.gentlewind.types.common.Constants;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Resource;
-import java.util.*;
 
 @Slf4j
 @Component
@@ -20,9 +20,11 @@ import java.util.*;
 public class RuleWeightLogicFilter implements ILogicFilter<RuleActionEntity.RaffleBeforeEntity> {
 
     @Resource
-    private IStrategyRepository repository;
+    private StrategyRuleCompiler ruleCompiler;
 
-    public Long userScore = 4500L;
+    // 策略仓储，查询用户积分（Redis 计数器，本地短时缓存）
+    @Resource
+    private IStrategyRepository repository;
 
     /**
      * 权重规则过滤；
@@ -36,36 +38,28 @@ public class RuleWeightLogicFilter implements ILogicFilter<RuleActionEntity.Raff
     public RuleActionEntity<RuleActionEntity.RaffleBeforeEntity> filter(RuleMatterEntity ruleMatterEntity) {
         log.info("规则过滤-权重范围 userId:{} strategyId:{} ruleModel:{}", ruleMatterEntity.getUserId(), ruleMatterEntity.getStrategyId(), ruleMatterEntity.getRuleModel());
 
-        // 从ruleMatterEntity中获取用户ID、策略ID，并从repository中查询规则值。
-        String userId = ruleMatterEntity.getUserId();
         Long strategyId = ruleMatterEntity.getStrategyId();
-        String ruleValue = repository.queryStrategyRuleValue(ruleMatterEntity.getStrategyId(), ruleMatterEntity.getAwardId(), ruleMatterEntity.getRuleModel());
 
-
-        // 1. 根据用户ID查询用户抽奖消耗的积分值，本章节我们先写死为固定的值。后续需要从数据库中查询。
-        Map<Long, String> analyticalValueGroup = getAnalyticalValue(ruleValue);
-        if (null == analyticalValueGroup || analyticalValueGroup.isEmpty()) {
+        // 1. 取出编译好的权重门槛，规则值未变更时不再重复解析
+        RuleWeightVO ruleWeightVO = ruleCompiler.compileWeight(ruleMatterEntity);
+        if (null == ruleWeightVO || ruleWeightVO.isEmpty()) {
             return RuleActionEntity.<RuleActionEntity.RaffleBeforeEntity>builder()
                     .code(RuleLogicCheckTypeVO.ALLOW.getCode())
                     .info(RuleLogicCheckTypeVO.ALLOW.getInfo())
                     .build();
         }
 
-        // 2. 转换Keys值，并默认排序
-        List<Long> analyticalSortedKeys = new ArrayList<>(analyticalValueGroup.keySet());
-        Collections.sort(analyticalSortedKeys);
+        // 2. 查询用户积分，通常命中本地缓存
+        long userScore = repository.queryUserScore(ruleMatterEntity.getUserId());
 
-        // 3. 找出最小符合的值，也就是【4500 积分，能找到 4000:102,103,104,105】、【5000 积分，能找到 5000:102,103,104,105,106,107】
-        Long nextValue = analyticalSortedKeys.stream()
-                .filter(key -> userScore >= key)
-                .findFirst()
-                .orElse(null);
+        // 3. 二分查找不超过用户积分的最大门槛，也就是【4500 积分，能找到 4000:102,103,104,105】、【5000 积分，能找到 5000:102,103,104,105,106,107】
+        String ruleWeightValueKey = ruleWeightVO.ruleWeightValueKey(userScore);
         //  如果找到符合条件的值，则返回带有策略ID和规则权重值的规则过滤结果。
-        if (null != nextValue) {
+        if (null != ruleWeightValueKey) {
             return RuleActionEntity.<RuleActionEntity.RaffleBeforeEntity>builder()
                     .data(RuleActionEntity.RaffleBeforeEntity.builder()
                             .strategyId(strategyId)
-                            .ruleWeightValueKey(analyticalValueGroup.get(nextValue))
+                            .ruleWeightValueKey(ruleWeightValueKey)
                             .build())
                     .ruleModel(DefaultLogicFactory.LogicModel.RULE_WIGHT.getCode())
                     .code(RuleLogicCheckTypeVO.TAKE_OVER.getCode())
@@ -79,31 +73,4 @@ public class RuleWeightLogicFilter implements ILogicFilter<RuleActionEntity.Raff
                 .build();
     }
 
-    /**
-     * 解析规则值
-     *
-     * @param ruleValue 规则值
-     * @return 规则值
-     */
-    private Map<Long, String> getAnalyticalValue(String ruleValue) {
-        // 将规则值按空格分割成多个部分。
-        String[] ruleValueGroups = ruleValue.split(Constants.SPACE);
-        // 建一个空的Map用于存储解析后的值。
-        Map<Long, String> ruleValueMap = new HashMap<>();
-        for (String ruleValueKey : ruleValueGroups) {
-            // 检查输入是否为空
-            if (ruleValueKey == null || ruleValueKey.isEmpty()) {
-                return ruleValueMap;
-            }
-            // 分割字符串以获取键和值
-            String[] parts = ruleValueKey.split(Constants.COLON);
-            if (parts.length != 2) {
-                throw new IllegalArgumentException("rule_weight rule_rule invalid input format" + ruleValueKey);
-            }
-            // 将分割后的键和值存入Map中。
-            ruleValueMap.put(Long.parseLong(parts[0]), ruleValueKey);
-        }
-        return ruleValueMap;
-    }
-
 }
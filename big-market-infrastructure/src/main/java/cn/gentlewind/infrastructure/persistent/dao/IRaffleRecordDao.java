@@ -0,0 +1,14 @@
+package cn.gentlewind.infrastructure.persistent.dao;
+
+import cn.gentlewind.infrastructure.persistent.po.RaffleRecordPO;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface IRaffleRecordDao {
+
+    int insertRaffleRecords(@Param("list") List<RaffleRecordPO> raffleRecordPOList);
+
+}
@@ -2,7 +2,9 @@ package cn.gentlewind.infrastructure.persistent.dao;
 
 import cn.gentlewind.infrastructure.persistent.po.StrategyAwardPO;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 @Mapper
 public interface IStrategyAwardDao {
@@ -11,4 +13,8 @@ public interface IStrategyAwardDao {
     List<StrategyAwardPO> queryStrategyAwardListByStrategyId(Long strategyId);
 
     String queryStrategyAwardRuleModels(StrategyAwardPO strategyAwardPO);
+
+    List<StrategyAwardPO> queryStrategyAwardRuleModelsByAwardIds(@Param("strategyId") Long strategyId, @Param("awardIds") Collection<Integer> awardIds);
+
+    List<StrategyAwardPO> queryStrategyAwardListByStrategyIds(@Param("strategyIds") Collection<Long> strategyIds);
 }
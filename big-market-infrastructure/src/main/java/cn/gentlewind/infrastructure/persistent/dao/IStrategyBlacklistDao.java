@@ -0,0 +1,24 @@
+package cn.gentlewind.infrastructure.persistent.dao;
+
+import cn.gentlewind.infrastructure.persistent.po.StrategyBlacklistPO;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+@Mapper
+public interface IStrategyBlacklistDao {
+
+    int queryStrategyBlacklistCount(Long strategyId);
+
+    /**
+     * 按自增ID分页读取黑名单；lastId 为上一页最后一行的ID，不使用 offset，名单再大每页也只扫描 limit 行
+     */
+    List<StrategyBlacklistPO> queryStrategyBlacklistPage(@Param("strategyId") Long strategyId, @Param("lastId") Long lastId, @Param("limit") int limit);
+
+    int insertStrategyBlacklist(@Param("list") List<StrategyBlacklistPO> strategyBlacklistPOList);
+
+    int deleteStrategyBlacklist(@Param("strategyId") Long strategyId, @Param("userIds") Collection<String> userIds);
+
+}
@@ -2,6 +2,9 @@ package cn.gentlewind.infrastructure.persistent.dao;
 
 import cn.gentlewind.infrastructure.persistent.po.StrategyPO;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -9,6 +12,10 @@ public interface IStrategyDao {
 
     List<StrategyPO> queryStrategyList();
 
+    List<Long> queryStrategyIdList();
+
     StrategyPO queryStrategyByStrategyId(Long strategyId);
 
+    List<StrategyPO> queryStrategyListByStrategyIds(@Param("strategyIds") Collection<Long> strategyIds);
+
 }
@@ -2,13 +2,19 @@ package cn.gentlewind.infrastructure.persistent.dao;
 
 import cn.gentlewind.infrastructure.persistent.po.StrategyRulePO;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
 public interface IStrategyRuleDao {
     List<StrategyRulePO> queryStrategyRuleList();
 
+    List<StrategyRulePO> queryStrategyRuleListByStrategyId(Long strategyId);
+
+    List<StrategyRulePO> queryStrategyRuleListByStrategyIds(@Param("strategyIds") Collection<Long> strategyIds);
+
     StrategyRulePO queryStrategyRule(StrategyRulePO strategyRuleReq);
 
     /**
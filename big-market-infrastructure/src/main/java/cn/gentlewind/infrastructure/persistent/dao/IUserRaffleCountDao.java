@@ -0,0 +1,19 @@
+package cn.gentlewind.infrastructure.persistent.dao;
+
+import cn.gentlewind.infrastructure.persistent.po.UserRaffleCountPO;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface IUserRaffleCountDao {
+
+    Long queryUserRaffleCount(@Param("strategyId") Long strategyId, @Param("userId") String userId);
+
+    /**
+     * 批量写入抽奖次数；已有记录取较大值，重复或乱序写入不会让次数回退
+     */
+    int upsertUserRaffleCount(@Param("list") List<UserRaffleCountPO> userRaffleCountPOList);
+
+}
@@ -0,0 +1,30 @@
+package cn.gentlewind.infrastructure.persistent.po;
+
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 抽奖记录表；抽奖后处理异步批量写入
+ */
+@Data
+public class RaffleRecordPO {
+
+    /** 自增ID */
+    private Long id;
+    /** 用户ID */
+    private String userId;
+    /** 抽奖策略ID */
+    private Long strategyId;
+    /** 奖品ID */
+    private Integer awardId;
+    /** 奖品配置信息 */
+    private String awardConfig;
+    /** 抽奖时间 */
+    private Date raffleTime;
+    /** 创建时间 */
+    private Date createTime;
+    /** 更新时间 */
+    private Date updateTime;
+
+}
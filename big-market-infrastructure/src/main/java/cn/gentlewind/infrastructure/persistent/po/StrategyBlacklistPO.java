@@ -0,0 +1,24 @@
+package cn.gentlewind.infrastructure.persistent.po;
+
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 抽奖策略黑名单表；rule_blacklist 的大规模名单，一行一个用户
+ */
+@Data
+public class StrategyBlacklistPO {
+
+    /** 自增ID */
+    private Long id;
+    /** 抽奖策略ID */
+    private Long strategyId;
+    /** 用户ID */
+    private String userId;
+    /** 创建时间 */
+    private Date createTime;
+    /** 更新时间 */
+    private Date updateTime;
+
+}
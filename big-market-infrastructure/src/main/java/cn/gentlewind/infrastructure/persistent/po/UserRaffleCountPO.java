@@ -0,0 +1,26 @@
+package cn.gentlewind.infrastructure.persistent.po;
+
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 用户抽奖次数表；按策略记录用户累计抽奖次数，Redis 计数器的持久化副本
+ */
+@Data
+public class UserRaffleCountPO {
+
+    /** 自增ID */
+    private Long id;
+    /** 抽奖策略ID */
+    private Long strategyId;
+    /** 用户ID */
+    private String userId;
+    /** 累计抽奖次数 */
+    private Long raffleCount;
+    /** 创建时间 */
+    private Date createTime;
+    /** 更新时间 */
+    private Date updateTime;
+
+}
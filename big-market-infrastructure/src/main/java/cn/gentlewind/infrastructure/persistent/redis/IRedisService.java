@@ -2,6 +2,7 @@ package cn.gentlewind.infrastructure.persistent.redis;
 
 
 import org.redisson.api.*;
+import org.redisson.client.codec.Codec;
 
 /**
  * Redis 服务
@@ -13,6 +14,8 @@ import org.redisson.api.*;
  * 4. 状态检查：检查键是否存在
  * 5. 并发控制：可冲如梭，公平锁，读写锁；信号量，闭锁（用于等待多个操作完成）
  * 6. 布隆过滤器锁
+ * 7. 发布订阅：主题
+ * 8. 批量操作：多个命令一次管道发送
  */
 public interface IRedisService {
 
@@ -41,6 +44,24 @@ public interface IRedisService {
      */
     <T> T getValue(String key);
 
+    /**
+     * 设置指定 key 的值，并返回旧值；原子操作
+     *
+     * @param key   键
+     * @param value 值
+     * @return 旧值
+     */
+    <T> T getAndSet(String key, T value);
+
+    /**
+     * 设置指定 key 的过期时间
+     *
+     * @param key     键
+     * @param expired 过期时间（毫秒）
+     * @return key 不存在时返回 false
+     */
+    boolean expire(String key, long expired);
+
     /**
      * 获取队列
      *
@@ -100,6 +121,14 @@ public interface IRedisService {
      */
     long decrBy(String key, long delta);
 
+    /**
+     * 读取计数器的值；与 incr、decr 使用同一种存储格式
+     *
+     * @param key 键
+     * @return 计数值；键不存在时为 0
+     */
+    long getCounter(String key);
+
 
     /**
      * 移除指定 key 的值
@@ -116,6 +145,14 @@ public interface IRedisService {
      */
     boolean isExists(String key);
 
+    /**
+     * 重命名 key，目标 key 已存在时覆盖
+     *
+     * @param key    键
+     * @param newKey 新键
+     */
+    void rename(String key, String newKey);
+
     /**
      * 将指定的值添加到集合中
      *
@@ -133,6 +170,14 @@ public interface IRedisService {
      */
     boolean isSetMember(String key, String value);
 
+    /**
+     * 从集合中移除指定的值
+     *
+     * @param key   键
+     * @param value 值
+     */
+    void removeFromSet(String key, String value);
+
     /**
      * 将指定的值添加到列表中
      *
@@ -150,6 +195,14 @@ public interface IRedisService {
      */
     String getFromList(String key, int index);
 
+    /**
+     * 获取二进制流；支持 GETRANGE/SETRANGE 按偏移读写
+     *
+     * @param key 键
+     * @return RBinaryStream
+     */
+    RBinaryStream getBinaryStream(String key);
+
     /**
      * 获取Map
      *
@@ -253,4 +306,34 @@ public interface IRedisService {
      */
     <T> RBloomFilter<T> getBloomFilter(String key);
 
+    /**
+     * 发布订阅主题
+     *
+     * @param key 键
+     * @return RTopic
+     */
+    RTopic getTopic(String key);
+
+    /**
+     * 客户端默认编解码器
+     *
+     * @return Codec
+     */
+    Codec getCodec();
+
+    /**
+     * 按键前缀注册编解码器；setValue、getValue、getAndSet 读写匹配前缀的键时使用，其余键使用默认编解码器
+     *
+     * @param keyPrefix 键前缀
+     * @param codec     编解码器
+     */
+    void registerCodec(String keyPrefix, Codec codec);
+
+    /**
+     * 创建批量操作；多个命令排队后一次管道发送，减少网络往返
+     *
+     * @return RedisBatch
+     */
+    RedisBatch createBatch();
+
 }
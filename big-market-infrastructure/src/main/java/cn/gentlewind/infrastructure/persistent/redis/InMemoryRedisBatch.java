@@ -0,0 +1,143 @@
+package cn.gentlewind.infrastructure.persistent.redis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Redis 批量操作的内存实现；命令先排队，execute 时按顺序执行，整批只模拟一次网络往返（操作名 batch）
+ */
+public class InMemoryRedisBatch implements RedisBatch {
+
+    private final InMemoryRedisService redisService;
+    private final List<Runnable> commands = new ArrayList<>();
+    private boolean executed;
+
+    InMemoryRedisBatch(InMemoryRedisService redisService) {
+        this.redisService = redisService;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Response<T> getValue(String key) {
+        return queue(() -> (T) redisService.peek(key));
+    }
+
+    @Override
+    public <T> Response<Void> setValue(String key, T value) {
+        return queue(() -> {
+            redisService.put(key, value, 0);
+            return null;
+        });
+    }
+
+    @Override
+    public <T> Response<Void> setValue(String key, T value, long expired) {
+        return queue(() -> {
+            redisService.put(key, value, expired);
+            return null;
+        });
+    }
+
+    @Override
+    public Response<Boolean> isExists(String key) {
+        return queue(() -> redisService.exists(key));
+    }
+
+    @Override
+    public Response<Boolean> remove(String key) {
+        return queue(() -> redisService.delete(key));
+    }
+
+    @Override
+    public Response<Boolean> expire(String key, long expired) {
+        return queue(() -> redisService.touch(key, expired));
+    }
+
+    @Override
+    public <K, V> Response<V> getFromMap(String key, K field) {
+        return queue(() -> redisService.<V>get(key, field));
+    }
+
+    @Override
+    public Response<Boolean> addToSet(String key, String value) {
+        return queue(() -> redisService.<Set<String>>getOrCreate(key, ConcurrentHashMap::newKeySet).add(value));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Response<Boolean> removeFromSet(String key, String value) {
+        return queue(() -> {
+            Set<String> set = (Set<String>) redisService.peek(key);
+            return null != set && set.remove(value);
+        });
+    }
+
+    @Override
+    public Response<Long> incr(String key) {
+        return incrBy(key, 1);
+    }
+
+    @Override
+    public Response<Long> incrBy(String key, long delta) {
+        return queue(() -> redisService.add(key, delta));
+    }
+
+    @Override
+    public Response<Long> decr(String key) {
+        return incrBy(key, -1);
+    }
+
+    @Override
+    public Response<Long> decrBy(String key, long delta) {
+        return incrBy(key, -delta);
+    }
+
+    @Override
+    public Response<Long> getCounter(String key) {
+        return queue(() -> redisService.counter(key));
+    }
+
+    @Override
+    public Response<Long> publish(String topic, Object message) {
+        return queue(() -> redisService.publish(topic, message));
+    }
+
+    @Override
+    public Response<Long> setRange(String key, long offset, byte[] value) {
+        return queue(() -> redisService.setRange(key, offset, value));
+    }
+
+    @Override
+    public Response<byte[]> getRange(String key, long offset, int length) {
+        return queue(() -> redisService.getRange(key, offset, length));
+    }
+
+    @Override
+    public void execute() {
+        if (executed) throw new IllegalStateException("batch already executed");
+        executed = true;
+        if (commands.isEmpty()) return;
+        redisService.latency("batch");
+        for (Runnable command : commands) {
+            command.run();
+        }
+    }
+
+    private <T> Response<T> queue(Supplier<T> command) {
+        if (executed) throw new IllegalStateException("batch already executed");
+        CompletableFuture<T> future = new CompletableFuture<>();
+        commands.add(() -> {
+            try {
+                future.complete(command.get());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return new Response<>(future);
+    }
+
+}
@@ -0,0 +1,744 @@
+package cn.gentlewind.infrastructure.persistent.redis;
+
+import org.redisson.api.RBinaryStream;
+import org.redisson.api.RBlockingQueue;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RCountDownLatch;
+import org.redisson.api.RDelayedQueue;
+import org.redisson.api.RLock;
+import org.redisson.api.RMap;
+import org.redisson.api.RPermitExpirableSemaphore;
+import org.redisson.api.RQueue;
+import org.redisson.api.RReadWriteLock;
+import org.redisson.api.RSemaphore;
+import org.redisson.api.RTopic;
+import org.redisson.api.listener.MessageListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * 内存 Redis 的 Redisson 对象；以 JDK 动态代理实现 RMap、RLock、RTopic 等接口
+ *
+ * 代理方法先按 方法名/参数个数 查找自定义处理，其次转发给 JDK 对象上同签名的方法（ConcurrentHashMap、LinkedBlockingQueue、ReentrantLock、Semaphore），
+ * 都没有时抛 UnsupportedOperationException。每次调用按 接口名.方法名（如 RMap.get）注入延迟。
+ * 占用键的对象（RMap、RQueue、RBlockingQueue、RBinaryStream）不持有内容，每次调用按键查找，键被删除、过期、改名后读到的是当前内容；
+ * 读操作不创建键，内容为空的结构按键不存在处理。
+ * 支持范围：IRedisService 的每个方法都有实现；返回的 Redisson 对象只支持本项目和压测用到的方法，即下列处理和 JDK 同签名转发，
+ * 异步、响应式、监听等其余方法一律抛 UnsupportedOperationException，不静默返回默认值
+ * 1. 锁只在本进程内互斥，leaseTime 不生效；可过期许可信号量的租期生效
+ * 2. 布隆过滤器按精确集合保存，没有误判
+ * 3. 主题消息在发布线程上同步投递给监听者
+ */
+final class InMemoryRedisObjects {
+
+    // 不修改内容的方法；键不存在时按空结构执行，不创建键
+    private static final Set<String> MAP_READ_METHODS = new HashSet<>(Arrays.asList(
+            "get", "getOrDefault", "containsKey", "containsValue", "size", "isEmpty", "keySet", "values", "entrySet", "forEach"));
+    private static final Set<String> QUEUE_READ_METHODS = new HashSet<>(Arrays.asList(
+            "peek", "element", "size", "isEmpty", "contains", "containsAll", "iterator", "toArray", "remainingCapacity"));
+    // 阻塞出队单段等待时间
+    private static final long BLOCKING_POLL_SLICE_MILLIS = 50;
+
+    private final InMemoryRedisService redisService;
+
+    // 锁、信号量、闭锁；不占用 Redis 键
+    private final Map<String, Object> synchronizers = new ConcurrentHashMap<>();
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+    private final Map<List<Object>, Optional<Method>> targetMethods = new ConcurrentHashMap<>();
+    private volatile ScheduledExecutorService delayedQueueScheduler;
+
+    InMemoryRedisObjects(InMemoryRedisService redisService) {
+        this.redisService = redisService;
+    }
+
+    /**
+     * 哈希按键绑定，每次操作重新查找内容；读操作不创建键，delete、过期、rename 之后的写入创建新内容，与 Redis 一致
+     */
+    <K, V> RMap<K, V> map(String key) {
+        Keyed<Map<K, V>> map = new Keyed<>(key, ConcurrentHashMap::new, MAP_READ_METHODS);
+        Map<String, Handler> handlers = keyHandlers(key);
+        handlers.put(signature("fastPut", 2), args -> null == map.write().put(cast(args[0]), cast(args[1])));
+        handlers.put(signature("fastPutIfAbsent", 2), args -> null == map.write().putIfAbsent(cast(args[0]), cast(args[1])));
+        handlers.put(signature("fastRemove", 1), args -> {
+            Map<K, V> current = map.read();
+            long removed = 0;
+            for (Object field : (Object[]) args[0]) {
+                if (null != current.remove(field)) removed++;
+            }
+            return removed;
+        });
+        handlers.put(signature("getAll", 1), args -> {
+            Map<K, V> current = map.read();
+            Map<K, V> result = new HashMap<>();
+            for (Object field : (Set<?>) args[0]) {
+                V value = current.get(field);
+                if (null != value) result.put(cast(field), value);
+            }
+            return result;
+        });
+        handlers.put(signature("readAllMap", 0), args -> new HashMap<>(map.read()));
+        handlers.put(signature("readAllKeySet", 0), args -> new HashSet<>(map.read().keySet()));
+        handlers.put(signature("readAllValues", 0), args -> new ArrayList<>(map.read().values()));
+        handlers.put(signature("addAndGet", 2), args -> map.write().compute(cast(args[0]), (field, value) -> cast(add((Number) value, (Number) args[1]))));
+        return proxy(RMap.class, key, map, handlers);
+    }
+
+    <T> RQueue<T> queue(String key) {
+        Keyed<Queue<T>> queue = new Keyed<>(key, ConcurrentLinkedQueue::new, QUEUE_READ_METHODS);
+        Map<String, Handler> handlers = keyHandlers(key);
+        handlers.put(signature("readAll", 0), args -> new ArrayList<>(queue.read()));
+        return proxy(RQueue.class, key, queue, handlers);
+    }
+
+    /**
+     * 阻塞出队分段等待，每段重新查找队列；等待期间键被删除、重建时改为等待新的队列
+     */
+    <T> RBlockingQueue<T> blockingQueue(String key) {
+        Keyed<LinkedBlockingQueue<T>> queue = new Keyed<>(key, LinkedBlockingQueue::new, QUEUE_READ_METHODS);
+        Map<String, Handler> handlers = keyHandlers(key);
+        handlers.put(signature("readAll", 0), args -> new ArrayList<>(queue.read()));
+        handlers.put(signature("take", 0), args -> {
+            while (true) {
+                T element = queue.write().poll(BLOCKING_POLL_SLICE_MILLIS, TimeUnit.MILLISECONDS);
+                if (null != element) return element;
+            }
+        });
+        handlers.put(signature("poll", 2), args -> {
+            long deadline = System.nanoTime() + ((TimeUnit) args[1]).toNanos((Long) args[0]);
+            while (true) {
+                long remaining = deadline - System.nanoTime();
+                T element = queue.write().poll(Math.max(0, Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(BLOCKING_POLL_SLICE_MILLIS))), TimeUnit.NANOSECONDS);
+                if (null != element || remaining <= 0) return element;
+            }
+        });
+        return proxy(RBlockingQueue.class, key, queue, handlers);
+    }
+
+    <T> RDelayedQueue<T> delayedQueue(RBlockingQueue<T> destination) {
+        Map<String, Handler> handlers = new HashMap<>();
+        handlers.put(signature("offer", 3), args -> {
+            Object element = args[0];
+            delayedQueueScheduler().schedule(() -> destination.offer(cast(element)), (Long) args[1], (TimeUnit) args[2]);
+            return null;
+        });
+        handlers.put(signature("destroy", 0), args -> null);
+        return proxy(RDelayedQueue.class, "redisson_delay_queue:{" + destination.getName() + "}", null, handlers);
+    }
+
+    RLock lock(String key, boolean fair) {
+        ReentrantLock lock = synchronizer(key, () -> new ReentrantLock(fair));
+        return proxy(RLock.class, key, lock, lockHandlers(lock));
+    }
+
+    RReadWriteLock readWriteLock(String key) {
+        ReentrantReadWriteLock readWriteLock = synchronizer(key, ReentrantReadWriteLock::new);
+        RLock readLock = proxy(RLock.class, key + ":read", readWriteLock.readLock(), lockHandlers(readWriteLock.readLock()));
+        RLock writeLock = proxy(RLock.class, key + ":write", readWriteLock.writeLock(), lockHandlers(readWriteLock.writeLock()));
+        Map<String, Handler> handlers = new HashMap<>();
+        handlers.put(signature("readLock", 0), args -> readLock);
+        handlers.put(signature("writeLock", 0), args -> writeLock);
+        return proxy(RReadWriteLock.class, key, null, handlers);
+    }
+
+    RSemaphore semaphore(String key) {
+        Permits permits = synchronizer(key, Permits::new);
+        Map<String, Handler> handlers = new HashMap<>();
+        handlers.put(signature("trySetPermits", 1), args -> {
+            if (!permits.initialized.compareAndSet(false, true)) return false;
+            permits.semaphore.release((Integer) args[0]);
+            return true;
+        });
+        handlers.put(signature("addPermits", 1), args -> {
+            permits.semaphore.release((Integer) args[0]);
+            return null;
+        });
+        return proxy(RSemaphore.class, key, permits.semaphore, handlers);
+    }
+
+    /**
+     * 可过期许可信号量；许可带ID，租期到期后自动归还，与 Redisson 一致。leaseTime 为 -1 时不过期
+     */
+    RPermitExpirableSemaphore permitExpirableSemaphore(String key) {
+        Leases leases = synchronizer(key, Leases::new);
+        Map<String, Handler> handlers = new HashMap<>();
+        handlers.put(signature("trySetPermits", 1), args -> leases.trySetPermits((Integer) args[0]));
+        handlers.put(signature("addPermits", 1), args -> {
+            leases.addPermits((Integer) args[0]);
+            return null;
+        });
+        handlers.put(signature("availablePermits", 0), args -> leases.availablePermits());
+        handlers.put(signature("acquire", 0), args -> leases.tryAcquire(-1, -1));
+        handlers.put(signature("acquire", 2), args -> leases.tryAcquire(-1, millis((Long) args[0], (TimeUnit) args[1])));
+        handlers.put(signature("tryAcquire", 0), args -> leases.tryAcquire(0, -1));
+        handlers.put(signature("tryAcquire", 2), args -> leases.tryAcquire(millis((Long) args[0], (TimeUnit) args[1]), -1));
+        handlers.put(signature("tryAcquire", 3), args -> leases.tryAcquire(millis((Long) args[0], (TimeUnit) args[2]), millis((Long) args[1], (TimeUnit) args[2])));
+        handlers.put(signature("tryRelease", 1), args -> leases.tryRelease((String) args[0]));
+        handlers.put(signature("release", 1), args -> {
+            if (!leases.tryRelease((String) args[0])) {
+                throw new IllegalArgumentException("Permit with id " + args[0] + " has already been released or doesn't exist");
+            }
+            return null;
+        });
+        handlers.put(signature("updateLeaseTime", 3), args -> leases.updateLeaseTime((String) args[0], millis((Long) args[1], (TimeUnit) args[2])));
+        return proxy(RPermitExpirableSemaphore.class, key, null, handlers);
+    }
+
+    RCountDownLatch countDownLatch(String key) {
+        AtomicReference<CountDownLatch> latch = synchronizer(key, () -> new AtomicReference<>(new CountDownLatch(0)));
+        Map<String, Handler> handlers = new HashMap<>();
+        handlers.put(signature("trySetCount", 1), args -> {
+            CountDownLatch current = latch.get();
+            return current.getCount() == 0 && latch.compareAndSet(current, new CountDownLatch(Math.toIntExact((Long) args[0])));
+        });
+        handlers.put(signature("countDown", 0), args -> {
+            latch.get().countDown();
+            return null;
+        });
+        handlers.put(signature("getCount", 0), args -> latch.get().getCount());
+        handlers.put(signature("await", 0), args -> {
+            latch.get().await();
+            return null;
+        });
+        handlers.put(signature("await", 2), args -> latch.get().await((Long) args[0], (TimeUnit) args[1]));
+        return proxy(RCountDownLatch.class, key, null, handlers);
+    }
+
+    <T> RBloomFilter<T> bloomFilter(String key) {
+        Map<String, Handler> handlers = keyHandlers(key);
+        handlers.put(signature("tryInit", 2), args -> redisService.putIfAbsent(key, new BloomFilter((Long) args[0], (Double) args[1])));
+        handlers.put(signature("add", 1), args -> {
+            Set<Object> members = requireBloomFilter(key).members;
+            if (!(args[0] instanceof Collection)) return members.add(args[0]);
+            long added = 0;
+            for (Object element : (Collection<?>) args[0]) {
+                if (members.add(element)) added++;
+            }
+            return added;
+        });
+        handlers.put(signature("contains", 1), args -> {
+            Set<Object> members = requireBloomFilter(key).members;
+            if (!(args[0] instanceof Collection)) return members.contains(args[0]);
+            long contained = 0;
+            for (Object element : (Collection<?>) args[0]) {
+                if (members.contains(element)) contained++;
+            }
+            return contained;
+        });
+        handlers.put(signature("count", 0), args -> (long) requireBloomFilter(key).members.size());
+        handlers.put(signature("getExpectedInsertions", 0), args -> requireBloomFilter(key).expectedInsertions);
+        handlers.put(signature("getFalseProbability", 0), args -> requireBloomFilter(key).falseProbability);
+        return proxy(RBloomFilter.class, key, null, handlers);
+    }
+
+    RTopic topic(String name) {
+        Topic topic = topics.computeIfAbsent(name, Topic::new);
+        Map<String, Handler> handlers = new HashMap<>();
+        handlers.put(signature("addListener", 2), args -> topic.addListener((Class<?>) args[0], (MessageListener<?>) args[1]));
+        handlers.put(signature("publish", 1), args -> topic.publish(args[0]));
+        handlers.put(signature("countListeners", 0), args -> topic.listeners.size());
+        handlers.put(signature("getChannelNames", 0), args -> Collections.singletonList(name));
+        handlers.put(signature("removeAllListeners", 0), args -> {
+            topic.listeners.clear();
+            return null;
+        });
+        handlers.put(signature("removeListener", 1), args -> {
+            if (args[0] instanceof Integer[]) {
+                List<Integer> listenerIds = Arrays.asList((Integer[]) args[0]);
+                topic.listeners.removeIf(listener -> listenerIds.contains(listener.id));
+            } else {
+                topic.listeners.removeIf(listener -> listener.listener == args[0]);
+            }
+            return null;
+        });
+        return proxy(RTopic.class, name, null, handlers);
+    }
+
+    /**
+     * 二进制流按键绑定，每次操作重新查找内容；delete 之后再写入会创建新内容，与 Redis 一致
+     */
+    RBinaryStream binaryStream(String key) {
+        Map<String, Handler> handlers = keyHandlers(key);
+        handlers.put(signature("get", 0), args -> {
+            Bytes bytes = cast(redisService.peek(key));
+            return null == bytes ? null : bytes.snapshot();
+        });
+        handlers.put(signature("set", 1), args -> {
+            byte[] value = (byte[]) args[0];
+            redisService.put(key, new Bytes(Arrays.copyOf(value, value.length)), 0);
+            return null;
+        });
+        handlers.put(signature("size", 0), args -> {
+            Bytes bytes = cast(redisService.peek(key));
+            return null == bytes ? 0L : bytes.size();
+        });
+        handlers.put(signature("getChannel", 0), args -> new BytesChannel(key));
+        return proxy(RBinaryStream.class, key, null, handlers);
+    }
+
+    /**
+     * 按偏移写入二进制流，与 BytesChannel.write 共用同一份内容
+     */
+    long setRange(String key, long offset, byte[] value) {
+        Bytes bytes = redisService.getOrCreate(key, () -> new Bytes(new byte[0]));
+        bytes.write(offset, ByteBuffer.wrap(value));
+        return bytes.size();
+    }
+
+    byte[] getRange(String key, long offset, int length) {
+        Bytes bytes = cast(redisService.peek(key));
+        if (null == bytes) return new byte[0];
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        bytes.read(offset, buffer);
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    long publish(String name, Object message) {
+        Topic topic = topics.get(name);
+        return null == topic ? 0 : topic.publish(message);
+    }
+
+    private Map<String, Handler> keyHandlers(String key) {
+        Map<String, Handler> handlers = new HashMap<>();
+        handlers.put(signature("delete", 0), args -> redisService.delete(key));
+        handlers.put(signature("isExists", 0), args -> redisService.exists(key));
+        return handlers;
+    }
+
+    private Map<String, Handler> lockHandlers(Lock lock) {
+        Map<String, Handler> handlers = new HashMap<>();
+        handlers.put(signature("tryLock", 3), args -> lock.tryLock((Long) args[0], (TimeUnit) args[2]));
+        handlers.put(signature("lock", 2), args -> {
+            lock.lock();
+            return null;
+        });
+        return handlers;
+    }
+
+    private BloomFilter requireBloomFilter(String key) {
+        BloomFilter bloomFilter = cast(redisService.peek(key));
+        if (null == bloomFilter) throw new IllegalStateException("Bloom filter is not initialized!");
+        return bloomFilter;
+    }
+
+    private <T> T synchronizer(String key, Supplier<T> factory) {
+        return cast(synchronizers.computeIfAbsent(key, k -> factory.get()));
+    }
+
+    private ScheduledExecutorService delayedQueueScheduler() {
+        if (null == delayedQueueScheduler) {
+            synchronized (this) {
+                if (null == delayedQueueScheduler) {
+                    delayedQueueScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "in-memory-redis-delayed-queue");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return delayedQueueScheduler;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<?> type, String name, Object target, Map<String, Handler> handlers) {
+        String operationPrefix = type.getSimpleName() + ".";
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object[] arguments = null == args ? new Object[0] : args;
+            if (Object.class == method.getDeclaringClass()) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == arguments[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return type.getSimpleName() + "[" + name + "]";
+                }
+            }
+            if ("getName".equals(method.getName()) && 0 == arguments.length) return name;
+
+            Handler handler = handlers.get(signature(method.getName(), arguments.length));
+            Object targetObject = null == handler ? resolve(target, method) : null;
+            Method targetMethod = null == handler ? targetMethod(targetObject, method) : null;
+            if (null == handler && null == targetMethod) {
+                throw new UnsupportedOperationException("in-memory redis does not support " + operationPrefix + method.getName());
+            }
+
+            redisService.latency(operationPrefix + method.getName());
+            if (null != handler) return handler.handle(arguments);
+            try {
+                return targetMethod.invoke(targetObject, arguments);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    /**
+     * 转发目标；按键绑定的结构每次调用重新查找
+     */
+    private static Object resolve(Object target, Method method) {
+        return target instanceof Keyed ? ((Keyed<?>) target).resolve(method) : target;
+    }
+
+    private Method targetMethod(Object target, Method method) {
+        if (null == target) return null;
+        return targetMethods.computeIfAbsent(Arrays.asList(target.getClass(), method), k -> {
+            try {
+                return Optional.of(target.getClass().getMethod(method.getName(), method.getParameterTypes()));
+            } catch (NoSuchMethodException e) {
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    private static long millis(long time, TimeUnit unit) {
+        return time < 0 ? -1 : unit.toMillis(time);
+    }
+
+    private static String signature(String methodName, int parameterCount) {
+        return methodName + "/" + parameterCount;
+    }
+
+    private static Number add(Number value, Number delta) {
+        if (delta instanceof Double || delta instanceof Float || value instanceof Double || value instanceof Float) {
+            return (null == value ? 0D : value.doubleValue()) + delta.doubleValue();
+        }
+        return (null == value ? 0L : value.longValue()) + delta.longValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    /**
+     * 按键绑定的结构；不持有内容，每次操作从键空间查找，读操作在键不存在时使用一个临时的空结构
+     */
+    private final class Keyed<T> {
+
+        private final String key;
+        private final Supplier<T> factory;
+        private final Set<String> readMethods;
+
+        private Keyed(String key, Supplier<T> factory, Set<String> readMethods) {
+            this.key = key;
+            this.factory = factory;
+            this.readMethods = readMethods;
+        }
+
+        private T read() {
+            T current = cast(redisService.peek(key));
+            return null == current ? factory.get() : current;
+        }
+
+        private T write() {
+            return redisService.getOrCreate(key, factory);
+        }
+
+        private T resolve(Method method) {
+            return readMethods.contains(method.getName()) ? read() : write();
+        }
+
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+
+        Object handle(Object[] args) throws Exception;
+
+    }
+
+    private static final class Permits {
+
+        private final Semaphore semaphore = new Semaphore(0);
+        private final AtomicBoolean initialized = new AtomicBoolean();
+
+    }
+
+    /**
+     * 可过期许可；每次操作先回收到期的租约
+     */
+    private static final class Leases {
+
+        // 许可ID -> 到期时间，0 为不过期
+        private final Map<String, Long> permits = new HashMap<>();
+        private int available;
+        private boolean initialized;
+
+        private synchronized boolean trySetPermits(int count) {
+            if (initialized) return false;
+            initialized = true;
+            available = count;
+            notifyAll();
+            return true;
+        }
+
+        private synchronized void addPermits(int count) {
+            initialized = true;
+            available += count;
+            notifyAll();
+        }
+
+        private synchronized int availablePermits() {
+            reclaim();
+            return available;
+        }
+
+        /**
+         * @param waitMillis  等待时间；-1 一直等待
+         * @param leaseMillis 租期；-1 不过期
+         * @return 许可ID；等待超时返回 null
+         */
+        private synchronized String tryAcquire(long waitMillis, long leaseMillis) throws InterruptedException {
+            long deadline = waitMillis < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + waitMillis;
+            while (true) {
+                reclaim();
+                long now = System.currentTimeMillis();
+                if (available > 0) {
+                    available--;
+                    String permitId = UUID.randomUUID().toString().replace("-", "");
+                    permits.put(permitId, leaseMillis < 0 ? 0L : now + leaseMillis);
+                    return permitId;
+                }
+                if (now >= deadline) return null;
+                // 分段等待，期间到期的租约在下一轮回收
+                wait(Math.min(deadline - now, BLOCKING_POLL_SLICE_MILLIS));
+            }
+        }
+
+        private synchronized boolean tryRelease(String permitId) {
+            reclaim();
+            if (null == permits.remove(permitId)) return false;
+            available++;
+            notifyAll();
+            return true;
+        }
+
+        private synchronized boolean updateLeaseTime(String permitId, long leaseMillis) {
+            reclaim();
+            if (!permits.containsKey(permitId)) return false;
+            permits.put(permitId, leaseMillis < 0 ? 0L : System.currentTimeMillis() + leaseMillis);
+            return true;
+        }
+
+        private void reclaim() {
+            long now = System.currentTimeMillis();
+            Iterator<Long> expireAts = permits.values().iterator();
+            while (expireAts.hasNext()) {
+                long expireAt = expireAts.next();
+                if (0 == expireAt || expireAt > now) continue;
+                expireAts.remove();
+                available++;
+            }
+        }
+
+    }
+
+    private static final class BloomFilter {
+
+        private final Set<Object> members = ConcurrentHashMap.newKeySet();
+        private final long expectedInsertions;
+        private final double falseProbability;
+
+        private BloomFilter(long expectedInsertions, double falseProbability) {
+            this.expectedInsertions = expectedInsertions;
+            this.falseProbability = falseProbability;
+        }
+
+    }
+
+    private static final class Topic {
+
+        private final String name;
+        private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+        private final AtomicInteger listenerIds = new AtomicInteger();
+
+        private Topic(String name) {
+            this.name = name;
+        }
+
+        private int addListener(Class<?> type, MessageListener<?> listener) {
+            Listener registered = new Listener(listenerIds.incrementAndGet(), type, listener);
+            listeners.add(registered);
+            return registered.id;
+        }
+
+        @SuppressWarnings("unchecked")
+        private long publish(Object message) {
+            long receivers = 0;
+            for (Listener registered : listeners) {
+                if (!registered.type.isInstance(message)) continue;
+                ((MessageListener<Object>) registered.listener).onMessage(name, message);
+                receivers++;
+            }
+            return receivers;
+        }
+
+    }
+
+    private static final class Listener {
+
+        private final int id;
+        private final Class<?> type;
+        private final MessageListener<?> listener;
+
+        private Listener(int id, Class<?> type, MessageListener<?> listener) {
+            this.id = id;
+            this.type = type;
+            this.listener = listener;
+        }
+
+    }
+
+    /**
+     * 二进制流内容；按需扩容
+     */
+    private static final class Bytes {
+
+        private byte[] buffer;
+        private int size;
+
+        private Bytes(byte[] bytes) {
+            this.buffer = bytes;
+            this.size = bytes.length;
+        }
+
+        private synchronized byte[] snapshot() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private synchronized long size() {
+            return size;
+        }
+
+        private synchronized int read(long position, ByteBuffer dst) {
+            if (position >= size) return -1;
+            int length = (int) Math.min(dst.remaining(), size - position);
+            dst.put(buffer, (int) position, length);
+            return length;
+        }
+
+        private synchronized int write(long position, ByteBuffer src) {
+            int length = src.remaining();
+            int end = Math.toIntExact(position + length);
+            if (end > buffer.length) buffer = Arrays.copyOf(buffer, Math.max(end, buffer.length * 2));
+            src.get(buffer, (int) position, length);
+            size = Math.max(size, end);
+            return length;
+        }
+
+        private synchronized void truncate(long newSize) {
+            if (newSize < size) size = (int) newSize;
+        }
+
+    }
+
+    /**
+     * 二进制流通道；每次 read、write 对应一次 GETRANGE、SETRANGE，各注入一次延迟
+     */
+    private final class BytesChannel implements SeekableByteChannel {
+
+        private final String key;
+        private long position;
+        private boolean open = true;
+
+        private BytesChannel(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws ClosedChannelException {
+            ensureOpen();
+            redisService.latency("RBinaryStream.read");
+            Bytes bytes = cast(redisService.peek(key));
+            int read = null == bytes ? -1 : bytes.read(position, dst);
+            if (read > 0) position += read;
+            return read;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws ClosedChannelException {
+            ensureOpen();
+            redisService.latency("RBinaryStream.write");
+            Bytes bytes = redisService.getOrCreate(key, () -> new Bytes(new byte[0]));
+            int written = bytes.write(position, src);
+            position += written;
+            return written;
+        }
+
+        @Override
+        public long position() {
+            return position;
+        }
+
+        @Override
+        public SeekableByteChannel position(long newPosition) {
+            this.position = newPosition;
+            return this;
+        }
+
+        @Override
+        public long size() {
+            Bytes bytes = cast(redisService.peek(key));
+            return null == bytes ? 0 : bytes.size();
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size) {
+            Bytes bytes = cast(redisService.peek(key));
+            if (null != bytes) bytes.truncate(size);
+            if (position > size) position = size;
+            return this;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+
+        private void ensureOpen() throws ClosedChannelException {
+            if (!open) throw new ClosedChannelException();
+        }
+
+    }
+
+}
@@ -0,0 +1,378 @@
+package cn.gentlewind.infrastructure.persistent.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.*;
+import org.redisson.client.codec.Codec;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * IRedisService 的内存实现；离线压测时替代 Redis，由 in-memory 配置文件启用
+ *
+ * 1. 所有键共用一个 ConcurrentHashMap，过期时间在访问时惰性检查；remove、isExists、expire 对任意类型的键生效
+ * 2. 值按引用保存，不经过编解码器，读取方拿到的是写入方的同一个对象
+ * 3. RMap、RLock、RTopic 等 Redisson 对象由 InMemoryRedisObjects 以动态代理提供，IRedisService 的方法全部实现；
+ *    返回对象支持的方法见 InMemoryRedisObjects，其余方法抛 UnsupportedOperationException
+ * 4. 每次操作前按 基础延迟 + 随机抖动 阻塞当前线程，模拟网络往返；可按操作名单独配置，如 getValue、RMap.get、batch
+ */
+@Slf4j
+public class InMemoryRedisService implements IRedisService {
+
+    private final Map<String, Entry> data = new ConcurrentHashMap<>();
+    private final InMemoryRedisObjects objects = new InMemoryRedisObjects(this);
+
+    private final long latencyMicros;
+    private final long jitterMicros;
+    private final Map<String, Long> operationLatencyMicros;
+
+    public InMemoryRedisService(long latencyMicros, long jitterMicros, Map<String, Long> operationLatencyMicros) {
+        this.latencyMicros = latencyMicros;
+        this.jitterMicros = jitterMicros;
+        this.operationLatencyMicros = null == operationLatencyMicros ? Collections.emptyMap() : operationLatencyMicros;
+        log.info("内存 Redis 已启用 latency:{}us jitter:{}us operations:{}", latencyMicros, jitterMicros, this.operationLatencyMicros);
+    }
+
+    @Override
+    public <T> void setValue(String key, T value) {
+        latency("setValue");
+        put(key, value, 0);
+    }
+
+    @Override
+    public <T> void setValue(String key, T value, long expired) {
+        latency("setValue");
+        put(key, value, expired);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getValue(String key) {
+        latency("getValue");
+        return (T) peek(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getAndSet(String key, T value) {
+        latency("getAndSet");
+        Entry previous = data.put(key, new Entry(value));
+        return null == previous || previous.isExpired(System.currentTimeMillis()) ? null : (T) previous.value;
+    }
+
+    @Override
+    public RedisBatch createBatch() {
+        return new InMemoryRedisBatch(this);
+    }
+
+    /**
+     * 值按引用保存，没有编解码器
+     */
+    @Override
+    public Codec getCodec() {
+        return null;
+    }
+
+    @Override
+    public void registerCodec(String keyPrefix, Codec codec) {
+        // 值不做序列化，编解码器不生效
+    }
+
+    @Override
+    public boolean expire(String key, long expired) {
+        latency("expire");
+        return touch(key, expired);
+    }
+
+    @Override
+    public <T> RQueue<T> getQueue(String key) {
+        return objects.queue(key);
+    }
+
+    @Override
+    public <T> RBlockingQueue<T> getBlockingQueue(String key) {
+        return objects.blockingQueue(key);
+    }
+
+    @Override
+    public <T> RDelayedQueue<T> getDelayedQueue(RBlockingQueue<T> rBlockingQueue) {
+        return objects.delayedQueue(rBlockingQueue);
+    }
+
+    @Override
+    public long incr(String key) {
+        return incrBy(key, 1);
+    }
+
+    @Override
+    public long incrBy(String key, long delta) {
+        latency("incrBy");
+        return add(key, delta);
+    }
+
+    @Override
+    public long decr(String key) {
+        return incrBy(key, -1);
+    }
+
+    @Override
+    public long decrBy(String key, long delta) {
+        return incrBy(key, -delta);
+    }
+
+    @Override
+    public long getCounter(String key) {
+        latency("getCounter");
+        return counter(key);
+    }
+
+    @Override
+    public void remove(String key) {
+        latency("remove");
+        delete(key);
+    }
+
+    @Override
+    public boolean isExists(String key) {
+        latency("isExists");
+        return exists(key);
+    }
+
+    @Override
+    public void rename(String key, String newKey) {
+        latency("rename");
+        Entry entry = data.remove(key);
+        if (null == entry) throw new IllegalStateException("ERR no such key");
+        data.put(newKey, entry);
+    }
+
+    @Override
+    public void addToSet(String key, String value) {
+        latency("addToSet");
+        this.<Set<String>>getOrCreate(key, ConcurrentHashMap::newKeySet).add(value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean isSetMember(String key, String value) {
+        latency("isSetMember");
+        Set<String> set = (Set<String>) peek(key);
+        return null != set && set.contains(value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void removeFromSet(String key, String value) {
+        latency("removeFromSet");
+        Set<String> set = (Set<String>) peek(key);
+        if (null != set) set.remove(value);
+    }
+
+    @Override
+    public void addToList(String key, String value) {
+        latency("addToList");
+        this.<List<String>>getOrCreate(key, CopyOnWriteArrayList::new).add(value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public String getFromList(String key, int index) {
+        latency("getFromList");
+        List<String> list = (List<String>) peek(key);
+        return null == list || index >= list.size() ? null : list.get(index);
+    }
+
+    @Override
+    public RBinaryStream getBinaryStream(String key) {
+        return objects.binaryStream(key);
+    }
+
+    @Override
+    public <K, V> RMap<K, V> getMap(String key) {
+        return objects.map(key);
+    }
+
+    @Override
+    public void addToMap(String key, String field, String value) {
+        latency("addToMap");
+        this.<Map<String, String>>getOrCreate(key, ConcurrentHashMap::new).put(field, value);
+    }
+
+    @Override
+    public String getFromMap(String key, String field) {
+        latency("getFromMap");
+        return get(key, field);
+    }
+
+    @Override
+    public <K, V> V getFromMap(String key, K field) {
+        latency("getFromMap");
+        return get(key, field);
+    }
+
+    @Override
+    public void addToSortedSet(String key, String value) {
+        latency("addToSortedSet");
+        this.<Set<String>>getOrCreate(key, ConcurrentSkipListSet::new).add(value);
+    }
+
+    @Override
+    public RLock getLock(String key) {
+        return objects.lock(key, false);
+    }
+
+    @Override
+    public RLock getFairLock(String key) {
+        return objects.lock(key, true);
+    }
+
+    @Override
+    public RReadWriteLock getReadWriteLock(String key) {
+        return objects.readWriteLock(key);
+    }
+
+    @Override
+    public RSemaphore getSemaphore(String key) {
+        return objects.semaphore(key);
+    }
+
+    @Override
+    public RPermitExpirableSemaphore getPermitExpirableSemaphore(String key) {
+        return objects.permitExpirableSemaphore(key);
+    }
+
+    @Override
+    public RCountDownLatch getCountDownLatch(String key) {
+        return objects.countDownLatch(key);
+    }
+
+    @Override
+    public <T> RBloomFilter<T> getBloomFilter(String key) {
+        return objects.bloomFilter(key);
+    }
+
+    @Override
+    public RTopic getTopic(String key) {
+        return objects.topic(key);
+    }
+
+    /**
+     * 读取未过期的值；过期的键顺带删除
+     */
+    Object peek(String key) {
+        Entry entry = data.get(key);
+        if (null == entry) return null;
+        if (entry.isExpired(System.currentTimeMillis())) {
+            data.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * 键是否存在；与 Redis 一致，元素全部移除后的集合、哈希、队列按不存在处理
+     */
+    boolean exists(String key) {
+        Object value = peek(key);
+        if (value instanceof Collection) return !((Collection<?>) value).isEmpty();
+        if (value instanceof Map) return !((Map<?, ?>) value).isEmpty();
+        return null != value;
+    }
+
+    /**
+     * 读取或创建键对应的结构；已过期的键按不存在处理
+     */
+    @SuppressWarnings("unchecked")
+    <T> T getOrCreate(String key, Supplier<T> factory) {
+        long now = System.currentTimeMillis();
+        return (T) data.compute(key, (k, entry) -> null == entry || entry.isExpired(now) ? new Entry(factory.get()) : entry).value;
+    }
+
+    @SuppressWarnings("unchecked")
+    <V> V get(String key, Object field) {
+        Map<Object, V> map = (Map<Object, V>) peek(key);
+        return null == map ? null : map.get(field);
+    }
+
+    void put(String key, Object value, long expired) {
+        Entry entry = new Entry(value);
+        if (expired > 0) entry.expireAt = System.currentTimeMillis() + expired;
+        data.put(key, entry);
+    }
+
+    boolean touch(String key, long expired) {
+        long now = System.currentTimeMillis();
+        Entry entry = data.get(key);
+        if (null == entry || entry.isExpired(now)) return false;
+        entry.expireAt = now + expired;
+        return true;
+    }
+
+    long add(String key, long delta) {
+        return this.<AtomicLong>getOrCreate(key, AtomicLong::new).addAndGet(delta);
+    }
+
+    long counter(String key) {
+        AtomicLong counter = (AtomicLong) peek(key);
+        return null == counter ? 0L : counter.get();
+    }
+
+    boolean putIfAbsent(String key, Object value) {
+        long now = System.currentTimeMillis();
+        Entry entry = new Entry(value);
+        return entry == data.compute(key, (k, existing) -> null == existing || existing.isExpired(now) ? entry : existing);
+    }
+
+    long publish(String topic, Object message) {
+        return objects.publish(topic, message);
+    }
+
+    long setRange(String key, long offset, byte[] value) {
+        return objects.setRange(key, offset, value);
+    }
+
+    byte[] getRange(String key, long offset, int length) {
+        return objects.getRange(key, offset, length);
+    }
+
+    boolean delete(String key) {
+        boolean exists = exists(key);
+        data.remove(key);
+        return exists;
+    }
+
+    /**
+     * 模拟一次网络往返；优先使用按操作名配置的延迟
+     */
+    void latency(String operation) {
+        long micros = operationLatencyMicros.getOrDefault(operation, latencyMicros);
+        if (jitterMicros > 0) micros += ThreadLocalRandom.current().nextLong(jitterMicros + 1);
+        if (micros > 0) LockSupport.parkNanos(micros * 1000);
+    }
+
+    private static final class Entry {
+
+        private final Object value;
+        private volatile long expireAt;
+
+        private Entry(Object value) {
+            this.value = value;
+        }
+
+        private boolean isExpired(long now) {
+            return expireAt > 0 && expireAt <= now;
+        }
+
+    }
+
+}
@@ -0,0 +1,86 @@
+package cn.gentlewind.infrastructure.persistent.redis;
+
+import com.google.common.hash.BloomFilter;
+
+import java.util.TreeSet;
+
+/**
+ * 策略黑名单本地布隆过滤器；Guava 布隆过滤器并发写入安全。名单为空时不建过滤器，但仍接收增量加入
+ *
+ * 过滤器带有名单版本：构建时以读到的 Redis 版本号为基准，之后每个加入的用户按广播携带的版本推进。
+ * 版本只推进到连续收到的最大值，中间漏收的广播留下空缺，空缺补上之前过滤器的版本一直落后，由使用方改用 Redis 精确判定。
+ */
+public final class LocalBlacklistFilter {
+
+    private final BloomFilter<CharSequence> bloomFilter;
+    // 名单为空时的增量加入先全部判为可能在名单，由 Redis 精确判定，下次重建时纳入过滤器
+    private volatile boolean pending;
+    // 已连续收到的最大版本；构建读到版本号之前为 -1，不会被当作可信
+    private volatile long version = -1;
+    // 先于空缺到达的版本，空缺补上后一并推进
+    private final TreeSet<Long> aheadVersions = new TreeSet<>();
+    // 上次版本检查时落后的 Redis 版本，仅版本检查线程读写
+    private long laggingVersion;
+
+    /**
+     * @param bloomFilter 布隆过滤器；名单为空时为 null
+     */
+    public LocalBlacklistFilter(BloomFilter<CharSequence> bloomFilter) {
+        this.bloomFilter = bloomFilter;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * 读到构建基准版本；之前先到的加入若不超过基准版本，已由全量读取覆盖
+     *
+     * @param baseVersion 构建开始时的 Redis 名单版本
+     */
+    public synchronized void start(long baseVersion) {
+        version = baseVersion;
+        aheadVersions.headSet(baseVersion, true).clear();
+        advance();
+    }
+
+    /**
+     * 加入用户后再推进版本，版本可信时用户一定已在过滤器中
+     *
+     * @param addedVersion 加入广播携带的版本
+     * @param userId       用户ID
+     */
+    public synchronized void apply(long addedVersion, String userId) {
+        put(userId);
+        if (addedVersion <= version) return;
+        aheadVersions.add(addedVersion);
+        if (version >= 0) advance();
+    }
+
+    private void advance() {
+        while (!aheadVersions.isEmpty() && aheadVersions.first() == version + 1) {
+            version = aheadVersions.pollFirst();
+        }
+    }
+
+    public boolean mightContain(String userId) {
+        return null == bloomFilter ? pending : bloomFilter.mightContain(userId);
+    }
+
+    public void put(String userId) {
+        if (null == bloomFilter) {
+            pending = true;
+            return;
+        }
+        bloomFilter.put(userId);
+    }
+
+    long getLaggingVersion() {
+        return laggingVersion;
+    }
+
+    void setLaggingVersion(long laggingVersion) {
+        this.laggingVersion = laggingVersion;
+    }
+
+}
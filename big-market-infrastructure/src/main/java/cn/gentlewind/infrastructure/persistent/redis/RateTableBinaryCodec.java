@@ -0,0 +1,130 @@
+package cn.gentlewind.infrastructure.persistent.redis;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 概率查找表二进制编码
+ *
+ * 整张查找表打包为一个 Redis 字符串，布局如下：
+ * [1 字节 槽位宽度][2 字节 奖品数量 n][4 字节 * n 奖品ID字典][槽位宽度 * rateRange 槽位]
+ * 槽位里存放的是奖品在字典中的下标而不是奖品ID，奖品不超过 256 个时每个槽位只占 1 字节。
+ * 单次抽奖按 headerLength + rateKey * width 偏移 GETRANGE 读取一个槽位；整表加载只需一次 GET。
+ */
+public final class RateTableBinaryCodec {
+
+    /** 固定头部长度：槽位宽度 + 奖品数量 */
+    public static final int FIXED_HEADER_LENGTH = 3;
+
+    private static final int MAX_AWARD_COUNT = 0xFFFF;
+
+    private RateTableBinaryCodec() {
+    }
+
+    /**
+     * 编码查找表
+     *
+     * @param rateTable 查找表；下标为 rateKey，值为奖品ID
+     * @return 二进制数据
+     */
+    public static byte[] encode(int[] rateTable) {
+        // 1. 构建奖品ID字典
+        Map<Integer, Integer> awardIndex = new LinkedHashMap<>();
+        for (int awardId : rateTable) {
+            if (!awardIndex.containsKey(awardId)) {
+                awardIndex.put(awardId, awardIndex.size());
+            }
+        }
+        if (awardIndex.size() > MAX_AWARD_COUNT) {
+            throw new IllegalArgumentException("rate table award count exceeds " + MAX_AWARD_COUNT + ": " + awardIndex.size());
+        }
+        int width = awardIndex.size() <= 256 ? 1 : 2;
+
+        // 2. 写入头部
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_HEADER_LENGTH + 4 * awardIndex.size() + width * rateTable.length);
+        buffer.put((byte) width);
+        buffer.putShort((short) awardIndex.size());
+        for (Integer awardId : awardIndex.keySet()) {
+            buffer.putInt(awardId);
+        }
+
+        // 3. 写入槽位
+        for (int awardId : rateTable) {
+            int index = awardIndex.get(awardId);
+            if (1 == width) {
+                buffer.put((byte) index);
+            } else {
+                buffer.putShort((short) index);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * 解码整张查找表
+     *
+     * @param bytes 二进制数据
+     * @return 查找表；下标为 rateKey，值为奖品ID
+     */
+    public static int[] decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        Header header = decodeHeader(buffer);
+        int[] rateTable = new int[(bytes.length - header.headerLength()) / header.getWidth()];
+        for (int i = 0; i < rateTable.length; i++) {
+            rateTable[i] = header.awardId(readIndex(buffer, header.getWidth()));
+        }
+        return rateTable;
+    }
+
+    /**
+     * 解码头部；buffer 至少包含完整头部
+     */
+    public static Header decodeHeader(ByteBuffer buffer) {
+        int width = buffer.get();
+        int awardCount = buffer.getShort() & 0xFFFF;
+        int[] awardIds = new int[awardCount];
+        for (int i = 0; i < awardCount; i++) {
+            awardIds[i] = buffer.getInt();
+        }
+        return new Header(width, awardIds);
+    }
+
+    /**
+     * 从当前位置读取一个槽位中的奖品下标
+     */
+    public static int readIndex(ByteBuffer buffer, int width) {
+        return 1 == width ? buffer.get() & 0xFF : buffer.getShort() & 0xFFFF;
+    }
+
+    /**
+     * 查找表头部；奖品字典在装配后不可变，可以在本地缓存后配合 GETRANGE 单槽位读取
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Header {
+
+        private final int width;
+        private final int[] awardIds;
+
+        public int headerLength() {
+            return FIXED_HEADER_LENGTH + 4 * awardIds.length;
+        }
+
+        public int awardId(int index) {
+            return awardIds[index];
+        }
+
+        /**
+         * 槽位在二进制数据中的偏移量
+         */
+        public long offset(int rateKey) {
+            return headerLength() + (long) rateKey * width;
+        }
+
+    }
+
+}
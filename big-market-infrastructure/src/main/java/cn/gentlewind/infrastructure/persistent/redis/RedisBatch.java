@@ -0,0 +1,85 @@
+package cn.gentlewind.infrastructure.persistent.redis;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Redis 批量操作；命令先排队，execute 时一次发送
+ *
+ * 每个排队方法返回一个 Response，execute 之后用 get 取出对应的类型化结果。
+ */
+public interface RedisBatch {
+
+    <T> Response<T> getValue(String key);
+
+    <T> Response<Void> setValue(String key, T value);
+
+    <T> Response<Void> setValue(String key, T value, long expired);
+
+    Response<Boolean> isExists(String key);
+
+    Response<Boolean> remove(String key);
+
+    Response<Boolean> expire(String key, long expired);
+
+    <K, V> Response<V> getFromMap(String key, K field);
+
+    Response<Boolean> addToSet(String key, String value);
+
+    Response<Boolean> removeFromSet(String key, String value);
+
+    Response<Long> incr(String key);
+
+    Response<Long> incrBy(String key, long delta);
+
+    Response<Long> decr(String key);
+
+    Response<Long> decrBy(String key, long delta);
+
+    Response<Long> getCounter(String key);
+
+    Response<Long> publish(String topic, Object message);
+
+    /**
+     * 按偏移覆盖写入二进制值，对应 SETRANGE；键不存在时创建
+     *
+     * @param key    键
+     * @param offset 偏移
+     * @param value  写入的字节
+     * @return 写入后的总长度
+     */
+    Response<Long> setRange(String key, long offset, byte[] value);
+
+    /**
+     * 按偏移读取二进制值，对应 GETRANGE；超出长度的部分不返回
+     *
+     * @param key    键
+     * @param offset 偏移
+     * @param length 读取长度
+     * @return 读取的字节；键不存在时为空数组
+     */
+    Response<byte[]> getRange(String key, long offset, int length);
+
+    /**
+     * 一次发送全部排队的命令；没有命令时不访问 Redis
+     */
+    void execute();
+
+    /**
+     * 排队命令的结果；execute 之后可读
+     */
+    final class Response<T> {
+
+        private final CompletableFuture<T> future;
+
+        public Response(CompletableFuture<T> future) {
+            this.future = future;
+        }
+
+        public T get() {
+            if (!future.isDone()) throw new IllegalStateException("batch not executed");
+            return future.join();
+        }
+
+    }
+
+}
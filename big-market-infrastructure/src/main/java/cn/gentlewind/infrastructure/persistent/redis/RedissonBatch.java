@@ -0,0 +1,147 @@
+package cn.gentlewind.infrastructure.persistent.redis;
+
+import org.redisson.api.RBatch;
+import org.redisson.api.RBucketAsync;
+import org.redisson.api.RFuture;
+import org.redisson.api.RScript;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.Codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Redis 批量操作的 Redisson 实现；基于 RBatch，命令先排队，execute 时通过一次管道发送
+ *
+ * 值的读写与 RedissonService 一致，按键前缀使用注册的编解码器。
+ */
+public class RedissonBatch implements RedisBatch {
+
+    // RBatch 没有二进制流对象，按范围读写经脚本排入同一个管道；参数按 ByteArrayCodec 原样发送
+    private static final String SETRANGE_SCRIPT = "return redis.call('setrange', KEYS[1], ARGV[1], ARGV[2])";
+    private static final String GETRANGE_SCRIPT = "return redis.call('getrange', KEYS[1], ARGV[1], ARGV[2])";
+
+    private final RBatch batch;
+    private final Function<String, Codec> codecResolver;
+    private int commandCount;
+    private boolean executed;
+
+    RedissonBatch(RBatch batch, Function<String, Codec> codecResolver) {
+        this.batch = batch;
+        this.codecResolver = codecResolver;
+    }
+
+    @Override
+    public <T> Response<T> getValue(String key) {
+        return queue(this.<T>getBucket(key).getAsync());
+    }
+
+    @Override
+    public <T> Response<Void> setValue(String key, T value) {
+        return queue(this.<T>getBucket(key).setAsync(value));
+    }
+
+    @Override
+    public <T> Response<Void> setValue(String key, T value, long expired) {
+        return queue(this.<T>getBucket(key).setAsync(value, expired, TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public Response<Boolean> isExists(String key) {
+        return queue(batch.getBucket(key).isExistsAsync());
+    }
+
+    @Override
+    public Response<Boolean> remove(String key) {
+        return queue(batch.getBucket(key).deleteAsync());
+    }
+
+    @Override
+    public Response<Boolean> expire(String key, long expired) {
+        return queue(batch.getBucket(key).expireAsync(Duration.ofMillis(expired)));
+    }
+
+    @Override
+    public <K, V> Response<V> getFromMap(String key, K field) {
+        return queue(batch.<K, V>getMap(key).getAsync(field));
+    }
+
+    @Override
+    public Response<Boolean> addToSet(String key, String value) {
+        return queue(batch.<String>getSet(key).addAsync(value));
+    }
+
+    @Override
+    public Response<Boolean> removeFromSet(String key, String value) {
+        return queue(batch.<String>getSet(key).removeAsync(value));
+    }
+
+    @Override
+    public Response<Long> incr(String key) {
+        return queue(batch.getAtomicLong(key).incrementAndGetAsync());
+    }
+
+    @Override
+    public Response<Long> incrBy(String key, long delta) {
+        return queue(batch.getAtomicLong(key).addAndGetAsync(delta));
+    }
+
+    @Override
+    public Response<Long> decr(String key) {
+        return queue(batch.getAtomicLong(key).decrementAndGetAsync());
+    }
+
+    @Override
+    public Response<Long> decrBy(String key, long delta) {
+        return queue(batch.getAtomicLong(key).addAndGetAsync(-delta));
+    }
+
+    @Override
+    public Response<Long> getCounter(String key) {
+        return queue(batch.getAtomicLong(key).getAsync());
+    }
+
+    @Override
+    public Response<Long> publish(String topic, Object message) {
+        return queue(batch.getTopic(topic).publishAsync(message));
+    }
+
+    @Override
+    public Response<Long> setRange(String key, long offset, byte[] value) {
+        return queue(batch.getScript(ByteArrayCodec.INSTANCE).evalAsync(RScript.Mode.READ_WRITE, SETRANGE_SCRIPT, RScript.ReturnType.INTEGER,
+                Collections.singletonList(key), argument(offset), value));
+    }
+
+    @Override
+    public Response<byte[]> getRange(String key, long offset, int length) {
+        return queue(batch.getScript(ByteArrayCodec.INSTANCE).evalAsync(RScript.Mode.READ_ONLY, GETRANGE_SCRIPT, RScript.ReturnType.VALUE,
+                Collections.singletonList(key), argument(offset), argument(offset + length - 1)));
+    }
+
+    @Override
+    public void execute() {
+        if (executed) throw new IllegalStateException("batch already executed");
+        executed = true;
+        if (0 == commandCount) return;
+        batch.execute();
+    }
+
+    private <T> RBucketAsync<T> getBucket(String key) {
+        Codec codec = codecResolver.apply(key);
+        return null == codec ? batch.getBucket(key) : batch.getBucket(key, codec);
+    }
+
+    private static byte[] argument(long value) {
+        return String.valueOf(value).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private <T> Response<T> queue(RFuture<T> future) {
+        if (executed) throw new IllegalStateException("batch already executed");
+        commandCount++;
+        return new Response<>(future.toCompletableFuture());
+    }
+
+}
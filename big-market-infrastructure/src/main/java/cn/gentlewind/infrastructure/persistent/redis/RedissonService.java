@@ -1,32 +1,78 @@
 package cn.gentlewind.infrastructure.persistent.redis;
 
 import org.redisson.api.*;
+import org.redisson.client.codec.Codec;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import javax.annotation.Resource;
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
- * IRedisService实现类
+ * IRedisService实现类；in-memory 配置文件下由 InMemoryRedisService 替代
  *
  */
 @Service("redissonService")
+@Profile("!in-memory")
 public class RedissonService implements IRedisService {
 
     @Resource
     private RedissonClient redissonClient;
 
+    // 键前缀 -> 编解码器
+    private final Map<String, Codec> keyPrefixCodecs = new ConcurrentHashMap<>();
+
     public <T> void setValue(String key, T value) {
-        redissonClient.<T>getBucket(key).set(value);
+        this.<T>getBucket(key).set(value);
     }
 
     @Override
     public <T> void setValue(String key, T value, long expired) {
-        RBucket<T> bucket = redissonClient.getBucket(key);
+        RBucket<T> bucket = getBucket(key);
         bucket.set(value, Duration.ofMillis(expired));
     }
 
     public <T> T getValue(String key) {
-        return redissonClient.<T>getBucket(key).get();
+        return this.<T>getBucket(key).get();
+    }
+
+    @Override
+    public <T> T getAndSet(String key, T value) {
+        return this.<T>getBucket(key).getAndSet(value);
+    }
+
+    private <T> RBucket<T> getBucket(String key) {
+        Codec codec = codecOf(key);
+        return null == codec ? redissonClient.getBucket(key) : redissonClient.getBucket(key, codec);
+    }
+
+    private Codec codecOf(String key) {
+        for (Map.Entry<String, Codec> keyPrefixCodec : keyPrefixCodecs.entrySet()) {
+            if (key.startsWith(keyPrefixCodec.getKey())) return keyPrefixCodec.getValue();
+        }
+        return null;
+    }
+
+    @Override
+    public RedisBatch createBatch() {
+        return new RedissonBatch(redissonClient.createBatch(), this::codecOf);
+    }
+
+    @Override
+    public Codec getCodec() {
+        return redissonClient.getConfig().getCodec();
+    }
+
+    @Override
+    public void registerCodec(String keyPrefix, Codec codec) {
+        keyPrefixCodecs.put(keyPrefix, codec);
+    }
+
+    @Override
+    public boolean expire(String key, long expired) {
+        return redissonClient.getKeys().expire(key, expired, TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -64,6 +110,11 @@ public class RedissonService implements IRedisService {
         return redissonClient.getAtomicLong(key).addAndGet(-delta);
     }
 
+    @Override
+    public long getCounter(String key) {
+        return redissonClient.getAtomicLong(key).get();
+    }
+
     @Override
     public void remove(String key) {
         redissonClient.getBucket(key).delete();
@@ -74,6 +125,11 @@ public class RedissonService implements IRedisService {
         return redissonClient.getBucket(key).isExists();
     }
 
+    @Override
+    public void rename(String key, String newKey) {
+        redissonClient.getKeys().rename(key, newKey);
+    }
+
     public void addToSet(String key, String value) {
         RSet<String> set = redissonClient.getSet(key);
         set.add(value);
@@ -84,6 +140,12 @@ public class RedissonService implements IRedisService {
         return set.contains(value);
     }
 
+    @Override
+    public void removeFromSet(String key, String value) {
+        RSet<String> set = redissonClient.getSet(key);
+        set.remove(value);
+    }
+
     public void addToList(String key, String value) {
         RList<String> list = redissonClient.getList(key);
         list.add(value);
@@ -94,6 +156,11 @@ public class RedissonService implements IRedisService {
         return list.get(index);
     }
 
+    @Override
+    public RBinaryStream getBinaryStream(String key) {
+        return redissonClient.getBinaryStream(key);
+    }
+
     @Override
     public <K, V> RMap<K, V> getMap(String key) {
         return redissonClient.getMap(key);
@@ -154,5 +221,10 @@ public class RedissonService implements IRedisService {
         return redissonClient.getBloomFilter(key);
     }
 
+    @Override
+    public RTopic getTopic(String key) {
+        return redissonClient.getTopic(key);
+    }
+
 
 }
@@ -0,0 +1,117 @@
+package cn.gentlewind.infrastructure.persistent.redis;
+
+import cn.gentlewind.types.common.Constants;
+import cn.gentlewind.types.enums.ResponseCode;
+import cn.gentlewind.types.exception.AppException;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 缓存未命中时的合并加载（single-flight）
+ *
+ * 同一个键同时只有一个线程执行加载，其余线程等待它的结果，避免缓存过期瞬间所有请求同时回源数据库。
+ * 1. 本节点内按键合并；加载结束即移除，失败结果不保留，下一次请求重新加载
+ * 2. 开启 distributed 后，加载线程还需获取 Redisson 分布式锁，多个节点同一时间只有一个回源；
+ *    加载函数应在回源前再读一次 Redis，拿到锁的后来者可直接使用先到节点回填的结果
+ * 3. 等待结果和等待分布式锁都不超过 wait-millis，超时抛出 AppException，不无限挂起请求线程
+ */
+@Slf4j
+@Component
+public class SingleFlightLoader {
+
+    @Resource
+    private IRedisService redisService;
+
+    // 是否启用跨节点的分布式锁
+    @Value("${big-market.strategy.single-flight.distributed:false}")
+    private boolean distributed;
+
+    // 等待加载结果、等待分布式锁的最长时间
+    @Value("${big-market.strategy.single-flight.wait-millis:3000}")
+    private long waitMillis;
+
+    // 分布式锁租期；加载线程异常退出时锁到期自动释放
+    @Value("${big-market.strategy.single-flight.lease-millis:10000}")
+    private long leaseMillis;
+
+    // 键 -> 进行中的加载
+    private final Map<String, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>();
+
+    /**
+     * 合并加载
+     *
+     * @param key    加载键，一般为缓存键
+     * @param loader 加载函数
+     * @return 加载结果，可能为 null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String key, Supplier<T> loader) {
+        CompletableFuture<Object> inFlightLoad = new CompletableFuture<>();
+        CompletableFuture<Object> existingLoad = inFlightLoads.putIfAbsent(key, inFlightLoad);
+        if (null != existingLoad) {
+            return (T) await(key, existingLoad);
+        }
+
+        try {
+            T value = loadExclusively(key, loader);
+            inFlightLoad.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            inFlightLoad.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(key, inFlightLoad);
+        }
+    }
+
+    private Object await(String key, CompletableFuture<Object> inFlightLoad) {
+        try {
+            return inFlightLoad.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("等待合并加载超时 key:{} waitMillis:{}", key, waitMillis);
+            throw new AppException(ResponseCode.STRATEGY_CACHE_LOAD_TIMEOUT.getCode(), ResponseCode.STRATEGY_CACHE_LOAD_TIMEOUT.getInfo());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException(ResponseCode.UN_ERROR.getCode(), ResponseCode.UN_ERROR.getInfo(), e);
+        } catch (ExecutionException e) {
+            // 加载线程的异常原样抛给等待线程；失败不缓存，下一次请求重新加载
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new AppException(ResponseCode.UN_ERROR.getCode(), ResponseCode.UN_ERROR.getInfo(), cause);
+        }
+    }
+
+    private <T> T loadExclusively(String key, Supplier<T> loader) {
+        if (!distributed) return loader.get();
+
+        RLock lock = redisService.getLock(Constants.RedisKey.STRATEGY_LOAD_LOCK_KEY + key);
+        boolean locked;
+        try {
+            locked = lock.tryLock(waitMillis, leaseMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException(ResponseCode.UN_ERROR.getCode(), ResponseCode.UN_ERROR.getInfo(), e);
+        }
+        if (!locked) {
+            log.warn("等待分布式加载锁超时 key:{} waitMillis:{}", key, waitMillis);
+            throw new AppException(ResponseCode.STRATEGY_CACHE_LOAD_TIMEOUT.getCode(), ResponseCode.STRATEGY_CACHE_LOAD_TIMEOUT.getInfo());
+        }
+        try {
+            return loader.get();
+        } finally {
+            if (lock.isHeldByCurrentThread()) lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,341 @@
+package cn.gentlewind.infrastructure.persistent.redis;
+
+import cn.gentlewind.infrastructure.persistent.dao.IStrategyBlacklistDao;
+import cn.gentlewind.infrastructure.persistent.po.StrategyBlacklistPO;
+import cn.gentlewind.types.common.Constants;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 策略黑名单存储；名单存放在 strategy_blacklist 表，按策略写入 Redis 集合，本地布隆过滤器预判
+ *
+ * 1. 装配：按自增ID分页流式读取名单，分批 SADD 到临时集合后整体替换，装配期间旧名单照常可用
+ * 2. 判定：本地布隆过滤器判定不在名单的用户直接放行，不访问 Redis；判定可能在名单的再用 SISMEMBER 精确确认，结果短时间缓存在本地
+ * 3. 增删：写库后逐个 SADD、SREM，并广播变更，各节点把用户加入本地布隆过滤器、丢弃本地判定结果，不需要重新装配
+ * 本地布隆过滤器由专用的单线程在后台从数据库构建，请求线程不做全量读取：过滤器就绪前的判定全部走 SISMEMBER；
+ * 移除的用户留在过滤器中，由 Redis 精确判定。
+ *
+ * 布隆过滤器不能漏判，名单按策略维护一个 Redis 版本号：每个加入的用户、每次整体装配各占一个版本，随广播下发。
+ * 过滤器记录连续收到的最大版本，构建时先登记再读版本、读名单，构建期间收到的加入同时写入新旧过滤器；
+ * 过滤器版本落后于已知版本（漏收广播、整体重新装配）时不再信任过滤器，判定走 SISMEMBER，并在后台重建。
+ * 已知版本由广播和按周期读取 Redis 版本号更新，漏收广播导致的漏判不超过一个检查周期。
+ */
+@Slf4j
+@Component
+public class StrategyBlacklistStore {
+
+    @Resource
+    private IRedisService redisService;
+
+    @Resource
+    private IStrategyBlacklistDao strategyBlacklistDao;
+
+    // 流式读取、批量写入 Redis 的每批数量
+    @Value("${big-market.strategy.blacklist.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    // 本地布隆过滤器误判率；误判的用户多一次 Redis 精确判定
+    @Value("${big-market.strategy.blacklist.false-probability:0.001}")
+    private double falseProbability;
+
+    // 本地布隆过滤器后台重建周期
+    @Value("${big-market.strategy.blacklist.refresh-seconds:600}")
+    private long refreshSeconds;
+
+    // 本地判定结果缓存容量
+    @Value("${big-market.strategy.blacklist.member-maximum-size:100000}")
+    private long memberMaximumSize;
+
+    // 本地判定结果缓存过期时间
+    @Value("${big-market.strategy.blacklist.member-expire-seconds:30}")
+    private long memberExpireSeconds;
+
+    // 读取 Redis 名单版本号的周期；即漏收广播时本地过滤器可能漏判的最长时间
+    @Value("${big-market.strategy.blacklist.version-check-seconds:5}")
+    private long versionCheckSeconds;
+
+    // 策略ID -> 已就绪的本地布隆过滤器
+    private final Map<Long, LocalBlacklistFilter> localBlacklists = new ConcurrentHashMap<>();
+    // 策略ID -> 构建中的本地布隆过滤器，构建期间的加入同时写入
+    private final Map<Long, LocalBlacklistFilter> buildingBlacklists = new ConcurrentHashMap<>();
+    // 策略ID -> 已知的名单版本
+    private final Map<Long, Long> knownVersions = new ConcurrentHashMap<>();
+    // 已排队、尚未开始读取名单的构建任务，同一策略不重复排队
+    private final Map<Long, Boolean> queuedBuilds = new ConcurrentHashMap<>();
+    // 策略ID_用户ID -> Redis 精确判定结果
+    private Cache<String, Boolean> memberCache;
+    // 布隆过滤器构建单线程执行，全量读取不占用请求线程和共享线程池
+    private ScheduledExecutorService blacklistBuilder;
+
+    @PostConstruct
+    public void init() {
+        blacklistBuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "strategy-blacklist-build");
+            thread.setDaemon(true);
+            return thread;
+        });
+        blacklistBuilder.scheduleWithFixedDelay(() -> localBlacklists.keySet().forEach(this::build), refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        blacklistBuilder.scheduleWithFixedDelay(this::checkVersions, versionCheckSeconds, versionCheckSeconds, TimeUnit.SECONDS);
+        memberCache = CacheBuilder.newBuilder()
+                .maximumSize(memberMaximumSize)
+                .expireAfterWrite(memberExpireSeconds, TimeUnit.SECONDS)
+                .build();
+        // 名单变更广播：strategyId_version_userId
+        redisService.getTopic(Constants.RedisKey.STRATEGY_BLACKLIST_TOPIC).addListener(String.class, (channel, message) -> onChanged(message));
+    }
+
+    /**
+     * 装配策略黑名单；从数据库流式读取，写入临时集合后替换正式集合，再广播各节点在后台重建本地布隆过滤器
+     *
+     * @param strategyId  策略ID
+     * @param reassemble  true 时全量重新装配（运营操作）；false 时 Redis 已有名单则跳过（查找表装配、启动预热），只预先构建本节点的布隆过滤器
+     */
+    public void assemble(Long strategyId, boolean reassemble) {
+        String cacheKey = Constants.RedisKey.STRATEGY_BLACKLIST_KEY + strategyId;
+        if (reassemble || !redisService.isExists(cacheKey)) {
+            String loadingKey = cacheKey + "_loading";
+            redisService.remove(loadingKey);
+            long count = scan(strategyId, userIds -> {
+                RedisBatch batch = redisService.createBatch();
+                for (String userId : userIds) {
+                    batch.addToSet(loadingKey, userId);
+                }
+                batch.execute();
+            });
+            if (0 == count) {
+                redisService.remove(cacheKey);
+            } else {
+                redisService.rename(loadingKey, cacheKey);
+            }
+            long version = redisService.incr(Constants.RedisKey.STRATEGY_BLACKLIST_VERSION_KEY + strategyId);
+            redisService.getTopic(Constants.RedisKey.STRATEGY_BLACKLIST_TOPIC).publish(message(strategyId, version, ""));
+            log.info("策略黑名单装配完成 strategyId:{} count:{}", strategyId, count);
+        }
+        if (!localBlacklists.containsKey(strategyId)) build(strategyId);
+    }
+
+    /**
+     * 判定用户是否在策略黑名单中；本地布隆过滤器未就绪或版本落后时不使用过滤器，本次直接由 Redis 精确判定
+     *
+     * @param strategyId 策略ID
+     * @param userId     用户ID
+     * @return 在名单中返回 true
+     */
+    public boolean contains(Long strategyId, String userId) {
+        LocalBlacklistFilter localBlacklist = localBlacklists.get(strategyId);
+        if (null == localBlacklist) {
+            build(strategyId);
+        } else if (localBlacklist.version() >= knownVersions.getOrDefault(strategyId, 0L) && !localBlacklist.mightContain(userId)) {
+            return false;
+        }
+
+        String member = member(strategyId, userId);
+        Boolean contained = memberCache.getIfPresent(member);
+        if (null != contained) return contained;
+        contained = redisService.isSetMember(Constants.RedisKey.STRATEGY_BLACKLIST_KEY + strategyId, userId);
+        memberCache.put(member, contained);
+        return contained;
+    }
+
+    /**
+     * 增量加入黑名单；写库、写 Redis 后广播，不需要重新装配
+     *
+     * @param strategyId 策略ID
+     * @param userIds    用户ID
+     */
+    public void add(Long strategyId, Collection<String> userIds) {
+        for (List<String> partition : Lists.partition(new ArrayList<>(userIds), loadBatchSize)) {
+            List<StrategyBlacklistPO> strategyBlacklistPOList = new ArrayList<>(partition.size());
+            for (String userId : partition) {
+                StrategyBlacklistPO strategyBlacklistPO = new StrategyBlacklistPO();
+                strategyBlacklistPO.setStrategyId(strategyId);
+                strategyBlacklistPO.setUserId(userId);
+                strategyBlacklistPOList.add(strategyBlacklistPO);
+            }
+            strategyBlacklistDao.insertStrategyBlacklist(strategyBlacklistPOList);
+            // 写库之后再占用版本，构建时先读版本再读名单，读到这批版本的构建一定能读到这批用户
+            long lastVersion = redisService.incrBy(Constants.RedisKey.STRATEGY_BLACKLIST_VERSION_KEY + strategyId, partition.size());
+            changed(strategyId, partition, lastVersion - partition.size() + 1);
+        }
+        log.info("策略黑名单增量加入 strategyId:{} count:{}", strategyId, userIds.size());
+    }
+
+    /**
+     * 增量移出黑名单；本地布隆过滤器无法删除，移出的用户由 Redis 精确判定放行
+     *
+     * @param strategyId 策略ID
+     * @param userIds    用户ID
+     */
+    public void remove(Long strategyId, Collection<String> userIds) {
+        for (List<String> partition : Lists.partition(new ArrayList<>(userIds), loadBatchSize)) {
+            strategyBlacklistDao.deleteStrategyBlacklist(strategyId, partition);
+            changed(strategyId, partition, 0);
+        }
+        log.info("策略黑名单增量移出 strategyId:{} count:{}", strategyId, userIds.size());
+    }
+
+    /**
+     * 写 Redis 并广播；加入的用户从 firstVersion 起逐个占用版本，移出的用户不占用版本（版本为 0）
+     */
+    private void changed(Long strategyId, List<String> userIds, long firstVersion) {
+        String cacheKey = Constants.RedisKey.STRATEGY_BLACKLIST_KEY + strategyId;
+        RedisBatch batch = redisService.createBatch();
+        for (int i = 0; i < userIds.size(); i++) {
+            String userId = userIds.get(i);
+            if (firstVersion > 0) {
+                batch.addToSet(cacheKey, userId);
+                batch.publish(Constants.RedisKey.STRATEGY_BLACKLIST_TOPIC, message(strategyId, firstVersion + i, userId));
+            } else {
+                batch.removeFromSet(cacheKey, userId);
+                batch.publish(Constants.RedisKey.STRATEGY_BLACKLIST_TOPIC, message(strategyId, 0, userId));
+            }
+        }
+        batch.execute();
+    }
+
+    /**
+     * 名单变更；加入构建中和已就绪的本地布隆过滤器并推进其版本，丢弃本地判定结果。
+     * 用户ID为空表示整体重新装配，只推进已知版本：已构建的过滤器随即落后、不再使用，在后台重建
+     */
+    private void onChanged(String message) {
+        int strategySplit = message.indexOf(Constants.UNDERLINE);
+        int versionSplit = message.indexOf(Constants.UNDERLINE, strategySplit + 1);
+        Long strategyId = Long.valueOf(message.substring(0, strategySplit));
+        long version = Long.parseLong(message.substring(strategySplit + 1, versionSplit));
+        String userId = message.substring(versionSplit + 1);
+        if (version > 0) knownVersions.merge(strategyId, version, Math::max);
+        if (userId.isEmpty()) {
+            if (localBlacklists.containsKey(strategyId) || buildingBlacklists.containsKey(strategyId)) build(strategyId);
+            memberCache.invalidateAll();
+            return;
+        }
+        if (version > 0) {
+            // 先取构建中的再取已就绪的：构建完成时先发布再注销，两次读取之间完成的构建也不会漏掉这次加入
+            LocalBlacklistFilter buildingBlacklist = buildingBlacklists.get(strategyId);
+            if (null != buildingBlacklist) buildingBlacklist.apply(version, userId);
+            LocalBlacklistFilter localBlacklist = localBlacklists.get(strategyId);
+            if (null != localBlacklist) localBlacklist.apply(version, userId);
+        }
+        memberCache.invalidate(member(strategyId, userId));
+    }
+
+    /**
+     * 按周期读取 Redis 名单版本号，补上漏收的广播；过滤器在整个周期内都没追上上次读到的版本，说明广播已丢失，后台重建
+     */
+    private void checkVersions() {
+        try {
+            RedisBatch batch = redisService.createBatch();
+            Map<Long, RedisBatch.Response<Long>> responses = new LinkedHashMap<>();
+            for (Long strategyId : localBlacklists.keySet()) {
+                responses.put(strategyId, batch.getCounter(Constants.RedisKey.STRATEGY_BLACKLIST_VERSION_KEY + strategyId));
+            }
+            if (responses.isEmpty()) return;
+            batch.execute();
+            responses.forEach((strategyId, response) -> {
+                long version = response.get();
+                knownVersions.merge(strategyId, version, Math::max);
+                LocalBlacklistFilter localBlacklist = localBlacklists.get(strategyId);
+                if (null == localBlacklist) return;
+                if (localBlacklist.version() < localBlacklist.getLaggingVersion()) build(strategyId);
+                localBlacklist.setLaggingVersion(localBlacklist.version() < version ? version : 0);
+            });
+        } catch (RuntimeException e) {
+            log.error("策略黑名单版本检查失败", e);
+        }
+    }
+
+    /**
+     * 提交后台构建；任务开始读取名单前出队，读取期间再次提交会在其后重新构建一次，不会漏掉期间的整体重新装配
+     */
+    private void build(Long strategyId) {
+        if (null != queuedBuilds.putIfAbsent(strategyId, Boolean.TRUE)) return;
+        blacklistBuilder.execute(() -> {
+            queuedBuilds.remove(strategyId);
+            try {
+                buildLocalBlacklist(strategyId);
+            } catch (RuntimeException e) {
+                log.error("策略黑名单本地过滤器构建失败，继续由 Redis 精确判定 strategyId:{}", strategyId, e);
+            } finally {
+                buildingBlacklists.remove(strategyId);
+            }
+        });
+    }
+
+    /**
+     * 先登记构建中的过滤器再读版本：读版本之后的加入都会经广播写入新过滤器，之前的加入已经写库，由全量读取覆盖
+     */
+    private void buildLocalBlacklist(Long strategyId) {
+        LocalBlacklistFilter localBlacklist = newLocalBlacklist(strategyId);
+        buildingBlacklists.put(strategyId, localBlacklist);
+        long version = redisService.getCounter(Constants.RedisKey.STRATEGY_BLACKLIST_VERSION_KEY + strategyId);
+        knownVersions.merge(strategyId, version, Math::max);
+        localBlacklist.start(version);
+        long count = scan(strategyId, userIds -> userIds.forEach(localBlacklist::put));
+        localBlacklists.put(strategyId, localBlacklist);
+        log.info("策略黑名单本地过滤器构建完成 strategyId:{} version:{} count:{}", strategyId, version, count);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        blacklistBuilder.shutdownNow();
+    }
+
+    /**
+     * 按当前名单数量的两倍预留容量，增量加入的用户不会很快推高误判率；名单为空时不建过滤器
+     */
+    private LocalBlacklistFilter newLocalBlacklist(Long strategyId) {
+        int count = strategyBlacklistDao.queryStrategyBlacklistCount(strategyId);
+        if (0 == count) return new LocalBlacklistFilter(null);
+        return new LocalBlacklistFilter(BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), Math.max(2L * count, 1024L), falseProbability));
+    }
+
+    /**
+     * 按自增ID分页流式读取名单
+     */
+    private long scan(Long strategyId, Consumer<List<String>> consumer) {
+        long count = 0;
+        long lastId = 0;
+        while (true) {
+            List<StrategyBlacklistPO> strategyBlacklistPOList = strategyBlacklistDao.queryStrategyBlacklistPage(strategyId, lastId, loadBatchSize);
+            if (strategyBlacklistPOList.isEmpty()) return count;
+            List<String> userIds = new ArrayList<>(strategyBlacklistPOList.size());
+            for (StrategyBlacklistPO strategyBlacklistPO : strategyBlacklistPOList) {
+                userIds.add(strategyBlacklistPO.getUserId());
+            }
+            consumer.accept(userIds);
+            count += userIds.size();
+            lastId = strategyBlacklistPOList.get(strategyBlacklistPOList.size() - 1).getId();
+            if (strategyBlacklistPOList.size() < loadBatchSize) return count;
+        }
+    }
+
+    private static String member(Long strategyId, String userId) {
+        return strategyId + Constants.UNDERLINE + userId;
+    }
+
+    private static String message(Long strategyId, long version, String userId) {
+        return strategyId + Constants.UNDERLINE + version + Constants.UNDERLINE + userId;
+    }
+
+}
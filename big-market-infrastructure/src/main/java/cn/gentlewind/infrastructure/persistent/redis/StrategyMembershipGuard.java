@@ -0,0 +1,119 @@
+package cn.gentlewind.infrastructure.persistent.redis;
+
+import cn.gentlewind.types.common.Constants;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 策略ID存在性校验；拦截不存在的策略ID，避免逐个枚举的请求穿透到 Redis 和数据库
+ *
+ * 1. Redisson 布隆过滤器记录全部已装配的策略ID，装配时写入，所有节点共享
+ * 2. 本地已知集合：布隆过滤器判定存在的ID缓存在本地，之后的请求不再访问 Redis
+ * 3. 本地否定缓存：布隆过滤器判定不存在，或数据库确认不存在的ID，短时间内直接拒绝；过期后重新判定，新建的策略最迟一个周期后可见
+ * 布隆过滤器尚未建立（首次部署、Redis 清空）时放行，由装配和启动预热重新建立。
+ */
+@Slf4j
+@Component
+public class StrategyMembershipGuard {
+
+    private static final Boolean PRESENT = Boolean.TRUE;
+
+    @Resource
+    private IRedisService redisService;
+
+    // 布隆过滤器预计元素数量，即策略数量上限
+    @Value("${big-market.strategy.bloom-filter.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    // 布隆过滤器误判率
+    @Value("${big-market.strategy.bloom-filter.false-probability:0.001}")
+    private double falseProbability;
+
+    // 本地已知、否定缓存容量
+    @Value("${big-market.strategy.bloom-filter.local-maximum-size:100000}")
+    private long localMaximumSize;
+
+    // 本地已知缓存过期时间
+    @Value("${big-market.strategy.bloom-filter.known-expire-seconds:600}")
+    private long knownExpireSeconds;
+
+    // 本地否定缓存过期时间
+    @Value("${big-market.strategy.bloom-filter.negative-expire-seconds:30}")
+    private long negativeExpireSeconds;
+
+    private Cache<String, Boolean> knownCache;
+    private Cache<String, Boolean> negativeCache;
+
+    @PostConstruct
+    public void init() {
+        knownCache = CacheBuilder.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(knownExpireSeconds, TimeUnit.SECONDS)
+                .build();
+        negativeCache = CacheBuilder.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(negativeExpireSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * 登记策略；装配、重新装配、启动预热时调用
+     *
+     * @param strategyId 策略ID
+     */
+    public void register(Long strategyId) {
+        RBloomFilter<String> bloomFilter = bloomFilter();
+        bloomFilter.tryInit(expectedInsertions, falseProbability);
+        register(bloomFilter, String.valueOf(strategyId));
+    }
+
+    public boolean isStrategyExist(Long strategyId) {
+        return contains(String.valueOf(strategyId));
+    }
+
+    /**
+     * 数据库确认策略不存在；布隆过滤器误判或策略已删除，写入否定缓存
+     *
+     * @param strategyId 策略ID
+     */
+    public void markStrategyAbsent(Long strategyId) {
+        String member = String.valueOf(strategyId);
+        knownCache.invalidate(member);
+        negativeCache.put(member, PRESENT);
+    }
+
+    private boolean contains(String member) {
+        if (null != knownCache.getIfPresent(member)) return true;
+        if (null != negativeCache.getIfPresent(member)) return false;
+
+        RBloomFilter<String> bloomFilter = bloomFilter();
+        if (bloomFilter.contains(member)) {
+            knownCache.put(member, PRESENT);
+            return true;
+        }
+        // 布隆过滤器未建立时无法判定，放行且不缓存
+        if (!bloomFilter.isExists()) return true;
+
+        negativeCache.put(member, PRESENT);
+        return false;
+    }
+
+    private void register(RBloomFilter<String> bloomFilter, String member) {
+        bloomFilter.add(member);
+        negativeCache.invalidate(member);
+        knownCache.put(member, PRESENT);
+    }
+
+    private RBloomFilter<String> bloomFilter() {
+        return redisService.getBloomFilter(Constants.RedisKey.STRATEGY_BLOOM_FILTER_KEY);
+    }
+
+}
@@ -0,0 +1,258 @@
+package cn.gentlewind.infrastructure.persistent.redis;
+
+import cn.gentlewind.domain.strategy.model.entity.StrategyAwardEntity;
+import cn.gentlewind.domain.strategy.model.entity.StrategyEntity;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.redisson.client.codec.BaseCodec;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.Encoder;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 策略配置 Redis 编解码器；按字段顺序写入，不写类名和字段名
+ *
+ * 布局：[2 字节 魔数][1 字节 类型][数据]
+ * 1. 整数使用 zigzag + varint，策略ID、奖品ID、库存一般只占 2~4 字节
+ * 2. 奖品概率按定点数存放：varint 小数位数 + 未缩放整数，0.0001 只占 3 字节且不丢精度
+ * 3. 实体字段可能为 null，每个实体先写 1 字节字段存在位图
+ * 不认识的类型整体交给 delegate 编码；没有魔数的数据（切换前写入的旧数据）也交给 delegate 解码。
+ */
+public class StrategyRedisCodec extends BaseCodec {
+
+    private static final byte MAGIC_0 = (byte) 0xB7;
+    private static final byte MAGIC_1 = (byte) 0x4D;
+
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_INTEGER = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_STRATEGY = 4;
+    private static final byte TYPE_STRATEGY_AWARD_LIST = 5;
+
+    private final Codec delegate;
+
+    private final Encoder encoder = in -> {
+        byte type = typeOf(in);
+        if (0 == type) return delegate.getValueEncoder().encode(in);
+        ByteBuf out = ByteBufAllocator.DEFAULT.buffer();
+        try {
+            out.writeByte(MAGIC_0).writeByte(MAGIC_1).writeByte(type);
+            writeValue(out, type, in);
+            return out;
+        } catch (RuntimeException e) {
+            out.release();
+            throw e;
+        }
+    };
+
+    private final Decoder<Object> decoder = (buf, state) -> {
+        int start = buf.readerIndex();
+        if (buf.readableBytes() < 3 || buf.getByte(start) != MAGIC_0 || buf.getByte(start + 1) != MAGIC_1) {
+            return delegate.getValueDecoder().decode(buf, state);
+        }
+        buf.skipBytes(2);
+        return readValue(buf, buf.readByte());
+    };
+
+    public StrategyRedisCodec(Codec delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Decoder<Object> getValueDecoder() {
+        return decoder;
+    }
+
+    @Override
+    public Encoder getValueEncoder() {
+        return encoder;
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return delegate.getClassLoader();
+    }
+
+    private static byte typeOf(Object in) {
+        if (in instanceof String) return TYPE_STRING;
+        if (in instanceof Integer) return TYPE_INTEGER;
+        if (in instanceof Long) return TYPE_LONG;
+        if (in instanceof StrategyEntity) return TYPE_STRATEGY;
+        if (in instanceof List && isStrategyAwardList((List<?>) in)) return TYPE_STRATEGY_AWARD_LIST;
+        return 0;
+    }
+
+    private static boolean isStrategyAwardList(List<?> list) {
+        for (Object element : list) {
+            if (!(element instanceof StrategyAwardEntity)) return false;
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeValue(ByteBuf out, byte type, Object in) {
+        switch (type) {
+            case TYPE_STRING:
+                writeString(out, (String) in);
+                break;
+            case TYPE_INTEGER:
+                writeVarLong(out, zigzag((Integer) in));
+                break;
+            case TYPE_LONG:
+                writeVarLong(out, zigzag((Long) in));
+                break;
+            case TYPE_STRATEGY:
+                writeStrategy(out, (StrategyEntity) in);
+                break;
+            case TYPE_STRATEGY_AWARD_LIST:
+                List<StrategyAwardEntity> strategyAwardEntities = (List<StrategyAwardEntity>) in;
+                writeVarLong(out, strategyAwardEntities.size());
+                for (StrategyAwardEntity strategyAwardEntity : strategyAwardEntities) {
+                    writeStrategyAward(out, strategyAwardEntity);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("unsupported type: " + type);
+        }
+    }
+
+    private static Object readValue(ByteBuf in, byte type) {
+        switch (type) {
+            case TYPE_STRING:
+                return readString(in);
+            case TYPE_INTEGER:
+                return (int) unzigzag(readVarLong(in));
+            case TYPE_LONG:
+                return unzigzag(readVarLong(in));
+            case TYPE_STRATEGY:
+                return readStrategy(in);
+            case TYPE_STRATEGY_AWARD_LIST:
+                int size = (int) readVarLong(in);
+                List<StrategyAwardEntity> strategyAwardEntities = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    strategyAwardEntities.add(readStrategyAward(in));
+                }
+                return strategyAwardEntities;
+            default:
+                throw new IllegalArgumentException("unsupported type: " + type);
+        }
+    }
+
+    private static void writeStrategy(ByteBuf out, StrategyEntity strategyEntity) {
+        out.writeByte(presence(strategyEntity.getStrategyId(), strategyEntity.getStrategyDesc(), strategyEntity.getRuleModels()));
+        if (null != strategyEntity.getStrategyId()) writeVarLong(out, zigzag(strategyEntity.getStrategyId()));
+        if (null != strategyEntity.getStrategyDesc()) writeString(out, strategyEntity.getStrategyDesc());
+        if (null != strategyEntity.getRuleModels()) writeString(out, strategyEntity.getRuleModels());
+    }
+
+    private static StrategyEntity readStrategy(ByteBuf in) {
+        int presence = in.readUnsignedByte();
+        StrategyEntity strategyEntity = new StrategyEntity();
+        if ((presence & 1) != 0) strategyEntity.setStrategyId(unzigzag(readVarLong(in)));
+        if ((presence & 2) != 0) strategyEntity.setStrategyDesc(readString(in));
+        if ((presence & 4) != 0) strategyEntity.setRuleModels(readString(in));
+        return strategyEntity;
+    }
+
+    private static void writeStrategyAward(ByteBuf out, StrategyAwardEntity strategyAwardEntity) {
+        out.writeByte(presence(strategyAwardEntity.getStrategyId(), strategyAwardEntity.getAwardId(), strategyAwardEntity.getAwardCount(),
+                strategyAwardEntity.getAwardCountSurplus(), strategyAwardEntity.getAwardRate()));
+        if (null != strategyAwardEntity.getStrategyId()) writeVarLong(out, zigzag(strategyAwardEntity.getStrategyId()));
+        if (null != strategyAwardEntity.getAwardId()) writeVarLong(out, zigzag(strategyAwardEntity.getAwardId()));
+        if (null != strategyAwardEntity.getAwardCount()) writeVarLong(out, zigzag(strategyAwardEntity.getAwardCount()));
+        if (null != strategyAwardEntity.getAwardCountSurplus()) writeVarLong(out, zigzag(strategyAwardEntity.getAwardCountSurplus()));
+        if (null != strategyAwardEntity.getAwardRate()) writeDecimal(out, strategyAwardEntity.getAwardRate());
+    }
+
+    private static StrategyAwardEntity readStrategyAward(ByteBuf in) {
+        int presence = in.readUnsignedByte();
+        StrategyAwardEntity strategyAwardEntity = new StrategyAwardEntity();
+        if ((presence & 1) != 0) strategyAwardEntity.setStrategyId(unzigzag(readVarLong(in)));
+        if ((presence & 2) != 0) strategyAwardEntity.setAwardId((int) unzigzag(readVarLong(in)));
+        if ((presence & 4) != 0) strategyAwardEntity.setAwardCount((int) unzigzag(readVarLong(in)));
+        if ((presence & 8) != 0) strategyAwardEntity.setAwardCountSurplus((int) unzigzag(readVarLong(in)));
+        if ((presence & 16) != 0) strategyAwardEntity.setAwardRate(readDecimal(in));
+        return strategyAwardEntity;
+    }
+
+    private static int presence(Object... fields) {
+        int presence = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (null != fields[i]) presence |= 1 << i;
+        }
+        return presence;
+    }
+
+    /**
+     * 定点数：小数位数 + 未缩放整数；未缩放整数超出 long 时按补码字节数组存放
+     */
+    private static void writeDecimal(ByteBuf out, BigDecimal value) {
+        BigInteger unscaled = value.unscaledValue();
+        writeVarLong(out, zigzag(value.scale()));
+        if (unscaled.bitLength() < 64) {
+            out.writeByte(0);
+            writeVarLong(out, zigzag(unscaled.longValue()));
+        } else {
+            byte[] bytes = unscaled.toByteArray();
+            out.writeByte(1);
+            writeVarLong(out, bytes.length);
+            out.writeBytes(bytes);
+        }
+    }
+
+    private static BigDecimal readDecimal(ByteBuf in) {
+        int scale = (int) unzigzag(readVarLong(in));
+        if (0 == in.readByte()) {
+            return BigDecimal.valueOf(unzigzag(readVarLong(in)), scale);
+        }
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readBytes(bytes);
+        return new BigDecimal(new BigInteger(bytes), scale);
+    }
+
+    private static void writeString(ByteBuf out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static String readString(ByteBuf in) {
+        int length = (int) readVarLong(in);
+        String value = in.toString(in.readerIndex(), length, StandardCharsets.UTF_8);
+        in.skipBytes(length);
+        return value;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(ByteBuf out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(ByteBuf in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IllegalArgumentException("malformed varint");
+    }
+
+}
@@ -0,0 +1,175 @@
+package cn.gentlewind.infrastructure.persistent.redis;
+
+import cn.gentlewind.infrastructure.persistent.dao.IUserRaffleCountDao;
+import cn.gentlewind.infrastructure.persistent.po.UserRaffleCountPO;
+import cn.gentlewind.types.common.Constants;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 用户抽奖次数存储；按策略、用户一个 Redis 计数器，MySQL 异步批量持久化
+ *
+ * 1. 计数：每次抽奖 INCRBY 一次，多节点原子累加；返回的新值直接写入本地缓存，同一请求的次数锁校验不再访问 Redis。
+ *    计数器新建时查一次数据库补齐历史次数，Redis 数据丢失后次数不会从零开始
+ * 2. 读取：本地缓存短时间保存次数，未命中时读一次 Redis；Redis 没有计数时以数据库记录为准
+ * 3. 持久化：变更的计数只记录最新值，后台线程按周期或攒满一批时合并写库，多次抽奖摊成一次批量写入；
+ *    写库取较大值，重复写入、乱序写入都不会让次数回退，写库失败的计数保留到下一轮重试
+ */
+@Slf4j
+@Component
+public class UserRaffleCountStore {
+
+    @Resource
+    private IRedisService redisService;
+
+    @Resource
+    private IUserRaffleCountDao userRaffleCountDao;
+
+    // 本地次数缓存容量
+    @Value("${big-market.strategy.raffle-count.maximum-size:100000}")
+    private long maximumSize;
+
+    // 本地次数缓存过期时间；只影响其他节点累加后本节点读到新值的延迟
+    @Value("${big-market.strategy.raffle-count.expire-seconds:5}")
+    private long expireSeconds;
+
+    // 写库周期
+    @Value("${big-market.strategy.raffle-count.flush-interval-millis:1000}")
+    private long flushIntervalMillis;
+
+    // 单次批量写库条数；待写入的计数攒满一批时提前写库
+    @Value("${big-market.strategy.raffle-count.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    // 策略ID_用户ID -> 抽奖次数
+    private LoadingCache<String, Long> raffleCounts;
+    // 策略ID_用户ID -> 待写库的最新次数
+    private final Map<String, Long> pendingCounts = new ConcurrentHashMap<>();
+    // 已提交提前写库任务，避免攒满后每次抽奖都提交
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    // 写库单线程执行，批次之间不会并发写同一行
+    private ScheduledExecutorService flushScheduler;
+
+    @PostConstruct
+    public void init() {
+        raffleCounts = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                .build(CacheLoader.from(this::load));
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-raffle-count-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushScheduler.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 累加用户抽奖次数
+     *
+     * @param strategyId 策略ID
+     * @param userId     用户ID
+     * @param count      本次抽奖次数
+     * @return 累加后的次数
+     */
+    public long incr(Long strategyId, String userId, int count) {
+        String member = member(strategyId, userId);
+        String cacheKey = Constants.RedisKey.USER_RAFFLE_COUNT_KEY + member;
+        long raffleCount = redisService.incrBy(cacheKey, count);
+        if (raffleCount == count) {
+            // 计数器刚创建：新用户，或 Redis 数据丢失后的首次抽奖，按数据库记录补齐
+            Long persistedCount = userRaffleCountDao.queryUserRaffleCount(strategyId, userId);
+            if (null != persistedCount && persistedCount > 0) raffleCount = redisService.incrBy(cacheKey, persistedCount);
+        }
+        raffleCounts.put(member, raffleCount);
+        pendingCounts.merge(member, raffleCount, Math::max);
+        if (pendingCounts.size() >= flushBatchSize && flushScheduled.compareAndSet(false, true)) {
+            flushScheduler.execute(this::flush);
+        }
+        return raffleCount;
+    }
+
+    /**
+     * 查询用户抽奖次数；本地缓存命中时不访问 Redis，未命中时读一次 Redis
+     *
+     * @param strategyId 策略ID
+     * @param userId     用户ID
+     * @return 累计抽奖次数
+     */
+    public long query(Long strategyId, String userId) {
+        return raffleCounts.getUnchecked(member(strategyId, userId));
+    }
+
+    private Long load(String member) {
+        long raffleCount = redisService.getCounter(Constants.RedisKey.USER_RAFFLE_COUNT_KEY + member);
+        if (raffleCount > 0) return raffleCount;
+        // Redis 没有计数：新用户，或 Redis 数据丢失后以数据库记录兜底
+        int split = member.indexOf(Constants.UNDERLINE);
+        Long persistedCount = userRaffleCountDao.queryUserRaffleCount(Long.valueOf(member.substring(0, split)), member.substring(split + 1));
+        return null == persistedCount ? 0L : persistedCount;
+    }
+
+    /**
+     * 合并写库；取出待写入的计数按批写入，失败的放回，取较大值，不覆盖期间新产生的计数
+     */
+    private void flush() {
+        flushScheduled.set(false);
+        if (pendingCounts.isEmpty()) return;
+        List<UserRaffleCountPO> userRaffleCountPOList = new ArrayList<>(flushBatchSize);
+        for (String member : pendingCounts.keySet()) {
+            Long raffleCount = pendingCounts.remove(member);
+            if (null == raffleCount) continue;
+            int split = member.indexOf(Constants.UNDERLINE);
+            UserRaffleCountPO userRaffleCountPO = new UserRaffleCountPO();
+            userRaffleCountPO.setStrategyId(Long.valueOf(member.substring(0, split)));
+            userRaffleCountPO.setUserId(member.substring(split + 1));
+            userRaffleCountPO.setRaffleCount(raffleCount);
+            userRaffleCountPOList.add(userRaffleCountPO);
+            if (userRaffleCountPOList.size() == flushBatchSize) {
+                write(userRaffleCountPOList);
+                userRaffleCountPOList = new ArrayList<>(flushBatchSize);
+            }
+        }
+        if (!userRaffleCountPOList.isEmpty()) write(userRaffleCountPOList);
+    }
+
+    private void write(List<UserRaffleCountPO> userRaffleCountPOList) {
+        try {
+            userRaffleCountDao.upsertUserRaffleCount(userRaffleCountPOList);
+        } catch (RuntimeException e) {
+            log.error("用户抽奖次数写库失败，下一轮重试 count:{}", userRaffleCountPOList.size(), e);
+            for (UserRaffleCountPO userRaffleCountPO : userRaffleCountPOList) {
+                pendingCounts.merge(member(userRaffleCountPO.getStrategyId(), userRaffleCountPO.getUserId()), userRaffleCountPO.getRaffleCount(), Math::max);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void destroy() throws InterruptedException {
+        flushScheduler.shutdown();
+        flushScheduler.awaitTermination(flushIntervalMillis, TimeUnit.MILLISECONDS);
+        // 停机前写入剩余计数
+        flush();
+    }
+
+    private static String member(Long strategyId, String userId) {
+        return strategyId + Constants.UNDERLINE + userId;
+    }
+
+}
@@ -0,0 +1,79 @@
+package cn.gentlewind.infrastructure.persistent.redis;
+
+import cn.gentlewind.types.common.Constants;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户积分存储；积分是 Redis 计数器，按用户一个键，增减用 INCRBY 保证多节点原子
+ *
+ * 1. 读取：本地缓存短时间保存积分，权重规则每次抽奖只命中一次本地缓存；过期后回源 Redis
+ * 2. 增减：写 Redis 后用返回的新值覆盖本节点缓存；其他节点在缓存过期后读到新值，积分变化对权重档位的影响允许短时间延迟
+ */
+@Slf4j
+@Component
+public class UserScoreStore {
+
+    @Resource
+    private IRedisService redisService;
+
+    // 本地积分缓存容量
+    @Value("${big-market.strategy.user-score.maximum-size:100000}")
+    private long maximumSize;
+
+    // 本地积分缓存过期时间；即其他节点增减积分后，本节点读到新值的最长延迟
+    @Value("${big-market.strategy.user-score.expire-seconds:5}")
+    private long expireSeconds;
+
+    // 用户ID -> 积分
+    private LoadingCache<String, Long> userScores;
+
+    @PostConstruct
+    public void init() {
+        userScores = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                .build(CacheLoader.from(this::load));
+    }
+
+    /**
+     * 查询用户积分
+     *
+     * @param userId 用户ID
+     * @return 积分；没有积分记录时为 0
+     */
+    public long query(String userId) {
+        return userScores.getUnchecked(userId);
+    }
+
+    /**
+     * 增减用户积分
+     *
+     * @param userId 用户ID
+     * @param delta  增减值，负数为扣减
+     * @return 增减后的积分
+     */
+    public long add(String userId, long delta) {
+        long score = redisService.incrBy(cacheKey(userId), delta);
+        userScores.put(userId, score);
+        log.info("用户积分变更 userId:{} delta:{} score:{}", userId, delta, score);
+        return score;
+    }
+
+    private Long load(String userId) {
+        return redisService.getCounter(cacheKey(userId));
+    }
+
+    private static String cacheKey(String userId) {
+        return Constants.RedisKey.USER_SCORE_KEY + userId;
+    }
+
+}
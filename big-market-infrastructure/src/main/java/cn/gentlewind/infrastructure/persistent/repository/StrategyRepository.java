@@ -1,26 +1,66 @@
 package cn.gentlewind.infrastructure.persistent.repository;
 
+import cn.gentlewind.domain.strategy.model.entity.RaffleRecordEntity;
 import cn.gentlewind.domain.strategy.model.entity.StrategyAwardEntity;
+import cn.gentlewind.domain.strategy.model.entity.StrategyConfigEntity;
 import cn.gentlewind.domain.strategy.model.entity.StrategyEntity;
 import cn.gentlewind.domain.strategy.model.entity.StrategyRuleEntity;
+import cn.gentlewind.domain.strategy.model.vo.StrategyAlgorithmVO;
+import cn.gentlewind.domain.strategy.model.vo.StrategyAliasTableVO;
+import cn.gentlewind.domain.strategy.model.vo.StrategyBucketTableVO;
+import cn.gentlewind.domain.strategy.model.vo.StrategyAwardRuleModelIndexVO;
 import cn.gentlewind.domain.strategy.model.vo.StrategyAwardRuleModelVO;
 import cn.gentlewind.domain.strategy.repository.IStrategyRepository;
+import cn.gentlewind.infrastructure.persistent.dao.IRaffleRecordDao;
 import cn.gentlewind.infrastructure.persistent.dao.IStrategyAwardDao;
 import cn.gentlewind.infrastructure.persistent.dao.IStrategyDao;
 import cn.gentlewind.infrastructure.persistent.dao.IStrategyRuleDao;
+import cn.gentlewind.infrastructure.persistent.po.RaffleRecordPO;
 import cn.gentlewind.infrastructure.persistent.po.StrategyAwardPO;
 import cn.gentlewind.infrastructure.persistent.po.StrategyPO;
 import cn.gentlewind.infrastructure.persistent.po.StrategyRulePO;
 import cn.gentlewind.infrastructure.persistent.redis.IRedisService;
+import cn.gentlewind.infrastructure.persistent.redis.RateTableBinaryCodec;
+import cn.gentlewind.infrastructure.persistent.redis.RedisBatch;
+import cn.gentlewind.infrastructure.persistent.redis.SingleFlightLoader;
+import cn.gentlewind.infrastructure.persistent.redis.StrategyBlacklistStore;
+import cn.gentlewind.infrastructure.persistent.redis.StrategyMembershipGuard;
+import cn.gentlewind.infrastructure.persistent.redis.StrategyRedisCodec;
+import cn.gentlewind.infrastructure.persistent.redis.UserRaffleCountStore;
+import cn.gentlewind.infrastructure.persistent.redis.UserScoreStore;
 import cn.gentlewind.types.common.Constants;
+import cn.gentlewind.types.enums.ResponseCode;
+import cn.gentlewind.types.exception.AppException;
+import com.alibaba.fastjson.JSON;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.common.collect.Lists;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 
+@Slf4j
 @Repository
 public class StrategyRepository implements IStrategyRepository {
 
@@ -31,15 +71,322 @@ public class StrategyRepository implements IStrategyRepository {
     // 操作数据库对象
     @Resource
     private IStrategyAwardDao strategyAwardDao;
+    @Resource
+    private IRaffleRecordDao raffleRecordDao;
 
     // 使用Redis
     @Resource
     private IRedisService redisService;
 
+    // 缓存未命中时合并回源
+    @Resource
+    private SingleFlightLoader singleFlightLoader;
+    // 策略、奖品ID存在性校验
+    @Resource
+    private StrategyMembershipGuard strategyMembershipGuard;
+    // 策略黑名单：Redis 集合 + 本地布隆过滤器
+    @Resource
+    private StrategyBlacklistStore strategyBlacklistStore;
+    // 用户积分：Redis 计数器 + 本地短时缓存
+    @Resource
+    private UserScoreStore userScoreStore;
+    // 用户抽奖次数：Redis 计数器 + 本地缓存，异步批量写库
+    @Resource
+    private UserRaffleCountStore userRaffleCountStore;
+
+    // 策略配置本地缓存（L1），在 Redis（L2）之前；容量和过期时间见 GuavaConfig
+    @Resource(name = "strategyLocalCache")
+    private Cache<String, Object> strategyLocalCache;
+
+    // 数据库不存在的值在两级缓存中的占位时间
+    @Value("${big-market.strategy.local-cache.null-expire-seconds:30}")
+    private long nullExpireSeconds;
+
+    // 版本指针本地缓存时间；到期后重新读取 Redis，不依赖切换通知一定送达
+    @Value("${big-market.strategy.armory.version-check-seconds:5}")
+    private long versionCheckSeconds;
+
+    // 本地缓存的装配结果数量上限
+    @Value("${big-market.strategy.armory.local-cache-size:1000}")
+    private long armoryLocalCacheSize;
+
+    // 本地缓存的查找表总槽位数上限
+    @Value("${big-market.strategy.armory.local-rate-table-slots:33554432}")
+    private long localRateTableSlots;
+
+    // 本地近端缓存；装配结果按版本键存放，写入后不可变，抽奖时只读本地内存，Redis 只用于首次填充和失效通知
+    // 策略标识 -> 当前版本键；短时过期，到期重新读取版本指针，并清理该策略其他版本的本地数据
+    private Cache<String, String> armoryKeyLocalCache;
+    // 概率查找表以 int[] 存放，下标即 rateKey，长度即 rateRange
+    private Cache<String, int[]> rateTableLocalCache;
+    // 超过本地缓存上限的查找表只缓存二进制头部，抽奖时按偏移 GETRANGE 读取单个槽位
+    private Cache<String, RateTableBinaryCodec.Header> rateTableHeaderLocalCache;
+    private Cache<String, StrategyAliasTableVO> aliasTableLocalCache;
+    private Cache<String, StrategyBucketTableVO> bucketTableLocalCache;
+    private Cache<String, StrategyAlgorithmVO> algorithmLocalCache;
+    // 按版本键存放的全部本地缓存
+    private List<Cache<String, ?>> armoryLocalCaches;
+
+    // 本地缓存查找表的最大槽位数；4M 槽位约 16MB 堆内存
+    private static final int RATE_TABLE_LOCAL_CACHE_LIMIT = 1 << 22;
+    // 未放入本地缓存的占位，表示走 Redis 单槽位读取
+    private static final int[] RATE_TABLE_NOT_LOCAL = new int[0];
+    // 查找表分片写入大小；单条 SETRANGE 不超过 64KB
+    private static final int RATE_TABLE_WRITE_CHUNK_SIZE = 64 * 1024;
+    // 每批发送的分片数；64 个分片即每批 4MB
+    private static final int RATE_TABLE_WRITE_BATCH_CHUNKS = 64;
+    // 旧版本保留时间；切换后其他节点收到失效通知前仍可能读取旧版本，到期由 Redis 过期清理
+    private static final long ARMORY_VERSION_RETAIN_MILLIS = 10 * 60 * 1000L;
+    // L2 空值占位；任何编解码器都能按字符串读写，不会与正常配置值相同
+    private static final String NULL_VALUE = "\u0000null";
+    // 批量查询策略配置时单条 IN 查询的策略数量
+    private static final int STRATEGY_CONFIG_QUERY_BATCH_SIZE = 500;
+
+    /**
+     * 注册策略配置编解码器；策略、奖品列表、规则值、查找表范围、版本指针、算法标识按紧凑二进制读写
+     */
+    @PostConstruct
+    public void registerStrategyCodec() {
+        StrategyRedisCodec strategyRedisCodec = new StrategyRedisCodec(redisService.getCodec());
+        for (String keyPrefix : new String[]{Constants.RedisKey.STRATEGY_KEY, Constants.RedisKey.STRATEGY_AWARD_KEY,
+                Constants.RedisKey.STRATEGY_RULE_VALUE_KEY, Constants.RedisKey.STRATEGY_RATE_RANGE_KEY,
+                Constants.RedisKey.STRATEGY_ARMORY_VERSION_KEY, Constants.RedisKey.STRATEGY_ALGORITHM_KEY}) {
+            redisService.registerCodec(keyPrefix, strategyRedisCodec);
+        }
+    }
+
+    /**
+     * 初始化装配结果本地缓存并订阅装配主题
+     *
+     * 装配结果按版本键有界缓存；查找表按槽位数计权淘汰，其余按条数淘汰
+     */
+    @PostConstruct
+    public void initArmoryLocalCache() {
+        armoryKeyLocalCache = CacheBuilder.newBuilder()
+                .maximumSize(armoryLocalCacheSize)
+                .expireAfterWrite(versionCheckSeconds, TimeUnit.SECONDS)
+                .build();
+        rateTableLocalCache = CacheBuilder.newBuilder()
+                .maximumWeight(localRateTableSlots)
+                .weigher((String key, int[] rateTable) -> rateTable.length + 1)
+                .build();
+        rateTableHeaderLocalCache = CacheBuilder.newBuilder().maximumSize(armoryLocalCacheSize).build();
+        aliasTableLocalCache = CacheBuilder.newBuilder().maximumSize(armoryLocalCacheSize).build();
+        bucketTableLocalCache = CacheBuilder.newBuilder().maximumSize(armoryLocalCacheSize).build();
+        algorithmLocalCache = CacheBuilder.newBuilder().maximumSize(armoryLocalCacheSize).build();
+        armoryLocalCaches = Arrays.asList(rateTableLocalCache, rateTableHeaderLocalCache, aliasTableLocalCache, bucketTableLocalCache, algorithmLocalCache);
+        subscribeStrategyArmoryTopic();
+    }
+
+    /**
+     * 订阅装配主题；任意节点切换版本后广播策略标识，所有节点丢弃本地缓存，下次抽奖时读取新版本
+     * 通知丢失时由版本指针的本地缓存过期兜底
+     */
+    private void subscribeStrategyArmoryTopic() {
+        redisService.getTopic(Constants.RedisKey.STRATEGY_ARMORY_TOPIC).addListener(String.class, (channel, key) -> evictLocalCache(key));
+        redisService.getTopic(Constants.RedisKey.STRATEGY_CONFIG_TOPIC).addListener(String.class, (channel, cacheKey) -> strategyLocalCache.invalidate(cacheKey));
+    }
+
+    /**
+     * 两级缓存读取；L1 本地缓存 -> L2 Redis -> 数据库，逐级回填。
+     * Redis 未命中时经 SingleFlightLoader 合并回源，同一个键同时只有一次数据库查询；拿到加载权后先复查 Redis，
+     * 等待期间已由其他线程或节点回填的直接使用。
+     * 数据库查询结果为 null 时写入空值占位：L2 存 NULL_VALUE 并设置过期时间，L1 存带到期时间的 NullValue，
+     * 不存在的规则值等在过期前不再回源数据库；配置变更时随 invalidateStrategyConfig 一起失效（规则值按策略代次切换）。
+     * 缓存的对象由多个请求共享，调用方只读不改
+     *
+     * @param cacheKey 缓存键，L1、L2 相同
+     * @param dbLoader 数据库查询
+     * @return 缓存值
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T queryFromCache(String cacheKey, Supplier<T> dbLoader) {
+        Object value = strategyLocalCache.getIfPresent(cacheKey);
+        if (value instanceof NullValue) {
+            if (!((NullValue) value).isExpired()) return null;
+            strategyLocalCache.asMap().remove(cacheKey, value);
+        } else if (null != value) {
+            return (T) value;
+        }
+        value = redisService.getValue(cacheKey);
+        if (null == value) {
+            value = singleFlightLoader.load(cacheKey, () -> {
+                Object cacheValue = redisService.getValue(cacheKey);
+                if (null != cacheValue) return cacheValue;
+                Object dbValue = dbLoader.get();
+                if (null == dbValue) {
+                    redisService.setValue(cacheKey, NULL_VALUE, TimeUnit.SECONDS.toMillis(nullExpireSeconds));
+                    return NULL_VALUE;
+                }
+                redisService.setValue(cacheKey, dbValue);
+                return dbValue;
+            });
+        }
+        if (NULL_VALUE.equals(value)) {
+            strategyLocalCache.put(cacheKey, new NullValue(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(nullExpireSeconds)));
+            return null;
+        }
+        strategyLocalCache.put(cacheKey, value);
+        return (T) value;
+    }
+
+    /**
+     * 写入两级缓存；用于批量查询后的回填，L2 写入排入同一个批量操作
+     *
+     * @param batch    批量操作
+     * @param cacheKey 缓存键，L1、L2 相同
+     * @param value    缓存值
+     */
+    private void storeToCache(RedisBatch batch, String cacheKey, Object value) {
+        batch.setValue(cacheKey, value);
+        strategyLocalCache.put(cacheKey, value);
+    }
+
+    /**
+     * 失效策略配置缓存；删除 L2 Redis 缓存，并通知所有节点丢弃 L1 本地缓存
+     * 删除和通知排入一个批量操作，一次网络往返
+     *
+     * @param cacheKeys 缓存键
+     */
+    private void invalidateCache(String... cacheKeys) {
+        RedisBatch batch = redisService.createBatch();
+        for (String cacheKey : cacheKeys) {
+            batch.remove(cacheKey);
+            strategyLocalCache.invalidate(cacheKey);
+            batch.publish(Constants.RedisKey.STRATEGY_CONFIG_TOPIC, cacheKey);
+        }
+        batch.execute();
+    }
+
+    @Override
+    public void invalidateStrategyConfig(Long strategyId) {
+        List<String> cacheKeys = new ArrayList<>();
+        cacheKeys.add(Constants.RedisKey.STRATEGY_KEY + strategyId);
+        cacheKeys.add(Constants.RedisKey.STRATEGY_AWARD_KEY + strategyId);
+        cacheKeys.add(Constants.RedisKey.STRATEGY_AWARD_RULE_MODEL_INDEX_KEY + strategyId);
+        // 当前代次下已有规则行的规则值不过期，按规则行删除；不存在规则的空值占位带过期时间，随代次切换不再命中，自然过期
+        for (StrategyRulePO strategyRule : strategyRuleDao.queryStrategyRuleListByStrategyId(strategyId)) {
+            cacheKeys.add(ruleValueCacheKey(strategyId, strategyRule.getAwardId(), strategyRule.getRuleModel()));
+            cacheKeys.add(ruleValueCacheKey(strategyId, null, strategyRule.getRuleModel()));
+        }
+        // 代次加一，该策略下所有规则值缓存键一起切换；代次计数只增不删，本地缓存经主题通知失效
+        String generationKey = Constants.RedisKey.STRATEGY_RULE_VALUE_GENERATION_KEY + strategyId;
+        redisService.incr(generationKey);
+        strategyLocalCache.invalidate(generationKey);
+        redisService.getTopic(Constants.RedisKey.STRATEGY_CONFIG_TOPIC).publish(generationKey);
+        invalidateCache(cacheKeys.toArray(new String[0]));
+        log.info("策略配置缓存失效 strategyId:{}", strategyId);
+    }
+
+    private void evictLocalCache(String key) {
+        String armoryKey = armoryKeyLocalCache.asMap().remove(key);
+        if (null != armoryKey) evictArmoryLocalCache(armoryKey);
+        evictArmoryLocalCache(key);
+        log.info("策略装配本地缓存失效 key:{} armoryKey:{}", key, armoryKey);
+    }
+
+    private void evictArmoryLocalCache(String key) {
+        for (Cache<String, ?> armoryLocalCache : armoryLocalCaches) {
+            armoryLocalCache.invalidate(key);
+        }
+    }
+
+    /**
+     * 清理策略非当前版本的本地数据；每次读取版本指针后执行
+     * 切换前已开始的旧版本加载可能在失效之后才写入本地缓存，下一次读取版本指针时一并清理
+     *
+     * @param key       策略标识
+     * @param armoryKey 当前版本键
+     */
+    private void evictStaleArmoryVersions(String key, String armoryKey) {
+        String versionPrefix = key + "_v";
+        for (Cache<String, ?> armoryLocalCache : armoryLocalCaches) {
+            armoryLocalCache.asMap().keySet().removeIf(cacheKey -> !cacheKey.equals(armoryKey)
+                    && (cacheKey.equals(key) || isArmoryVersion(cacheKey, versionPrefix)));
+        }
+    }
+
+    private static boolean isArmoryVersion(String cacheKey, String versionPrefix) {
+        if (!cacheKey.startsWith(versionPrefix) || cacheKey.length() == versionPrefix.length()) return false;
+        for (int i = versionPrefix.length(); i < cacheKey.length(); i++) {
+            if (!Character.isDigit(cacheKey.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 读取本地缓存，未命中时加载；同一个键同时只有一次加载。加载结果为 null 时不缓存，返回 null
+     */
+    private static <V> V loadLocal(Cache<String, V> cache, String key, Callable<V> loader) {
+        try {
+            return cache.get(key, loader);
+        } catch (CacheLoader.InvalidCacheLoadException e) {
+            return null;
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new AppException(ResponseCode.UN_ERROR.getCode(), ResponseCode.UN_ERROR.getInfo(), e.getCause());
+        }
+    }
+
+    private void publishStrategyArmory(String key) {
+        evictLocalCache(key);
+        redisService.getTopic(Constants.RedisKey.STRATEGY_ARMORY_TOPIC).publish(key);
+    }
+
+    /**
+     * 一次 GET 读取整张查找表并解码为 int[]；查找表不存在时返回 null，不写入缓存；超过上限时返回 RATE_TABLE_NOT_LOCAL
+     */
+    private int[] loadRateTable(String key) {
+        return loadLocal(rateTableLocalCache, key, () -> {
+            Integer rateRange = redisService.getValue(Constants.RedisKey.STRATEGY_RATE_RANGE_KEY + key);
+            if (null == rateRange) return null;
+            if (rateRange > RATE_TABLE_LOCAL_CACHE_LIMIT) return RATE_TABLE_NOT_LOCAL;
+            byte[] bytes = redisService.getBinaryStream(Constants.RedisKey.STRATEGY_RATE_TABLE_KEY + key).get();
+            if (null == bytes) return null;
+            return RateTableBinaryCodec.decode(bytes);
+        });
+    }
+
+    /**
+     * 读取查找表头部（槽位宽度 + 奖品字典），两次 GETRANGE 后在本地缓存
+     */
+    private RateTableBinaryCodec.Header loadRateTableHeader(String key) {
+        return loadLocal(rateTableHeaderLocalCache, key, () -> {
+            SeekableByteChannel channel = redisService.getBinaryStream(Constants.RedisKey.STRATEGY_RATE_TABLE_KEY + key).getChannel();
+            ByteBuffer fixedHeader = readRange(channel, 0, RateTableBinaryCodec.FIXED_HEADER_LENGTH);
+            int awardCount = fixedHeader.getShort(1) & 0xFFFF;
+            ByteBuffer header = ByteBuffer.allocate(RateTableBinaryCodec.FIXED_HEADER_LENGTH + 4 * awardCount);
+            header.put(fixedHeader);
+            header.put(readRange(channel, RateTableBinaryCodec.FIXED_HEADER_LENGTH, 4 * awardCount));
+            header.flip();
+            return RateTableBinaryCodec.decodeHeader(header);
+        });
+    }
+
+    /**
+     * 按偏移读取指定长度，底层为 GETRANGE；键不存在（未装配或旧版本已过期）时读到的长度不足，按未装配处理
+     */
+    private ByteBuffer readRange(SeekableByteChannel channel, long offset, int length) {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try {
+            channel.position(offset);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) <= 0) break;
+            }
+        } catch (IOException e) {
+            throw new AppException(ResponseCode.UN_ERROR.getCode(), ResponseCode.UN_ERROR.getInfo(), e);
+        }
+        buffer.flip();
+        if (buffer.remaining() < length) {
+            throw new AppException(ResponseCode.STRATEGY_ARMORY_NOT_ASSEMBLED.getCode(), ResponseCode.STRATEGY_ARMORY_NOT_ASSEMBLED.getInfo());
+        }
+        return buffer;
+    }
+
     /**
      * 查询策略的奖品列表
      *
-     * 实现了缓存优先的查询策略，首先尝试从Redis缓存中获取`StrategyAwardEntity`列表，
+     * 实现了缓存优先的查询策略，依次从本地缓存、Redis缓存中获取`StrategyAwardEntity`列表，
      * 若缓存中不存在，则从数据库中查询数据并转换为`StrategyAwardEntity`对象列表，
      * 再将结果存储至缓存中，最后返回查询结果.
      * @param strategyId
@@ -47,57 +394,57 @@ public class StrategyRepository implements IStrategyRepository {
      */
     @Override
     public List<StrategyAwardEntity> queryStrategyAwardList(Long strategyId) {
-
         // STRATEGY_AWARD_KEY是固定的字符串前缀，strategyId是动态传入的策略ID，拼接后的字符串作为缓存的唯一标识。
         String cacheKey = Constants.RedisKey.STRATEGY_AWARD_KEY + strategyId;
-
-        // 取出缓存中的数据
-        List<StrategyAwardEntity> strategyAwardEntities = redisService.getValue(cacheKey);
-        // 如果不为空
-        if(strategyAwardEntities != null && !strategyAwardEntities.isEmpty()){
+        return queryFromCache(cacheKey, () -> {
+            // 从数据库查询与特定`strategyId`相关的所有`StrategyAwardPO`对象，并转换成`StrategyAwardEntity`对象列表。
+            List<StrategyAwardPO> strategyAwardPOS = strategyAwardDao.queryStrategyAwardListByStrategyId(strategyId);
+            List<StrategyAwardEntity> strategyAwardEntities = new ArrayList<>(strategyAwardPOS.size());
+            for (StrategyAwardPO strategyAwardPO : strategyAwardPOS) {
+                StrategyAwardEntity strategyAwardEntity = StrategyAwardEntity.builder()
+                        .strategyId(strategyAwardPO.getStrategyId())
+                        .awardId(strategyAwardPO.getAwardId())
+                        .awardCount(strategyAwardPO.getAwardCount())
+                        .awardCountSurplus(strategyAwardPO.getAwardCountSurplus())
+                        .awardRate(strategyAwardPO.getAwardRate())
+                        .build();
+                strategyAwardEntities.add(strategyAwardEntity);
+            }
             return strategyAwardEntities;
-        }
-
-        // 如果为空，那就从数据库中取出数据
-        // 从数据库查询与特定`strategyId`相关的所有`StrategyAwardPO`对象，并转换成`StrategyAwardEntity`对象列表。
-       List<StrategyAwardPO> strategyAwardPOS = strategyAwardDao.queryStrategyAwardListByStrategyId(strategyId);
-        // 初始化一个新的`ArrayList`，预设大小为`StrategyAwardPO`列表的长度，提高性能。
-        strategyAwardEntities = new ArrayList<>(strategyAwardPOS.size());
-        // 遍历`StrategyAwardPO`列表，将每个`StrategyAwardPO`对象转换为`StrategyAwardEntity`对象，并添加到`strategyAwardEntities`列表中。
-        for(StrategyAwardPO strategyAwardPO : strategyAwardPOS){
-            StrategyAwardEntity strategyAwardEntity = StrategyAwardEntity.builder()
-                    .strategyId(strategyAwardPO.getStrategyId())
-                    .awardId(strategyAwardPO.getAwardId())
-                    .awardCount(strategyAwardPO.getAwardCount())
-                    .awardCountSurplus(strategyAwardPO.getAwardCountSurplus())
-                    .awardRate(strategyAwardPO.getAwardRate())
-                    .build();
-            // 将每个构建好的`StrategyAwardEntity`添加到`strategyAwardEntities`列表中。
-            strategyAwardEntities.add(strategyAwardEntity);
-            // strategyAwardEntities`列表包含了从数据库查询并转换的所有`StrategyAwardEntity`对象。
-        }
-
-        // 将`strategyAwardEntities`列表存储到Redis中，以`cacheKey`作为键，随后返回该列表。
-        redisService.setValue(cacheKey, strategyAwardEntities);
-        return  strategyAwardEntities;
+        });
     }
 
     /**
      * 用于将抽奖策略的范围值和概率查找表存储到Redis缓存中
      *
-     * @param key
-     * @param rateRange
-     * @param strategyAwardSearchRateTable
+     * 查找表打包为一个二进制字符串，每个槽位只存奖品字典下标（1~2 字节），见 {@link RateTableBinaryCodec}
+     * 写入时按 RATE_TABLE_WRITE_CHUNK_SIZE 分片 SETRANGE，避免一条大命令阻塞 Redis；
+     * 分片排入批量操作，每 RATE_TABLE_WRITE_BATCH_CHUNKS 个分片一次网络往返，单批占用的内存有上限。
+     * 写入的是新版本键，切换版本指针之前抽奖方不会读取，不会读到写了一半的查找表。
+     *
+     * @param key                          版本键
+     * @param strategyAwardSearchRateTable 查找表；下标为 rateKey，值为奖品ID
      */
     @Override
-    public void storeStrategyAwardSearchRateTable(String key, Integer rateRange, Map<Integer, Integer> strategyAwardSearchRateTable) {
-        // 1. 存储抽奖策略范围值，如10000
-        redisService.setValue(Constants.RedisKey.STRATEGY_RATE_RANGE_KEY + key, rateRange);
-        // 2. 存储概率查找表
-        // 从获取或创建一个map
-        Map<Integer,Integer> cacheRateTable = redisService.getMap(Constants.RedisKey.STRATEGY_RATE_TABLE_KEY + key);
-        // 将value存入map
-        cacheRateTable.putAll(strategyAwardSearchRateTable);
+    public void storeStrategyAwardSearchRateTable(String key, int[] strategyAwardSearchRateTable) {
+        byte[] bytes = RateTableBinaryCodec.encode(strategyAwardSearchRateTable);
+        String cacheKey = Constants.RedisKey.STRATEGY_RATE_TABLE_KEY + key;
+        int chunks = (bytes.length + RATE_TABLE_WRITE_CHUNK_SIZE - 1) / RATE_TABLE_WRITE_CHUNK_SIZE;
+        // 1. 分片写入
+        RedisBatch batch = redisService.createBatch();
+        batch.remove(cacheKey);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int offset = chunk * RATE_TABLE_WRITE_CHUNK_SIZE;
+            batch.setRange(cacheKey, offset, Arrays.copyOfRange(bytes, offset, Math.min(offset + RATE_TABLE_WRITE_CHUNK_SIZE, bytes.length)));
+            if ((chunk + 1) % RATE_TABLE_WRITE_BATCH_CHUNKS == 0) {
+                batch.execute();
+                batch = redisService.createBatch();
+            }
+        }
+        // 2. 存储抽奖策略范围值，如10000；与最后一批分片一起发送
+        batch.setValue(Constants.RedisKey.STRATEGY_RATE_RANGE_KEY + key, strategyAwardSearchRateTable.length);
+        batch.execute();
+        log.info("概率查找表写入完成 key:{} chunks:{} bytes:{}", key, chunks, bytes.length);
     }
 
     /**
@@ -107,19 +454,191 @@ public class StrategyRepository implements IStrategyRepository {
      */
     @Override
     public Integer getStrategyAwardAssemble(String key, Integer rateKey) {
-        return redisService.getFromMap(Constants.RedisKey.STRATEGY_RATE_TABLE_KEY + key, rateKey);
+        int[] rateTable = loadRateTable(key);
+        if (null != rateTable && RATE_TABLE_NOT_LOCAL != rateTable) return rateTable[rateKey];
+        // 按偏移读取单个槽位
+        RateTableBinaryCodec.Header header = loadRateTableHeader(key);
+        SeekableByteChannel channel = redisService.getBinaryStream(Constants.RedisKey.STRATEGY_RATE_TABLE_KEY + key).getChannel();
+        ByteBuffer slot = readRange(channel, header.offset(rateKey), header.getWidth());
+        return header.awardId(RateTableBinaryCodec.readIndex(slot, header.getWidth()));
+    }
+
+    /**
+     * 批量获取奖品ID；本地缓存的查找表直接按下标读取，超过上限的查找表把全部槽位的 GETRANGE 排入一个批量操作，一次网络往返
+     *
+     * @param key      策略标识
+     * @param rateKeys 查找表中的索引
+     * @return 与 rateKeys 一一对应的奖品ID
+     */
+    @Override
+    public int[] getStrategyAwardAssemble(String key, int[] rateKeys) {
+        int[] awardIds = new int[rateKeys.length];
+        int[] rateTable = loadRateTable(key);
+        if (null != rateTable && RATE_TABLE_NOT_LOCAL != rateTable) {
+            for (int i = 0; i < rateKeys.length; i++) {
+                awardIds[i] = rateTable[rateKeys[i]];
+            }
+            return awardIds;
+        }
+        RateTableBinaryCodec.Header header = loadRateTableHeader(key);
+        String cacheKey = Constants.RedisKey.STRATEGY_RATE_TABLE_KEY + key;
+        RedisBatch batch = redisService.createBatch();
+        List<RedisBatch.Response<byte[]>> slots = new ArrayList<>(rateKeys.length);
+        for (int rateKey : rateKeys) {
+            slots.add(batch.getRange(cacheKey, header.offset(rateKey), header.getWidth()));
+        }
+        batch.execute();
+        for (int i = 0; i < rateKeys.length; i++) {
+            byte[] bytes = slots.get(i).get();
+            // 键不存在（未装配或旧版本已过期）时 GETRANGE 返回空数组
+            if (null == bytes || bytes.length < header.getWidth()) {
+                throw new AppException(ResponseCode.STRATEGY_ARMORY_NOT_ASSEMBLED.getCode(), ResponseCode.STRATEGY_ARMORY_NOT_ASSEMBLED.getInfo());
+            }
+            ByteBuffer slot = ByteBuffer.wrap(bytes);
+            awardIds[i] = header.awardId(RateTableBinaryCodec.readIndex(slot, header.getWidth()));
+        }
+        return awardIds;
     }
 
     @Override
     public int getRateRange(Long strategyId) {
-        return redisService.getValue(Constants.RedisKey.STRATEGY_RATE_RANGE_KEY + strategyId);
+        return getRateRange(queryStrategyArmoryKey(String.valueOf(strategyId)));
     }
 
     @Override
     public int getRateRange(String key) {
+        int[] rateTable = loadRateTable(key);
+        if (null != rateTable && RATE_TABLE_NOT_LOCAL != rateTable) return rateTable.length;
         return redisService.getValue(Constants.RedisKey.STRATEGY_RATE_RANGE_KEY + key);
     }
 
+    /**
+     * 存储别名表；N 个奖品只占用 3 个长度为 N 的数组，与概率精度无关
+     *
+     * @param key                  策略标识
+     * @param strategyAliasTableVO 别名表
+     */
+    @Override
+    public void storeStrategyAwardAliasTable(String key, StrategyAliasTableVO strategyAliasTableVO) {
+        redisService.setValue(Constants.RedisKey.STRATEGY_ALIAS_TABLE_KEY + key, strategyAliasTableVO);
+    }
+
+    @Override
+    public StrategyAliasTableVO getStrategyAwardAliasTable(String key) {
+        return loadLocal(aliasTableLocalCache, key, () -> redisService.getValue(Constants.RedisKey.STRATEGY_ALIAS_TABLE_KEY + key));
+    }
+
+    /**
+     * 存储分桶表；桶数不超过权重的数量级个数，每个桶内查找表受装配预算约束
+     *
+     * @param key                   策略标识
+     * @param strategyBucketTableVO 分桶表
+     */
+    @Override
+    public void storeStrategyAwardBucketTable(String key, StrategyBucketTableVO strategyBucketTableVO) {
+        redisService.setValue(Constants.RedisKey.STRATEGY_BUCKET_TABLE_KEY + key, strategyBucketTableVO);
+    }
+
+    @Override
+    public StrategyBucketTableVO getStrategyAwardBucketTable(String key) {
+        return loadLocal(bucketTableLocalCache, key, () -> redisService.getValue(Constants.RedisKey.STRATEGY_BUCKET_TABLE_KEY + key));
+    }
+
+    @Override
+    public void storeStrategyAlgorithm(String key, StrategyAlgorithmVO algorithm) {
+        redisService.setValue(Constants.RedisKey.STRATEGY_ALGORITHM_KEY + key, algorithm.getCode());
+    }
+
+    /**
+     * 分配新的版本键；版本号全局自增，每次装配写入一组全新的键
+     *
+     * @param key 策略标识
+     * @return 版本键，如 100001_v3
+     */
+    @Override
+    public String nextStrategyArmoryKey(String key) {
+        long version = redisService.incr(Constants.RedisKey.STRATEGY_ARMORY_VERSION_SEQ_KEY + key);
+        return key + "_v" + version;
+    }
+
+    /**
+     * 切换当前版本
+     *
+     * 1. GETSET 原子替换版本指针，之后的抽奖读取新版本；新版本的数据已经全部写完
+     * 2. 旧版本的键设置过期时间，保留一段时间给尚未收到失效通知的节点，之后由 Redis 清理
+     * 3. 通知各节点丢弃本地缓存
+     *
+     * @param key       策略标识
+     * @param armoryKey 新版本键
+     */
+    @Override
+    public void switchStrategyArmoryKey(String key, String armoryKey) {
+        String previousArmoryKey = redisService.getAndSet(Constants.RedisKey.STRATEGY_ARMORY_VERSION_KEY + key, armoryKey);
+        // 未记录版本指针时，旧数据为未分版本的历史装配数据
+        expireArmoryKey(null == previousArmoryKey ? key : previousArmoryKey);
+        publishStrategyArmory(key);
+        log.info("策略装配版本切换 key:{} {} -> {}", key, previousArmoryKey, armoryKey);
+    }
+
+    private void expireArmoryKey(String armoryKey) {
+        RedisBatch batch = redisService.createBatch();
+        batch.expire(Constants.RedisKey.STRATEGY_RATE_TABLE_KEY + armoryKey, ARMORY_VERSION_RETAIN_MILLIS);
+        batch.expire(Constants.RedisKey.STRATEGY_RATE_RANGE_KEY + armoryKey, ARMORY_VERSION_RETAIN_MILLIS);
+        batch.expire(Constants.RedisKey.STRATEGY_ALIAS_TABLE_KEY + armoryKey, ARMORY_VERSION_RETAIN_MILLIS);
+        batch.expire(Constants.RedisKey.STRATEGY_BUCKET_TABLE_KEY + armoryKey, ARMORY_VERSION_RETAIN_MILLIS);
+        batch.expire(Constants.RedisKey.STRATEGY_ALGORITHM_KEY + armoryKey, ARMORY_VERSION_RETAIN_MILLIS);
+        batch.execute();
+    }
+
+    /**
+     * 是否已装配；有版本指针，或者有未分版本的历史装配数据
+     *
+     * @param key 策略标识
+     * @return true 已装配
+     */
+    @Override
+    public boolean isStrategyArmoryAssembled(String key) {
+        RedisBatch batch = redisService.createBatch();
+        RedisBatch.Response<Boolean> versionExists = batch.isExists(Constants.RedisKey.STRATEGY_ARMORY_VERSION_KEY + key);
+        RedisBatch.Response<Boolean> algorithmExists = batch.isExists(Constants.RedisKey.STRATEGY_ALGORITHM_KEY + key);
+        RedisBatch.Response<Boolean> rateRangeExists = batch.isExists(Constants.RedisKey.STRATEGY_RATE_RANGE_KEY + key);
+        batch.execute();
+        return versionExists.get() || algorithmExists.get() || rateRangeExists.get();
+    }
+
+    /**
+     * 查询当前版本键；未记录版本指针时返回策略标识本身，兼容未分版本的历史装配数据
+     *
+     * 本地缓存 version-check-seconds 后过期重新读取版本指针，丢失切换通知的节点最迟在这个时间后改用新版本，
+     * 远早于旧版本键在 Redis 中过期；每次读取后清理该策略其他版本的本地数据。
+     *
+     * @param key 策略标识
+     * @return 版本键
+     */
+    @Override
+    public String queryStrategyArmoryKey(String key) {
+        return loadLocal(armoryKeyLocalCache, key, () -> {
+            String armoryKey = redisService.getValue(Constants.RedisKey.STRATEGY_ARMORY_VERSION_KEY + key);
+            if (null == armoryKey) armoryKey = key;
+            evictStaleArmoryVersions(key, armoryKey);
+            return armoryKey;
+        });
+    }
+
+    /**
+     * 查询装配所用算法；未记录时为历史装配的概率查找表
+     *
+     * @param key 策略标识
+     * @return 抽奖算法
+     */
+    @Override
+    public StrategyAlgorithmVO queryStrategyAlgorithm(String key) {
+        return loadLocal(algorithmLocalCache, key, () -> {
+            String algorithm = redisService.getValue(Constants.RedisKey.STRATEGY_ALGORITHM_KEY + key);
+            return StrategyAlgorithmVO.valueOfCode(algorithm);
+        });
+    }
+
     /**
      * 获取抽奖策略的范围值
      *
@@ -130,20 +649,36 @@ public class StrategyRepository implements IStrategyRepository {
      */
     @Override
     public StrategyEntity queryStrategyEntityByStrategyId(Long strategyId) {
-        // 优先从缓存获取抽奖策略
-        // 构建一个缓存键
+        // 优先从缓存获取抽奖策略；每次抽奖都会查询，本地缓存命中时不访问 Redis，也没有反序列化开销
         String cacheKey = Constants.RedisKey.STRATEGY_KEY + strategyId;
-        // 获取策略实体
-        StrategyEntity strategyEntity = redisService.getValue(cacheKey);
-        if (null != strategyEntity) return strategyEntity;
-        StrategyPO strategy = strategyDao.queryStrategyByStrategyId(strategyId);
-        strategyEntity = StrategyEntity.builder()
-                .strategyId(strategy.getStrategyId())
-                .strategyDesc(strategy.getStrategyDesc())
-                .ruleModels(strategy.getRuleModels())
-                .build();
-        redisService.setValue(cacheKey, strategyEntity);
-        return strategyEntity;
+        return queryFromCache(cacheKey, () -> {
+            StrategyPO strategy = strategyDao.queryStrategyByStrategyId(strategyId);
+            if (null == strategy) {
+                // 数据库确认不存在，短时间内同一ID不再回源
+                strategyMembershipGuard.markStrategyAbsent(strategyId);
+                return null;
+            }
+            return StrategyEntity.builder()
+                    .strategyId(strategy.getStrategyId())
+                    .strategyDesc(strategy.getStrategyDesc())
+                    .ruleModels(strategy.getRuleModels())
+                    .build();
+        });
+    }
+
+    /**
+     * 登记策略ID；装配时调用，抽奖入口据此拦截不存在的策略ID
+     *
+     * @param strategyId 策略ID
+     */
+    @Override
+    public void registerStrategyMembership(Long strategyId) {
+        strategyMembershipGuard.register(strategyId);
+    }
+
+    @Override
+    public boolean isStrategyExist(Long strategyId) {
+        return strategyMembershipGuard.isStrategyExist(strategyId);
     }
 
     /**
@@ -178,21 +713,249 @@ public class StrategyRepository implements IStrategyRepository {
      */
     @Override
     public String queryStrategyRuleValue(Long strategyId, Integer awardId, String ruleModel) {
-        StrategyRulePO strategyRule = new StrategyRulePO();
-        strategyRule.setStrategyId(strategyId);
-        strategyRule.setAwardId(awardId);
-        strategyRule.setRuleModel(ruleModel);
-        return strategyRuleDao.queryStrategyRuleValue(strategyRule);
+        // 规则过滤器每次抽奖都会查询，走两级缓存，配置变更时经 invalidateStrategyConfig 失效
+        return queryFromCache(ruleValueCacheKey(strategyId, awardId, ruleModel), () -> {
+            StrategyRulePO strategyRule = new StrategyRulePO();
+            strategyRule.setStrategyId(strategyId);
+            strategyRule.setAwardId(awardId);
+            strategyRule.setRuleModel(ruleModel);
+            return strategyRuleDao.queryStrategyRuleValue(strategyRule);
+        });
+    }
+
+    /**
+     * 批量查询策略完整配置；每批策略的策略、奖品、规则各一次 IN 查询，按策略归组
+     * 查询结果同时写入两级缓存（策略、奖品列表、规则值），之后的逐个查询直接命中缓存
+     *
+     * @param strategyIds 策略ID集合
+     * @return 策略ID -> 完整配置；数据库中不存在的策略不返回
+     */
+    @Override
+    public Map<Long, StrategyConfigEntity> queryStrategyConfigMap(Collection<Long> strategyIds) {
+        Map<Long, StrategyConfigEntity> strategyConfigMap = new LinkedHashMap<>();
+        if (null == strategyIds || strategyIds.isEmpty()) return strategyConfigMap;
+
+        for (List<Long> strategyIdPartition : Lists.partition(new ArrayList<>(strategyIds), STRATEGY_CONFIG_QUERY_BATCH_SIZE)) {
+            // 1. 策略
+            for (StrategyPO strategyPO : strategyDao.queryStrategyListByStrategyIds(strategyIdPartition)) {
+                strategyConfigMap.put(strategyPO.getStrategyId(), StrategyConfigEntity.builder()
+                        .strategyEntity(StrategyEntity.builder()
+                                .strategyId(strategyPO.getStrategyId())
+                                .strategyDesc(strategyPO.getStrategyDesc())
+                                .ruleModels(strategyPO.getRuleModels())
+                                .build())
+                        .strategyAwardEntities(new ArrayList<>())
+                        .strategyAwardRuleModelVOMap(new HashMap<>())
+                        .strategyRuleEntities(new ArrayList<>())
+                        .build());
+            }
+            // 2. 策略奖品，连同奖品规则模型
+            for (StrategyAwardPO strategyAwardPO : strategyAwardDao.queryStrategyAwardListByStrategyIds(strategyIdPartition)) {
+                StrategyConfigEntity strategyConfigEntity = strategyConfigMap.get(strategyAwardPO.getStrategyId());
+                if (null == strategyConfigEntity) continue;
+                strategyConfigEntity.getStrategyAwardEntities().add(StrategyAwardEntity.builder()
+                        .strategyId(strategyAwardPO.getStrategyId())
+                        .awardId(strategyAwardPO.getAwardId())
+                        .awardCount(strategyAwardPO.getAwardCount())
+                        .awardCountSurplus(strategyAwardPO.getAwardCountSurplus())
+                        .awardRate(strategyAwardPO.getAwardRate())
+                        .build());
+                strategyConfigEntity.getStrategyAwardRuleModelVOMap().put(strategyAwardPO.getAwardId(),
+                        StrategyAwardRuleModelVO.builder().ruleModels(strategyAwardPO.getRuleModels()).build());
+            }
+            // 3. 策略规则
+            for (StrategyRulePO strategyRulePO : strategyRuleDao.queryStrategyRuleListByStrategyIds(strategyIdPartition)) {
+                StrategyConfigEntity strategyConfigEntity = strategyConfigMap.get(strategyRulePO.getStrategyId());
+                if (null == strategyConfigEntity) continue;
+                strategyConfigEntity.getStrategyRuleEntities().add(StrategyRuleEntity.builder()
+                        .strategyId(strategyRulePO.getStrategyId())
+                        .awardId(strategyRulePO.getAwardId())
+                        .ruleType(strategyRulePO.getRuleType())
+                        .ruleModel(strategyRulePO.getRuleModel())
+                        .ruleValue(strategyRulePO.getRuleValue())
+                        .ruleDesc(strategyRulePO.getRuleDesc())
+                        .build());
+            }
+        }
+
+        // 4. 回填两级缓存；Redis 写入一次管道发送
+        RedisBatch batch = redisService.createBatch();
+        strategyConfigMap.forEach((strategyId, strategyConfigEntity) -> {
+            storeToCache(batch, Constants.RedisKey.STRATEGY_KEY + strategyId, strategyConfigEntity.getStrategyEntity());
+            storeToCache(batch, Constants.RedisKey.STRATEGY_AWARD_KEY + strategyId, strategyConfigEntity.getStrategyAwardEntities());
+            for (StrategyRuleEntity strategyRuleEntity : strategyConfigEntity.getStrategyRuleEntities()) {
+                if (null == strategyRuleEntity.getRuleValue()) continue;
+                storeToCache(batch, ruleValueCacheKey(strategyId, strategyRuleEntity.getAwardId(), strategyRuleEntity.getRuleModel()), strategyRuleEntity.getRuleValue());
+            }
+        });
+        batch.execute();
+        return strategyConfigMap;
+    }
+
+    private String ruleValueCacheKey(Long strategyId, Integer awardId, String ruleModel) {
+        return Constants.RedisKey.STRATEGY_RULE_VALUE_KEY + strategyId + Constants.UNDERLINE + queryRuleValueGeneration(strategyId)
+                + Constants.UNDERLINE + (null == awardId ? "" : awardId) + Constants.UNDERLINE + ruleModel;
+    }
+
+    /**
+     * 规则值缓存代次；规则值缓存键带上代次，配置变更时代次加一，该策略下的规则值缓存（包括不存在规则的空值占位）按策略一起失效
+     */
+    private long queryRuleValueGeneration(Long strategyId) {
+        String cacheKey = Constants.RedisKey.STRATEGY_RULE_VALUE_GENERATION_KEY + strategyId;
+        Object generation = strategyLocalCache.getIfPresent(cacheKey);
+        if (null != generation) return (Long) generation;
+        long value = redisService.getCounter(cacheKey);
+        strategyLocalCache.put(cacheKey, value);
+        return value;
+    }
+
+    /**
+     * 批量查询奖品规则模型；一条 IN 查询代替逐个奖品查询。
+     * 抽奖路径只读取装配时预建的规则模型索引，本方法仅在索引缓存缺失时由 queryStrategyAwardRuleModelIndex 回源构建索引调用
+     *
+     * @param strategyId 策略ID
+     * @param awardIds   奖品ID集合
+     * @return 奖品ID -> 规则模型
+     */
+    @Override
+    public Map<Integer, StrategyAwardRuleModelVO> queryStrategyAwardRuleModelVOMap(Long strategyId, Collection<Integer> awardIds) {
+        Map<Integer, StrategyAwardRuleModelVO> strategyAwardRuleModelVOMap = new HashMap<>();
+        if (null == awardIds || awardIds.isEmpty()) return strategyAwardRuleModelVOMap;
+        List<StrategyAwardPO> strategyAwardPOS = strategyAwardDao.queryStrategyAwardRuleModelsByAwardIds(strategyId, awardIds);
+        for (StrategyAwardPO strategyAwardPO : strategyAwardPOS) {
+            strategyAwardRuleModelVOMap.put(strategyAwardPO.getAwardId(), StrategyAwardRuleModelVO.builder().ruleModels(strategyAwardPO.getRuleModels()).build());
+        }
+        return strategyAwardRuleModelVOMap;
+    }
+
+    /**
+     * 存储奖品规则模型索引；写入 Redis 后通知各节点丢弃本地缓存，下次抽奖读取新索引
+     *
+     * @param strategyId                    策略ID
+     * @param strategyAwardRuleModelIndexVO 奖品规则模型索引
+     */
+    @Override
+    public void storeStrategyAwardRuleModelIndex(Long strategyId, StrategyAwardRuleModelIndexVO strategyAwardRuleModelIndexVO) {
+        String cacheKey = Constants.RedisKey.STRATEGY_AWARD_RULE_MODEL_INDEX_KEY + strategyId;
+        invalidateCache(cacheKey);
+        redisService.setValue(cacheKey, strategyAwardRuleModelIndexVO);
+    }
+
+    /**
+     * 查询奖品规则模型索引；未装配时按数据库构建
+     *
+     * @param strategyId 策略ID
+     * @return 奖品规则模型索引
+     */
+    @Override
+    public StrategyAwardRuleModelIndexVO queryStrategyAwardRuleModelIndex(Long strategyId) {
+        return queryFromCache(Constants.RedisKey.STRATEGY_AWARD_RULE_MODEL_INDEX_KEY + strategyId, () -> {
+            List<Integer> awardIds = new ArrayList<>();
+            for (StrategyAwardEntity strategyAwardEntity : queryStrategyAwardList(strategyId)) {
+                awardIds.add(strategyAwardEntity.getAwardId());
+            }
+            return StrategyAwardRuleModelIndexVO.build(queryStrategyAwardRuleModelVOMap(strategyId, awardIds));
+        });
+    }
+
+    @Override
+    public void assembleStrategyBlacklist(Long strategyId, boolean reassemble) {
+        strategyBlacklistStore.assemble(strategyId, reassemble);
+    }
+
+    @Override
+    public boolean isStrategyBlacklisted(Long strategyId, String userId) {
+        return strategyBlacklistStore.contains(strategyId, userId);
+    }
+
+    @Override
+    public void addStrategyBlacklist(Long strategyId, Collection<String> userIds) {
+        strategyBlacklistStore.add(strategyId, userIds);
+    }
+
+    @Override
+    public void removeStrategyBlacklist(Long strategyId, Collection<String> userIds) {
+        strategyBlacklistStore.remove(strategyId, userIds);
+    }
+
+    @Override
+    public long queryUserScore(String userId) {
+        return userScoreStore.query(userId);
+    }
+
+    @Override
+    public long addUserScore(String userId, long delta) {
+        return userScoreStore.add(userId, delta);
+    }
+
+    @Override
+    public long incrUserRaffleCount(Long strategyId, String userId, int count) {
+        return userRaffleCountStore.incr(strategyId, userId, count);
+    }
+
+    @Override
+    public long queryUserRaffleCount(Long strategyId, String userId) {
+        return userRaffleCountStore.query(strategyId, userId);
+    }
+
+    /**
+     * 批量写入抽奖记录；由抽奖后处理的消费线程调用
+     *
+     * @param raffleRecordEntities 抽奖记录
+     */
+    @Override
+    public void saveRaffleRecords(List<RaffleRecordEntity> raffleRecordEntities) {
+        List<RaffleRecordPO> raffleRecordPOList = new ArrayList<>(raffleRecordEntities.size());
+        for (RaffleRecordEntity raffleRecordEntity : raffleRecordEntities) {
+            RaffleRecordPO raffleRecordPO = new RaffleRecordPO();
+            raffleRecordPO.setUserId(raffleRecordEntity.getUserId());
+            raffleRecordPO.setStrategyId(raffleRecordEntity.getStrategyId());
+            raffleRecordPO.setAwardId(raffleRecordEntity.getAwardId());
+            raffleRecordPO.setAwardConfig(raffleRecordEntity.getAwardConfig());
+            raffleRecordPO.setRaffleTime(raffleRecordEntity.getRaffleTime());
+            raffleRecordPOList.add(raffleRecordPO);
+        }
+        raffleRecordDao.insertRaffleRecords(raffleRecordPOList);
+    }
+
+    /**
+     * 累加奖品抽中次数；一批合并后的所有计数一次批量提交
+     *
+     * @param strategyAwardCounts 策略ID -> (奖品ID -> 抽中次数)
+     */
+    @Override
+    public void incrStrategyAwardRaffleCount(Map<Long, Map<Integer, Long>> strategyAwardCounts) {
+        RedisBatch batch = redisService.createBatch();
+        strategyAwardCounts.forEach((strategyId, awardCounts) -> awardCounts.forEach((awardId, count) ->
+                batch.incrBy(Constants.RedisKey.STRATEGY_AWARD_RAFFLE_COUNT_KEY + strategyId + Constants.UNDERLINE + awardId, count)));
+        batch.execute();
     }
 
+    /**
+     * 广播抽奖记录；一批记录合并为一条消息
+     *
+     * @param raffleRecordEntities 抽奖记录
+     */
     @Override
-    public StrategyAwardRuleModelVO queryStrategyAwardRuleModelVO(Long strategyId, Integer awardId) {
-        StrategyAwardPO strategyAwardPO = new StrategyAwardPO();
-        strategyAwardPO.setStrategyId(strategyId);
-        strategyAwardPO.setAwardId(awardId);
-        String ruleModels = strategyAwardDao.queryStrategyAwardRuleModels(strategyAwardPO);
-        return StrategyAwardRuleModelVO.builder().ruleModels(ruleModels).build();
+    public void publishRaffleRecords(List<RaffleRecordEntity> raffleRecordEntities) {
+        redisService.getTopic(Constants.RedisKey.RAFFLE_RECORD_TOPIC).publish(JSON.toJSONString(raffleRecordEntities));
     }
 
+    /**
+     * L1 空值占位；Guava 缓存只有统一的过期时间，空值单独记录到期时间，比正常值更早回源
+     */
+    private static final class NullValue {
+
+        private final long expireAt;
+
+        private NullValue(long expireAt) {
+            this.expireAt = expireAt;
+        }
+
+        private boolean isExpired() {
+            return expireAt <= System.currentTimeMillis();
+        }
+
+    }
 
 }
@@ -5,12 +5,32 @@ public class Constants {
     public final static String SPLIT = ",";
     public final static String COLON = ":";
     public final static String SPACE = " ";
+    public final static String UNDERLINE = "_";
 
     public static class RedisKey {
         public static String STRATEGY_KEY = "big_market_strategy_key_";
         public static String STRATEGY_AWARD_KEY = "big_market_strategy_award_key_";
+        public static String STRATEGY_AWARD_RULE_MODEL_INDEX_KEY = "big_market_strategy_award_rule_model_index_key_";
+        public static String STRATEGY_RULE_VALUE_KEY = "big_market_strategy_rule_value_key_";
+        public static String STRATEGY_RULE_VALUE_GENERATION_KEY = "big_market_strategy_rule_value_generation_key_";
         public static String STRATEGY_RATE_TABLE_KEY = "big_market_strategy_rate_table_key_";
         public static String STRATEGY_RATE_RANGE_KEY = "big_market_strategy_rate_range_key_";
+        public static String STRATEGY_ALGORITHM_KEY = "big_market_strategy_algorithm_key_";
+        public static String STRATEGY_ALIAS_TABLE_KEY = "big_market_strategy_alias_table_key_";
+        public static String STRATEGY_BUCKET_TABLE_KEY = "big_market_strategy_bucket_table_key_";
+        public static String STRATEGY_ARMORY_VERSION_KEY = "big_market_strategy_armory_version_key_";
+        public static String STRATEGY_ARMORY_VERSION_SEQ_KEY = "big_market_strategy_armory_version_seq_key_";
+        public static String STRATEGY_BLOOM_FILTER_KEY = "big_market_strategy_bloom_filter_key";
+        public static String STRATEGY_LOAD_LOCK_KEY = "big_market_strategy_load_lock_key_";
+        public static String STRATEGY_BLACKLIST_KEY = "big_market_strategy_blacklist_key_";
+        public static String STRATEGY_BLACKLIST_VERSION_KEY = "big_market_strategy_blacklist_version_key_";
+        public static String USER_SCORE_KEY = "big_market_user_score_key_";
+        public static String USER_RAFFLE_COUNT_KEY = "big_market_user_raffle_count_key_";
+        public static String STRATEGY_AWARD_RAFFLE_COUNT_KEY = "big_market_strategy_award_raffle_count_key_";
+        public static String STRATEGY_ARMORY_TOPIC = "big_market_strategy_armory_topic";
+        public static String STRATEGY_CONFIG_TOPIC = "big_market_strategy_config_topic";
+        public static String STRATEGY_BLACKLIST_TOPIC = "big_market_strategy_blacklist_topic";
+        public static String RAFFLE_RECORD_TOPIC = "big_market_raffle_record_topic";
     }
 
 }
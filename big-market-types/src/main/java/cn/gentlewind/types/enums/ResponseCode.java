@@ -12,7 +12,12 @@ public enum ResponseCode {
     SUCCESS("0000", "成功"),
     UN_ERROR("0001", "未知失败"),
     ILLEGAL_PARAMETER("0002", "非法参数"),
-    STRATEGY_RULE_WEIGHT_IS_NULL("ERR_BIZ_001", "业务异常，策略规则中 rule_weight 权重规则已适用但未配置");
+    STRATEGY_RULE_WEIGHT_IS_NULL("ERR_BIZ_001", "业务异常，策略规则中 rule_weight 权重规则已适用但未配置"),
+    STRATEGY_CACHE_LOAD_TIMEOUT("ERR_BIZ_002", "业务异常，策略配置加载等待超时"),
+    STRATEGY_NOT_EXIST("ERR_BIZ_003", "业务异常，抽奖策略不存在"),
+    STRATEGY_RULE_MODEL_UNKNOWN("ERR_BIZ_004", "业务异常，策略配置了未实现或不适用的规则模型"),
+    STRATEGY_AWARD_RATE_IS_ZERO("ERR_BIZ_005", "业务异常，策略奖品概率总和为0，无法装配"),
+    STRATEGY_ARMORY_NOT_ASSEMBLED("ERR_BIZ_006", "业务异常，抽奖策略查找表未装配或已过期");
 
     private String code;
     private String info;
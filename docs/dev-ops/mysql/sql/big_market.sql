@@ -150,7 +150,7 @@ CREATE TABLE `strategy_rule` (
                                  `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
                                  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
                                  PRIMARY KEY (`id`),
-                                 KEY `idx_strategy_id_award_id` (`strategy_id`,`award_id`)
+                                 KEY `idx_strategy_id_rule_model_award_id` (`strategy_id`,`rule_model`,`award_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 LOCK TABLES `strategy_rule` WRITE;
@@ -180,6 +180,70 @@ VALUES
 UNLOCK TABLES;
 
 
+# 转储表 strategy_blacklist
+# ------------------------------------------------------------
+
+DROP TABLE IF EXISTS `strategy_blacklist`;
+
+CREATE TABLE `strategy_blacklist` (
+                                      `id` bigint(11) unsigned NOT NULL AUTO_INCREMENT COMMENT '自增ID',
+                                      `strategy_id` int(8) NOT NULL COMMENT '抽奖策略ID',
+                                      `user_id` varchar(32) NOT NULL COMMENT '用户ID',
+                                      `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+                                      `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+                                      PRIMARY KEY (`id`),
+                                      UNIQUE KEY `uq_strategy_id_user_id` (`strategy_id`,`user_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+LOCK TABLES `strategy_blacklist` WRITE;
+/*!40000 ALTER TABLE `strategy_blacklist` DISABLE KEYS */;
+
+INSERT INTO `strategy_blacklist` (`id`, `strategy_id`, `user_id`, `create_time`, `update_time`)
+VALUES
+    (1,100001,'user001','2024-01-06 14:05:34','2024-01-06 14:05:34'),
+    (2,100001,'user002','2024-01-06 14:05:34','2024-01-06 14:05:34'),
+    (3,100001,'user003','2024-01-06 14:05:34','2024-01-06 14:05:34');
+
+/*!40000 ALTER TABLE `strategy_blacklist` ENABLE KEYS */;
+UNLOCK TABLES;
+
+
+# 转储表 user_raffle_count
+# ------------------------------------------------------------
+
+DROP TABLE IF EXISTS `user_raffle_count`;
+
+CREATE TABLE `user_raffle_count` (
+                                     `id` bigint(11) unsigned NOT NULL AUTO_INCREMENT COMMENT '自增ID',
+                                     `strategy_id` int(8) NOT NULL COMMENT '抽奖策略ID',
+                                     `user_id` varchar(32) NOT NULL COMMENT '用户ID',
+                                     `raffle_count` bigint(20) NOT NULL DEFAULT '0' COMMENT '累计抽奖次数',
+                                     `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+                                     `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+                                     PRIMARY KEY (`id`),
+                                     UNIQUE KEY `uq_strategy_id_user_id` (`strategy_id`,`user_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+
+# 转储表 raffle_record
+# ------------------------------------------------------------
+
+DROP TABLE IF EXISTS `raffle_record`;
+
+CREATE TABLE `raffle_record` (
+                                 `id` bigint(11) unsigned NOT NULL AUTO_INCREMENT COMMENT '自增ID',
+                                 `user_id` varchar(32) NOT NULL COMMENT '用户ID',
+                                 `strategy_id` int(8) NOT NULL COMMENT '抽奖策略ID',
+                                 `award_id` int(8) NOT NULL COMMENT '奖品ID',
+                                 `award_config` varchar(32) DEFAULT NULL COMMENT '奖品配置信息；兜底奖品的配置，如 1,100',
+                                 `raffle_time` datetime NOT NULL COMMENT '抽奖时间',
+                                 `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+                                 `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+                                 PRIMARY KEY (`id`),
+                                 KEY `idx_user_id_strategy_id` (`user_id`,`strategy_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+
 
 /*!40111 SET SQL_NOTES=@OLD_SQL_NOTES */;
 /*!40101 SET SQL_MODE=@OLD_SQL_MODE */;